@@ -0,0 +1,68 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compara la latencia del lado del llamador de los perfiles síncronos con sus variantes
+ * asíncronas, escribiendo en archivos de un directorio temporal. El modo SampleTime reporta los
+ * percentiles (p0.99, p0.999) de cada llamada a LogHelper.info, que en los perfiles síncronos
+ * incluye la escritura a disco y las rotaciones.
+ * La consola se redirige a un flujo nulo para no medir la salida de JMH. Los loggers asíncronos
+ * usan los ajustes recomendados en los perfiles y la política de cola llena que bloquea, para que
+ * los percentiles no mejoren a costa de descartar eventos.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=AsyncLoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+@Fork(jvmArgsPrepend = {
+    "-Dlog4j2.asyncLoggerConfigRingBufferSize=65536",
+    "-Dlog4j2.asyncLoggerConfigWaitStrategy=Timeout",
+    "-Dlog4j2.asyncLoggerConfigTimeout=10",
+    "-Dlog4j2.asyncQueueFullPolicy=Default"
+})
+public class AsyncLoggingBenchmark {
+
+    @Param({
+        "log4j2-prod.yaml", "log4j2-prod-async.yaml",
+        "profiles/web-service.yaml", "profiles/web-service-async.yaml"
+    })
+    public String config;
+
+    private BenchmarkLogFiles logFiles;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws IOException, URISyntaxException {
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        logFiles = BenchmarkLogFiles.open("async-logging-benchmark", config);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, URISyntaxException {
+        logFiles.close();
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void logInfo(OrderPayload order) {
+        LogHelper.info(OrderPayload.MESSAGE, order.customer, order.items, order.amount);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+
+/**
+ * Directorio temporal de logs de los benchmarks que escriben archivos. Al abrirlo se publica
+ * como LOG_PATH y se carga la configuración indicada; al cerrarlo se vuelve a
+ * log4j2-benchmark.yaml, que descarta los eventos, y se borra el directorio.
+ * Las demás propiedades que lea la configuración se fijan antes de abrirlo.
+ */
+final class BenchmarkLogFiles implements AutoCloseable {
+    private static final String BENCHMARK_CONFIG = "log4j2-benchmark.yaml";
+
+    private final LoggerContext context;
+    private final Path directory;
+
+    private BenchmarkLogFiles(LoggerContext context, Path directory) {
+        this.context = context;
+        this.directory = directory;
+    }
+
+    /**
+     * Crea el directorio y carga la configuración.
+     *
+     * @param prefix El prefijo del directorio temporal.
+     * @param config El recurso de configuración de Log4j2.
+     * @return Los archivos del benchmark.
+     * @throws IOException Si no se puede crear el directorio.
+     * @throws URISyntaxException Si el recurso no tiene una URI válida.
+     */
+    static BenchmarkLogFiles open(String prefix, String config) throws IOException, URISyntaxException {
+        Path directory = Files.createTempDirectory(prefix);
+        System.setProperty("LOG_PATH", directory.toString());
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        context.setConfigLocation(BenchmarkLogFiles.class.getClassLoader().getResource(config).toURI());
+        return new BenchmarkLogFiles(context, directory);
+    }
+
+    @Override
+    public void close() throws IOException, URISyntaxException {
+        context.setConfigLocation(BenchmarkLogFiles.class.getClassLoader().getResource(BENCHMARK_CONFIG).toURI());
+        System.clearProperty("LOG_PATH");
+        delete(directory);
+    }
+
+    /**
+     * Borra un directorio y su contenido.
+     *
+     * @param directory El directorio.
+     * @throws IOException Si no se puede borrar algún archivo.
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Mide la escalabilidad del enmascaramiento masivo con 1, 2, 4 y 8 hilos sobre un millón de
+ * correos. La variante paralela se ejecuta desde una tarea de un ForkJoinPool del tamaño
+ * indicado, de modo que el stream paralelo usa ese pool en lugar del común.
+ * Con escalado lineal, el tiempo por operación se reduce a la mitad al duplicar los hilos.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=BulkMaskerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkMaskerBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private String[] emails;
+    private String[] output;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        emails = new String[SIZE];
+        output = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            emails[i] = "customer.number" + i + "@mail-" + (i % 97) + ".example.com";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String[] parallelMaskAll() {
+        pool.submit(() -> BulkMasker.parallelMaskAll(MaskType.EMAIL, emails, output)).join();
+        return output;
+    }
+}
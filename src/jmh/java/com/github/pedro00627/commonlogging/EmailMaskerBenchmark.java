@@ -0,0 +1,46 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compara el enmascarador de correos sin expresiones regulares con la implementación anterior
+ * basada en EMAIL_PATTERN, indexOf y substring, para correos válidos e inválidos.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=EmailMaskerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailMaskerBenchmark {
+
+    private static final Pattern LEGACY_PATTERN = Pattern.compile(
+            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+
+    @Param({"test.user@pragma.com.co", "a.b.c.d.e.f.g.h.i.j.k.l.m.n.o.p@domain.net", "not-an-email.example.com"})
+    public String email;
+
+    @Benchmark
+    public String stateMachine() {
+        return EmailMasker.mask(email);
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        if (!LEGACY_PATTERN.matcher(email).matches()) {
+            return "invalid-email-format";
+        }
+        int atIndex = email.indexOf('@');
+        String localPart = email.substring(0, atIndex);
+        if (localPart.length() <= 2) {
+            return "***" + email.substring(atIndex);
+        }
+        return localPart.charAt(0) + "***" + localPart.charAt(localPart.length() - 1) + email.substring(atIndex);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compara el rendimiento de {@link RollingMemoryMappedFileAppender} con RollingFile y
+ * RollingRandomAccessFile escribiendo eventos JSON en un directorio temporal, con rotación cada
+ * 50 MB y compresión gz. Los tres appenders se declaran en log4j2-file-appender-benchmark.yaml
+ * y se eligen con LOG_FILE_APPENDER, como en los perfiles de producción.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=FileAppenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileAppenderBenchmark {
+
+    @Param({"RollingFile", "RollingRandomAccessFile", "RollingMemoryMappedFile"})
+    public String appender;
+
+    private BenchmarkLogFiles logFiles;
+
+    @Setup
+    public void setUp() throws IOException, URISyntaxException {
+        System.setProperty("LOG_FILE_APPENDER", appender);
+        logFiles = BenchmarkLogFiles.open("file-appender-benchmark", "log4j2-file-appender-benchmark.yaml");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, URISyntaxException {
+        logFiles.close();
+        System.clearProperty("LOG_FILE_APPENDER");
+    }
+
+    @Benchmark
+    public void logInfo(OrderPayload order) {
+        LogHelper.info(OrderPayload.MESSAGE, order.customer, order.items, order.amount);
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mide {@link JsonRedactor} sobre cuerpos de distinto tamaño con un presupuesto de 4 KB. Con el
+ * presupuesto fijo, el tiempo y la memoria por llamada no deben crecer con el tamaño del cuerpo.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=JsonRedactorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonRedactorBenchmark {
+    private static final JsonRedactor REDACTOR = JsonRedactor.builder()
+            .mask("customer.email", MaskType.EMAIL)
+            .mask("customer.document", MaskType.DOCUMENT)
+            .mask("items.card", MaskType.CARD)
+            .maxBytes(4096)
+            .build();
+
+    @Param({"10", "1000", "100000"})
+    public int items;
+
+    private String body;
+    private final StringBuilder buffer = new StringBuilder(8192);
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("{\"customer\":{\"name\":\"Ana\",\"email\":\"test.user@pragma.com.co\","
+                + "\"document\":\"1234567890\"},\"items\":[");
+        for (int i = 0; i < items; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"sku\":\"SKU-").append(i).append("\",\"card\":\"4111111111111111\",\"qty\":2}");
+        }
+        body = json.append("]}").toString();
+    }
+
+    @Benchmark
+    public StringBuilder redact() {
+        buffer.setLength(0);
+        REDACTOR.redactTo(body, buffer);
+        return buffer;
+    }
+}
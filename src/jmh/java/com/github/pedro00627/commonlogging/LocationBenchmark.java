@@ -0,0 +1,91 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compara el coste de registrar con includeLocation activo cuando Log4j2 calcula la ubicación
+ * recorriendo la pila ("walked") y cuando la llamada está tejida con {@link LocationWeaver}
+ * ("woven"). Usa el perfil web-service.yaml con el paquete de la librería como APP_PACKAGE y
+ * escribe en un directorio temporal; la consola se redirige a un flujo nulo.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=LocationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocationBenchmark {
+
+    @Param({"walked", "woven"})
+    public String location;
+
+    private BenchmarkLogFiles logFiles;
+    private PrintStream stdout;
+    private Runnable caller;
+
+    /**
+     * Sitio de llamada medido. Es público porque la variante tejida se carga en otro cargador.
+     */
+    public static final class Caller implements Runnable {
+        private static final LoggerPort log = LogHelper.forClass(Caller.class);
+
+        private final OrderPayload order = new OrderPayload();
+
+        @Override
+        public void run() {
+            log.info(OrderPayload.MESSAGE, order.customer, order.items, order.amount);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        System.setProperty("APP_PACKAGE", LogHelper.class.getPackageName());
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        logFiles = BenchmarkLogFiles.open("location-benchmark", "profiles/web-service.yaml");
+        caller = location.equals("woven") ? woven() : new Caller();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, URISyntaxException {
+        logFiles.close();
+        System.setOut(stdout);
+        System.clearProperty("APP_PACKAGE");
+    }
+
+    @Benchmark
+    public void logInfo() {
+        caller.run();
+    }
+
+    private static Runnable woven() throws Exception {
+        byte[] classFile;
+        try (InputStream input = Caller.class.getResourceAsStream("LocationBenchmark$Caller.class")) {
+            classFile = LocationWeaver.weave(input.readAllBytes());
+        }
+        Class<?> type = new WovenLoader(Caller.class.getClassLoader()).define(Caller.class.getName(), classFile);
+        return (Runnable) type.getConstructor().newInstance();
+    }
+
+    private static final class WovenLoader extends ClassLoader {
+        WovenLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
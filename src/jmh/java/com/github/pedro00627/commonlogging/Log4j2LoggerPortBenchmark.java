@@ -0,0 +1,68 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compara el rendimiento de {@link Log4j2LoggerPort} con los métodos estáticos de LogHelper,
+ * registrando por ambos caminos el mismo mensaje con el nivel habilitado, y mide el
+ * enmascaramiento. Los eventos se descartan con el appender Null de log4j2-benchmark.yaml.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=Log4j2LoggerPortBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Log4j2LoggerPortBenchmark {
+
+    private final LoggerPort port = LogHelper.forClass(Log4j2LoggerPortBenchmark.class);
+    private final String[] loggerNames = {LogHelper.class.getName(), Log4j2LoggerPortBenchmark.class.getName()};
+    private final Level[] originalLevels = new Level[loggerNames.length];
+
+    private String email = "test.user@pragma.com.co";
+    private String documentId = "1234567890";
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < loggerNames.length; i++) {
+            originalLevels[i] = LogManager.getLogger(loggerNames[i]).getLevel();
+            Configurator.setLevel(loggerNames[i], Level.INFO);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int i = 0; i < loggerNames.length; i++) {
+            Configurator.setLevel(loggerNames[i], originalLevels[i]);
+        }
+    }
+
+    @Benchmark
+    public void portInfo(OrderPayload order) {
+        port.info(OrderPayload.MESSAGE, order.customer, order.items, order.amount);
+    }
+
+    @Benchmark
+    public void logHelperInfo(OrderPayload order) {
+        LogHelper.info(OrderPayload.MESSAGE, order.customer, order.items, order.amount);
+    }
+
+    @Benchmark
+    public String portMaskEmail() {
+        return port.maskEmail(email);
+    }
+
+    @Benchmark
+    public String portMaskDocument() {
+        return port.maskDocument(documentId);
+    }
+}
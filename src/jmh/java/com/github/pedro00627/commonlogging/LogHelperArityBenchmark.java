@@ -0,0 +1,55 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compara las sobrecargas de aridad fija con la variante de argumentos variables,
+ * con el nivel habilitado y deshabilitado. Se ejecuta con el perfilador de GC (-prof gc)
+ * configurado en build.gradle, de modo que gc.alloc.rate.norm muestra los bytes por llamada.
+ * Los eventos se descartan con el appender Null de log4j2-benchmark.yaml.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=LogHelperArityBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogHelperArityBenchmark {
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    private final String loggerName = LogHelper.class.getName();
+    private Level originalLevel;
+
+    @Setup
+    public void setUp() {
+        originalLevel = LogManager.getLogger(loggerName).getLevel();
+        Configurator.setLevel(loggerName, enabled ? Level.DEBUG : Level.INFO);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Configurator.setLevel(loggerName, originalLevel);
+    }
+
+    @Benchmark
+    public void fixedArity(OrderPayload order) {
+        LogHelper.debug(OrderPayload.MESSAGE, order.customer, order.items, order.amount);
+    }
+
+    @Benchmark
+    public void varargs(OrderPayload order) {
+        LogHelper.debug(OrderPayload.MESSAGE, new Object[] {order.customer, order.items, order.amount});
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mide el costo del motor de enmascarado con 2, 10 y 30 reglas activas sobre un mensaje sin
+ * datos sensibles y sobre uno con un correo, una tarjeta y una clave de API.
+ * Con 2 reglas se usan correo y documento; con más, todos los tipos de {@link MaskType} y reglas
+ * de prefijo hasta completar el número indicado. Como cada palabra solo se valida con las reglas
+ * candidatas, el tiempo sobre el mensaje sin datos debería mantenerse casi constante.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=MaskingEngineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MaskingEngineBenchmark {
+
+    @Param({"2", "10", "30"})
+    public int rules;
+
+    @Param({
+        "Pedido 42 procesado en 15ms por el nodo api-7 con estado OK y 3 reintentos pendientes",
+        "Cliente test.user@pragma.com.co pagó con 4111 1111 1111 1111 usando sk_live_51H8xYzAbCdEfGhIj"
+    })
+    public String message;
+
+    private MaskingEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<MaskingRule> active = new ArrayList<>();
+        if (rules == 2) {
+            active.add(MaskType.EMAIL);
+            active.add(MaskType.DOCUMENT);
+        } else {
+            active.addAll(List.of(MaskType.values()));
+        }
+        for (int i = 0; active.size() < rules; i++) {
+            char first = (char) ('a' + i % 26);
+            active.add(MaskingRule.secretPrefix("custom" + i, first + "k" + i + "_"));
+        }
+        engine = MaskingEngine.of(active);
+    }
+
+    @Benchmark
+    public String redact() {
+        return engine.redact(message);
+    }
+}
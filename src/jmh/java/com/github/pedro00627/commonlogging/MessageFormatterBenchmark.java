@@ -0,0 +1,64 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compara el formateador de una sola pasada con la implementación anterior
+ * basada en String.replaceFirst, para 0, 1, 3 y 8 argumentos.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=MessageFormatterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageFormatterBenchmark {
+
+    @Param({"0", "1", "3", "8"})
+    public int argCount;
+
+    private String template;
+    private Object[] args;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("Processing request for customer");
+        args = new Object[argCount];
+        for (int i = 0; i < argCount; i++) {
+            builder.append(" field").append(i).append("={}");
+            args[i] = "value-" + i;
+        }
+        template = builder.append(" completed").toString();
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return MessageFormatter.format(template, args);
+    }
+
+    @Benchmark
+    public String regexReplaceFirst() {
+        return legacyFormat(template, args);
+    }
+
+    /**
+     * Copia de la implementación original de LogHelper.formatMessage, usada como línea base.
+     */
+    private static String legacyFormat(String message, Object... args) {
+        if (args == null || args.length == 0) {
+            return message;
+        }
+
+        String result = message;
+        for (Object arg : args) {
+            result = result.replaceFirst("\\{\\}", arg != null ? arg.toString() : "null");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.pedro00627.commonlogging;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mensaje con tres argumentos que registran los benchmarks de logging: se inyecta como parámetro
+ * de los métodos @Benchmark para que todos midan el mismo evento. Los argumentos son campos no
+ * finales para que el JIT no los trate como constantes.
+ * Es público porque {@link LocationBenchmark} lo usa desde una clase cargada en otro cargador.
+ */
+@State(Scope.Thread)
+public class OrderPayload {
+    /**
+     * Plantilla del mensaje.
+     */
+    public static final String MESSAGE = "order for {} with {} items and amount {}";
+
+    public String customer = "customer-1234";
+    public Integer items = 3;
+    public Long amount = 125_000L;
+}
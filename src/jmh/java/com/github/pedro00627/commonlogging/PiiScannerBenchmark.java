@@ -0,0 +1,38 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mide el costo de {@link PiiScanner} sobre mensajes sin datos personales, que solo se recorren,
+ * frente a mensajes con un correo y un documento, que se reescriben. La variante indexOf sirve
+ * como referencia de un recorrido mínimo del mismo texto.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=PiiScannerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PiiScannerBenchmark {
+
+    @Param({
+        "Pedido 42 procesado en 15ms por el nodo api-7 con estado OK y 3 reintentos pendientes",
+        "Usuario test.user@pragma.com.co con documento 1234567890 actualizado correctamente"
+    })
+    public String message;
+
+    @Benchmark
+    public String redact() {
+        return PiiScanner.redact(message);
+    }
+
+    @Benchmark
+    public int indexOfBaseline() {
+        return message.indexOf('@');
+    }
+}
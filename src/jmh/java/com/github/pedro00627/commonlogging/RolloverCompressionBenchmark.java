@@ -0,0 +1,79 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Mide cuánto tarda {@link ThrottledRolloverStrategy} en comprimir un archivo rotado de 8 MB con
+ * líneas JSON, sin límite de bytes por segundo, según el códec y el nivel. El tiempo por
+ * operación, multiplicado por el tamaño real del archivo, indica cuánto CPU cuesta cada rotación.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=RolloverCompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RolloverCompressionBenchmark {
+
+    private static final int FILE_SIZE = 8 * 1024 * 1024;
+
+    @Param({"gzip:1", "gzip:6", "gzip:-1", "zstd:1", "zstd:3"})
+    public String codecLevel;
+
+    private ThrottledRolloverStrategy.Codec codec;
+    private int level;
+    private Path directory;
+    private byte[] content;
+    private Path source;
+    private Path target;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] parts = codecLevel.split(":");
+        codec = ThrottledRolloverStrategy.Codec.of(parts[0]);
+        level = Integer.parseInt(parts[1]);
+        directory = Files.createTempDirectory("rollover-compression-benchmark");
+        source = directory.resolve("app-1.log");
+        target = directory.resolve("app-1.log" + codec.extension);
+
+        StringBuilder lines = new StringBuilder(FILE_SIZE + 256);
+        for (int i = 0; lines.length() < FILE_SIZE; i++) {
+            lines.append("{\"@timestamp\":\"2024-05-01T10:15:30.")
+                    .append(i % 1000)
+                    .append("Z\",\"level\":\"INFO\",\"message\":\"order ")
+                    .append(i)
+                    .append(" created\",\"customer\":\"customer-")
+                    .append(i % 97)
+                    .append("\"}\n");
+        }
+        content = lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void writeSource() throws IOException {
+        Files.write(source, content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkLogFiles.delete(directory);
+    }
+
+    @Benchmark
+    public long compress() throws IOException, InterruptedException {
+        ThrottledRolloverStrategy.compress(source.toFile(), target.toFile(), codec, level, 0);
+        return Files.size(target);
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compara escribir un DTO con campos {@link Sensitive} mediante los accesores precalculados de
+ * {@link SensitiveRenderer}, frente a recorrer sus campos con reflexión en cada llamada.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=SensitiveRendererBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensitiveRendererBenchmark {
+
+    public record Customer(String name, @Sensitive(type = MaskType.EMAIL) String email,
+            @Sensitive(type = MaskType.DOCUMENT) String document, int age) {
+    }
+
+    private final Customer customer = new Customer("Ana", "test.user@pragma.com.co", "1234567890", 31);
+    private final StringBuilder buffer = new StringBuilder(128);
+
+    @Benchmark
+    public StringBuilder renderer() {
+        buffer.setLength(0);
+        SensitiveRenderer.renderTo(customer, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public StringBuilder reflectionPerCall() throws IllegalAccessException {
+        buffer.setLength(0);
+        buffer.append(customer.getClass().getSimpleName()).append('[');
+        Field[] fields = customer.getClass().getDeclaredFields();
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            field.setAccessible(true);
+            Sensitive sensitive = field.getAnnotation(Sensitive.class);
+            Object value = field.get(customer);
+            buffer.append(i == 0 ? "" : ", ").append(field.getName()).append('=');
+            if (sensitive != null) {
+                sensitive.type().maskTo((String) value, buffer);
+            } else {
+                buffer.append(value);
+            }
+        }
+        return buffer.append(']');
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.pedro00627.commonlogging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compara enmascarar un correo que llega como bytes UTF-8 decodificándolo a String y volviendo
+ * a codificar, frente a {@link Utf8Masking}, que trabaja sobre los bytes de un buffer directo.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=Utf8MaskingBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Utf8MaskingBenchmark {
+    private static final byte[] EMAIL = "test.user@pragma.com.co".getBytes(StandardCharsets.UTF_8);
+
+    private ByteBuffer source;
+    private ByteBuffer target;
+
+    @Setup
+    public void setup() {
+        source = ByteBuffer.allocateDirect(EMAIL.length).put(EMAIL).flip();
+        target = ByteBuffer.allocateDirect(Utf8Masking.maxMaskedLength(EMAIL.length));
+    }
+
+    @Benchmark
+    public ByteBuffer decodeMaskEncode() {
+        byte[] bytes = new byte[source.remaining()];
+        source.duplicate().get(bytes);
+        String masked = LogHelper.maskEmail(new String(bytes, StandardCharsets.UTF_8));
+        target.clear();
+        return target.put(masked.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public ByteBuffer maskBytes() {
+        target.clear();
+        Utf8Masking.maskEmail(source, target);
+        return target;
+    }
+}
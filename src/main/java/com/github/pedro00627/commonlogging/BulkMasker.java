@@ -0,0 +1,120 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Enmascaramiento masivo para exportaciones y procesos batch.
+ * Las variantes secuenciales escriben en un arreglo de salida ya reservado, sin listas
+ * intermedias. Las variantes paralelas dividen el rango de índices, cuyo Spliterator conoce su
+ * tamaño exacto y se parte en mitades equilibradas, entre los hilos del ForkJoinPool común; cada
+ * hilo usa su propio buffer de formateo, por lo que no hay contención entre ellos.
+ * Para usar otro pool, invocar la variante paralela desde una tarea de ese pool.
+ */
+public final class BulkMasker {
+    /**
+     * Número mínimo de elementos para que las variantes paralelas repartan el trabajo;
+     * por debajo, el coste de coordinar los hilos supera al de enmascarar.
+     */
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private BulkMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara cada elemento del arreglo de entrada en la misma posición del arreglo de salida.
+     * Ambos arreglos pueden ser el mismo para enmascarar en el sitio.
+     *
+     * @param type El tipo de dato a enmascarar.
+     * @param input Los valores a enmascarar. Puede contener nulos.
+     * @param output El arreglo de destino, de al menos la longitud de la entrada.
+     * @throws IllegalArgumentException Si el arreglo de salida es más corto que la entrada.
+     */
+    public static void maskAll(MaskType type, String[] input, String[] output) {
+        checkOutput(input.length, output);
+        for (int i = 0; i < input.length; i++) {
+            output[i] = type.mask(input[i]);
+        }
+    }
+
+    /**
+     * Enmascara cada elemento de la lista de entrada en la misma posición del arreglo de salida.
+     *
+     * @param type El tipo de dato a enmascarar.
+     * @param input Los valores a enmascarar. Puede contener nulos.
+     * @param output El arreglo de destino, de al menos el tamaño de la entrada.
+     * @throws IllegalArgumentException Si el arreglo de salida es más corto que la entrada.
+     */
+    public static void maskAll(MaskType type, List<String> input, String[] output) {
+        checkOutput(input.size(), output);
+        int i = 0;
+        for (String value : input) {
+            output[i++] = type.mask(value);
+        }
+    }
+
+    /**
+     * Variante paralela de {@link #maskAll(MaskType, String[], String[])}.
+     *
+     * @param type El tipo de dato a enmascarar.
+     * @param input Los valores a enmascarar. Puede contener nulos.
+     * @param output El arreglo de destino, de al menos la longitud de la entrada.
+     * @throws IllegalArgumentException Si el arreglo de salida es más corto que la entrada.
+     */
+    public static void parallelMaskAll(MaskType type, String[] input, String[] output) {
+        checkOutput(input.length, output);
+        if (input.length < PARALLEL_THRESHOLD) {
+            maskAll(type, input, output);
+            return;
+        }
+        IntStream.range(0, input.length).parallel().forEach(i -> output[i] = type.mask(input[i]));
+    }
+
+    /**
+     * Variante paralela de {@link #maskAll(MaskType, List, String[])}. Las listas sin acceso
+     * aleatorio se copian primero a un arreglo para poder repartir el trabajo por índices.
+     *
+     * @param type El tipo de dato a enmascarar.
+     * @param input Los valores a enmascarar. Puede contener nulos.
+     * @param output El arreglo de destino, de al menos el tamaño de la entrada.
+     * @throws IllegalArgumentException Si el arreglo de salida es más corto que la entrada.
+     */
+    public static void parallelMaskAll(MaskType type, List<String> input, String[] output) {
+        if (!(input instanceof RandomAccess)) {
+            parallelMaskAll(type, input.toArray(new String[0]), output);
+            return;
+        }
+        checkOutput(input.size(), output);
+        if (input.size() < PARALLEL_THRESHOLD) {
+            maskAll(type, input, output);
+            return;
+        }
+        IntStream.range(0, input.size()).parallel().forEach(i -> output[i] = type.mask(input.get(i)));
+    }
+
+    /**
+     * Collector que enmascara cada elemento del stream y los acumula en una lista, conservando
+     * el orden. Admite streams paralelos.
+     * Ejemplo: emails.parallelStream().collect(BulkMasker.toMaskedList(MaskType.EMAIL))
+     *
+     * @param type El tipo de dato a enmascarar.
+     * @return El Collector.
+     */
+    public static Collector<String, ?, List<String>> toMaskedList(MaskType type) {
+        return Collectors.mapping(type::mask, Collectors.toList());
+    }
+
+    private static void checkOutput(int inputLength, String[] output) {
+        if (output.length < inputLength) {
+            throw new IllegalArgumentException(
+                    "output length must be at least " + inputLength + ": " + output.length);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Enmascarador de números de tarjeta de pago.
+ * Un número de tarjeta tiene entre 13 y 19 dígitos, opcionalmente agrupados con espacios o
+ * guiones simples, y supera la verificación de Luhn, lo que descarta la mayoría de números
+ * largos que no son tarjetas. Se muestran solo los últimos 4 dígitos y se conservan los separadores.
+ * Ejemplo: "4111 1111 1111 1111" -> "**** **** **** 1111"
+ */
+final class CardMasker {
+    static final int MIN_DIGITS = 13;
+    static final int MAX_DIGITS = 19;
+    private static final int VISIBLE_SUFFIX = 4;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private CardMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara un número de tarjeta.
+     *
+     * @param card El número de tarjeta. Puede ser nulo.
+     * @return La tarjeta enmascarada, o {@link DocumentMasker#HIDDEN_DOCUMENT} si no es un número válido.
+     */
+    static String mask(String card) {
+        if (card == null || !isCard(card, 0, card.length())) {
+            return DocumentMasker.HIDDEN_DOCUMENT;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            appendMasked(buffer, card, 0, card.length());
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el número de tarjeta enmascarado.
+     *
+     * @param card El número de tarjeta. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    static void maskTo(CharSequence card, StringBuilder target) {
+        if (card == null || !isCard(card, 0, card.length())) {
+            target.append(DocumentMasker.HIDDEN_DOCUMENT);
+        } else {
+            appendMasked(target, card, 0, card.length());
+        }
+    }
+
+    /**
+     * Enmascara el número de tarjeta más largo que empiece en la posición indicada, uniendo
+     * grupos de dígitos separados por un espacio o un guion.
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param limit El final del texto.
+     * @param target El buffer de destino; solo se escribe si hay una tarjeta.
+     * @return El final de la tarjeta enmascarada, o -1 si no hay ninguna.
+     */
+    static int maskInText(CharSequence text, int start, int limit, StringBuilder target) {
+        int best = -1;
+        int digits = 0;
+        int i = start;
+        while (true) {
+            int groupStart = i;
+            while (i < limit && isDigit(text.charAt(i))) {
+                i++;
+            }
+            digits += i - groupStart;
+            if (i == groupStart || digits > MAX_DIGITS) {
+                break;
+            }
+            if (digits >= MIN_DIGITS && endsWord(text, i, limit) && luhn(text, start, i)) {
+                best = i;
+            }
+            if (i + 1 < limit && isSeparator(text.charAt(i)) && isDigit(text.charAt(i + 1))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (best < 0) {
+            return -1;
+        }
+        appendMasked(target, text, start, best);
+        return best;
+    }
+
+    /**
+     * Valida que el fragmento sea un número de tarjeta completo.
+     */
+    private static boolean isCard(CharSequence text, int start, int end) {
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+            } else if (!isSeparator(c) || i == start || i == end - 1 || !isDigit(text.charAt(i - 1))) {
+                return false;
+            }
+        }
+        return digits >= MIN_DIGITS && digits <= MAX_DIGITS && luhn(text, start, end);
+    }
+
+    /**
+     * Verificación de Luhn sobre los dígitos del fragmento, ignorando los separadores.
+     */
+    static boolean luhn(CharSequence text, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= start; i--) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                continue;
+            }
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static void appendMasked(StringBuilder target, CharSequence text, int start, int end) {
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            if (isDigit(text.charAt(i))) {
+                digits++;
+            }
+        }
+        int hidden = digits - VISIBLE_SUFFIX;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c) && hidden-- > 0) {
+                target.append('*');
+            } else {
+                target.append(c);
+            }
+        }
+    }
+
+    private static boolean endsWord(CharSequence text, int index, int limit) {
+        if (index == limit) {
+            return true;
+        }
+        char c = text.charAt(index);
+        return !isDigit(c) && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && c != '@' && c != '_';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,176 @@
+package com.github.pedro00627.commonlogging;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * Mensaje de Log4j2 para el modo de formateo diferido ({@link LogHelper#DEFERRED_FORMATTING_PROPERTY}).
+ * Viaja sin formatear hasta el appender: con loggers o appenders asíncronos, el formateo y la
+ * codificación JSON ocurren en el hilo de fondo y no en el hilo que registra el mensaje.
+ * Como el mensaje se lee desde otro hilo, los argumentos se capturan al crearlo:
+ * <ul>
+ *   <li>Los tipos inmutables conocidos (String, primitivos envueltos, BigDecimal, BigInteger,
+ *       UUID, enumeraciones, fechas de java.time y excepciones) se conservan por referencia.</li>
+ *   <li>Los argumentos diferidos se resuelven en el hilo del llamador y se captura su valor.</li>
+ *   <li>Cualquier otro tipo se convierte a String de inmediato, ya que podría mutar o no ser
+ *       seguro leerlo desde otro hilo.</li>
+ * </ul>
+ * Las instancias son inmutables salvo por el texto formateado, que se guarda tras la primera
+ * consulta.
+ */
+@AsynchronouslyFormattable
+final class DeferredMessage implements Message, StringBuilderFormattable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+            Instant.class, LocalDate.class, LocalTime.class, LocalDateTime.class, OffsetDateTime.class,
+            ZonedDateTime.class, Duration.class);
+
+    private final transient String template;
+    private final transient Object[] args;
+    private transient MessageTemplate parsed;
+    private transient String formatted;
+
+    private DeferredMessage(String template, Object[] args) {
+        this.template = template;
+        this.args = args;
+    }
+
+    /**
+     * Crea un mensaje diferido a partir de argumentos que el llamador puede seguir modificando.
+     * Los argumentos se copian a un arreglo nuevo.
+     *
+     * @param template La plantilla con placeholders.
+     * @param args Los argumentos. Puede ser nulo.
+     * @return El mensaje diferido.
+     */
+    static DeferredMessage capture(String template, Object[] args) {
+        if (args == null || args.length == 0) {
+            return new DeferredMessage(template, MessageFormatter.NO_ARGS);
+        }
+        return owning(template, args.clone());
+    }
+
+    /**
+     * Crea un mensaje diferido tomando posesión del arreglo de argumentos, que se captura en el sitio.
+     *
+     * @param template La plantilla con placeholders.
+     * @param args Un arreglo recién creado que nadie más referencia.
+     * @return El mensaje diferido.
+     */
+    static DeferredMessage owning(String template, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            args[i] = snapshot(args[i]);
+        }
+        return new DeferredMessage(template, args);
+    }
+
+    /**
+     * Aplica la política de captura a un argumento.
+     *
+     * @param arg El argumento. Puede ser nulo.
+     * @return El mismo argumento si es inmutable, su valor si es diferido, o su texto, con los campos sensibles enmascarados, en otro caso.
+     */
+    static Object snapshot(Object arg) {
+        if (arg == null || IMMUTABLE_TYPES.contains(arg.getClass())
+                || arg instanceof Enum<?> || arg instanceof Throwable) {
+            return arg;
+        }
+        if (arg instanceof LazyArgument lazy) {
+            return snapshot(lazy.get());
+        }
+        return SensitiveRenderer.render(arg);
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        String text = formatted;
+        if (text != null) {
+            buffer.append(text);
+        } else if (args.length == 0) {
+            buffer.append(template);
+        } else {
+            parsed().formatTo(buffer, args, args.length);
+        }
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        String text = formatted;
+        if (text == null) {
+            if (args.length == 0 || template == null) {
+                text = template;
+            } else {
+                MessageTemplate current = parsed();
+                StringBuilder buffer = new StringBuilder(current.estimateLength(args.length));
+                current.formatTo(buffer, args, args.length);
+                text = buffer.toString();
+            }
+            formatted = text;
+        }
+        return text;
+    }
+
+    @Override
+    public String getFormat() {
+        return template;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return args.clone();
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        if (args.length == 0 || !(args[args.length - 1] instanceof Throwable throwable)) {
+            return null;
+        }
+        return parsed().placeholderCount() < args.length ? throwable : null;
+    }
+
+    /**
+     * Devuelve la plantilla analizada con una sola consulta a la caché por mensaje, como en
+     * {@link TemplateMessage}. Si dos hilos la piden a la vez ambos obtienen la misma instancia
+     * de la caché, o una equivalente si fue desalojada.
+     *
+     * @return La plantilla analizada.
+     */
+    private MessageTemplate parsed() {
+        MessageTemplate current = parsed;
+        if (current == null) {
+            current = MessageFormatter.templateCache().get(template);
+            parsed = current;
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return getFormattedMessage();
+    }
+
+    /**
+     * Se serializa el texto ya formateado, como en {@link TemplateMessage}.
+     *
+     * @return El mensaje formateado como un mensaje simple.
+     */
+    private Object writeReplace() {
+        return new SimpleMessage(getFormattedMessage());
+    }
+}
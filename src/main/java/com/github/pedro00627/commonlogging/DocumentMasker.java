@@ -0,0 +1,182 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+
+/**
+ * Enmascarador de números de documento de identidad.
+ * Los documentos de menos de 6 caracteres se reemplazan por "***"; los de exactamente 6
+ * muestran el primer y el último carácter, y los más largos el primero y los últimos 4.
+ * Ejemplo: "123456" -> "1****6", "1234567890" -> "1****7890"
+ */
+final class DocumentMasker {
+    /**
+     * Resultado para documentos nulos o demasiado cortos.
+     */
+    static final String HIDDEN_DOCUMENT = "***";
+
+    /**
+     * Longitud mínima de un documento para mostrar parte de sus caracteres.
+     */
+    static final int MIN_LENGTH = 6;
+
+    /**
+     * Número máximo de dígitos consecutivos que se tratan como documento dentro de texto libre.
+     */
+    static final int MAX_TEXT_DIGITS = 20;
+    private static final int VISIBLE_SUFFIX = 4;
+    private static final String MASK = "****";
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private DocumentMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara un número de documento.
+     *
+     * @param documentId El número de documento. Puede ser nulo.
+     * @return El documento enmascarado, o {@link #HIDDEN_DOCUMENT} si es nulo o demasiado corto.
+     */
+    static String mask(String documentId) {
+        if (documentId == null || documentId.length() < MIN_LENGTH) {
+            return HIDDEN_DOCUMENT;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            maskTo(documentId, buffer);
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el documento enmascarado.
+     *
+     * @param documentId El número de documento. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    static void maskTo(CharSequence documentId, StringBuilder target) {
+        if (documentId == null || documentId.length() < MIN_LENGTH) {
+            target.append(HIDDEN_DOCUMENT);
+        } else {
+            appendMasked(target, documentId, 0, documentId.length());
+        }
+    }
+
+    /**
+     * Añade al buffer un fragmento de texto de al menos 6 caracteres, enmascarado como documento.
+     *
+     * @param target El buffer de destino.
+     * @param text El texto que contiene el documento.
+     * @param start El inicio del documento, incluido.
+     * @param end El final del documento, excluido.
+     */
+    static void appendMasked(StringBuilder target, CharSequence text, int start, int end) {
+        target.append(text.charAt(start)).append(MASK);
+        if (end - start == MIN_LENGTH) {
+            // Para documentos de exactamente 6 caracteres, mostrar primer y último dígito
+            target.append(text.charAt(end - 1));
+        } else {
+            // Para documentos más largos, mostrar primer dígito y últimos 4 dígitos
+            target.append(text, end - VISIBLE_SUFFIX, end);
+        }
+    }
+
+    /**
+     * Añade al destino el documento enmascarado, escribiendo directamente sus fragmentos.
+     *
+     * @param documentId El número de documento. Puede ser nulo.
+     * @param target El destino.
+     * @throws IOException Si el destino falla al escribir.
+     */
+    static void maskTo(CharSequence documentId, Appendable target) throws IOException {
+        if (target instanceof StringBuilder builder) {
+            maskTo(documentId, builder);
+            return;
+        }
+        if (documentId == null || documentId.length() < MIN_LENGTH) {
+            target.append(HIDDEN_DOCUMENT);
+            return;
+        }
+        int length = documentId.length();
+        target.append(documentId.charAt(0)).append(MASK);
+        if (length == MIN_LENGTH) {
+            target.append(documentId.charAt(length - 1));
+        } else {
+            target.append(documentId, length - VISIBLE_SUFFIX, length);
+        }
+    }
+
+    /**
+     * Enmascara dentro de una palabra de texto libre las secuencias de entre {@link #MIN_LENGTH}
+     * y {@link #MAX_TEXT_DIGITS} dígitos que no están pegadas a letras, de modo que
+     * identificadores como hashes hexadecimales no se alteran.
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param end El final de la palabra, excluido.
+     * @param target El buffer de destino; solo se escribe si hay alguna secuencia que enmascarar.
+     * @return end si se enmascaró alguna secuencia, o -1 en caso contrario.
+     */
+    static int maskInText(CharSequence text, int start, int end, StringBuilder target) {
+        int runEnd = nextRunEnd(text, start, end);
+        if (runEnd < 0) {
+            return -1;
+        }
+        int copied = start;
+        while (runEnd >= 0) {
+            int runStart = runEnd - runLength(text, start, runEnd);
+            target.append(text, copied, runStart);
+            appendMasked(target, text, runStart, runEnd);
+            copied = runEnd;
+            runEnd = nextRunEnd(text, runEnd, end);
+        }
+        target.append(text, copied, end);
+        return end;
+    }
+
+    /**
+     * Busca la siguiente secuencia de dígitos con forma de documento.
+     *
+     * @return El final de la secuencia, o -1 si no hay ninguna.
+     */
+    private static int nextRunEnd(CharSequence text, int from, int end) {
+        int i = from;
+        while (i < end) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runStart = i;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            int digits = i - runStart;
+            boolean isolated = (runStart == from || !isLetter(text.charAt(runStart - 1)))
+                    && (i == end || !isLetter(text.charAt(i)));
+            if (isolated && digits >= MIN_LENGTH && digits <= MAX_TEXT_DIGITS) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int runLength(CharSequence text, int start, int runEnd) {
+        int i = runEnd;
+        while (i > start && isDigit(text.charAt(i - 1))) {
+            i--;
+        }
+        return runEnd - i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
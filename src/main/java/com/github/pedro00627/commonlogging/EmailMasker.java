@@ -0,0 +1,241 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+
+/**
+ * Validador y enmascarador de correos electrónicos sin expresiones regulares.
+ * Recorre el correo una sola vez con una máquina de estados que acepta exactamente el mismo
+ * lenguaje que la expresión usada anteriormente:
+ * {@code ^[a-zA-Z0-9_+&*-]+(?:\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\.)+[a-zA-Z]{2,7}$}
+ * <ul>
+ *   <li>Parte local: segmentos no vacíos de {@code [a-zA-Z0-9_+&*-]} separados por un único punto.</li>
+ *   <li>Dominio: al menos una etiqueta no vacía de {@code [a-zA-Z0-9-]} seguida de punto.</li>
+ *   <li>Dominio de nivel superior: de 2 a 7 letras ASCII al final.</li>
+ * </ul>
+ * El recorrido devuelve la posición de la arroba, de modo que enmascarar no requiere indexOf
+ * ni substring.
+ */
+final class EmailMasker {
+    /**
+     * Resultado para correos nulos o con formato inválido.
+     */
+    static final String INVALID_EMAIL = "invalid-email-format";
+
+    private static final int MIN_TLD_LENGTH = 2;
+    private static final int MAX_TLD_LENGTH = 7;
+
+    private static final byte LOCAL_CHAR = 1;
+    private static final byte LABEL_CHAR = 2;
+    private static final byte LETTER = 4;
+    private static final byte[] CHAR_CLASSES = new byte[128];
+
+    private static final int LOCAL_START = 0;
+    private static final int LOCAL = 1;
+    private static final int LABEL_START = 2;
+    private static final int LABEL = 3;
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASSES[c] = LOCAL_CHAR | LABEL_CHAR | LETTER;
+            CHAR_CLASSES[Character.toUpperCase(c)] = LOCAL_CHAR | LABEL_CHAR | LETTER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CHAR_CLASSES[c] = LOCAL_CHAR | LABEL_CHAR;
+        }
+        CHAR_CLASSES['-'] = LOCAL_CHAR | LABEL_CHAR;
+        CHAR_CLASSES['_'] = LOCAL_CHAR;
+        CHAR_CLASSES['+'] = LOCAL_CHAR;
+        CHAR_CLASSES['&'] = LOCAL_CHAR;
+        CHAR_CLASSES['*'] = LOCAL_CHAR;
+    }
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private EmailMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara un correo: muestra el primer y el último carácter de la parte local, o solo
+     * asteriscos si tiene 2 caracteres o menos.
+     * Ejemplo: "test.user@pragma.com.co" -> "t***r@pragma.com.co"
+     *
+     * @param email El correo a enmascarar. Puede ser nulo.
+     * @return El correo enmascarado, o {@link #INVALID_EMAIL} si no es válido.
+     */
+    static String mask(String email) {
+        int atIndex = validate(email);
+        if (atIndex < 0) {
+            return INVALID_EMAIL;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            appendMasked(buffer, email, 0, atIndex, email.length());
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el correo enmascarado, o {@link #INVALID_EMAIL} si no es válido.
+     *
+     * @param email El correo a enmascarar. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    static void maskTo(CharSequence email, StringBuilder target) {
+        int atIndex = validate(email);
+        if (atIndex < 0) {
+            target.append(INVALID_EMAIL);
+        } else {
+            appendMasked(target, email, 0, atIndex, email.length());
+        }
+    }
+
+    /**
+     * Añade al destino el correo enmascarado, escribiendo directamente sus fragmentos.
+     *
+     * @param email El correo a enmascarar. Puede ser nulo.
+     * @param target El destino.
+     * @throws IOException Si el destino falla al escribir.
+     */
+    static void maskTo(CharSequence email, Appendable target) throws IOException {
+        if (target instanceof StringBuilder builder) {
+            maskTo(email, builder);
+            return;
+        }
+        int atIndex = validate(email);
+        if (atIndex < 0) {
+            target.append(INVALID_EMAIL);
+        } else if (atIndex <= 2) {
+            target.append("***").append(email, atIndex, email.length());
+        } else {
+            target.append(email.charAt(0)).append("***").append(email.charAt(atIndex - 1))
+                    .append(email, atIndex, email.length());
+        }
+    }
+
+    /**
+     * Valida un correo en una sola pasada.
+     *
+     * @param email El correo a validar. Puede ser nulo.
+     * @return La posición de la arroba si el correo es válido, o -1 en caso contrario.
+     */
+    static int validate(CharSequence email) {
+        return email == null ? -1 : validate(email, 0, email.length());
+    }
+
+    /**
+     * Valida como correo un fragmento de un texto, en una sola pasada.
+     *
+     * @param text El texto que contiene el fragmento.
+     * @param start El inicio del fragmento, incluido.
+     * @param end El final del fragmento, excluido.
+     * @return La posición de la arroba dentro del texto si el fragmento es un correo válido,
+     *         o -1 en caso contrario.
+     */
+    static int validate(CharSequence text, int start, int end) {
+        int state = LOCAL_START;
+        int atIndex = -1;
+        int tldStart = -1;
+        boolean domainDot = false;
+        boolean tldLetters = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            int classes = c < CHAR_CLASSES.length ? CHAR_CLASSES[c] : 0;
+            switch (state) {
+                case LOCAL_START -> {
+                    if ((classes & LOCAL_CHAR) == 0) {
+                        return -1;
+                    }
+                    state = LOCAL;
+                }
+                case LOCAL -> {
+                    if (c == '.') {
+                        state = LOCAL_START;
+                    } else if (c == '@') {
+                        atIndex = i;
+                        state = LABEL_START;
+                    } else if ((classes & LOCAL_CHAR) == 0) {
+                        return -1;
+                    }
+                }
+                case LABEL_START -> {
+                    if ((classes & LABEL_CHAR) == 0) {
+                        return -1;
+                    }
+                    tldStart = i;
+                    tldLetters = (classes & LETTER) != 0;
+                    state = LABEL;
+                }
+                default -> {
+                    if (c == '.') {
+                        domainDot = true;
+                        state = LABEL_START;
+                    } else if ((classes & LABEL_CHAR) == 0) {
+                        return -1;
+                    } else {
+                        tldLetters &= (classes & LETTER) != 0;
+                    }
+                }
+            }
+        }
+        int tldLength = end - tldStart;
+        boolean valid = state == LABEL && domainDot && tldLetters
+                && tldLength >= MIN_TLD_LENGTH && tldLength <= MAX_TLD_LENGTH;
+        return valid ? atIndex : -1;
+    }
+
+    /**
+     * Añade al buffer el fragmento de texto ya validado como correo, enmascarado.
+     *
+     * @param target El buffer de destino.
+     * @param text El texto que contiene el correo.
+     * @param start El inicio del correo, incluido.
+     * @param atIndex La posición de la arroba devuelta por la validación.
+     * @param end El final del correo, excluido.
+     */
+    static void appendMasked(StringBuilder target, CharSequence text, int start, int atIndex, int end) {
+        if (atIndex - start <= 2) {
+            target.append("***");
+        } else {
+            // Muestra el primer y último caracter de la parte local para mayor seguridad.
+            target.append(text.charAt(start)).append("***").append(text.charAt(atIndex - 1));
+        }
+        target.append(text, atIndex, end);
+    }
+
+    /**
+     * Enmascara una palabra de texto libre si, sin los puntos y guiones de los extremos (por
+     * ejemplo el punto final de una frase), es un correo válido.
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param end El final de la palabra, excluido.
+     * @param target El buffer de destino; solo se escribe si la palabra es un correo.
+     * @return end si la palabra se enmascaró, o -1 en caso contrario.
+     */
+    static int maskInText(CharSequence text, int start, int end, StringBuilder target) {
+        int emailStart = start;
+        int emailEnd = end;
+        while (emailStart < emailEnd && isEdgePunctuation(text.charAt(emailStart))) {
+            emailStart++;
+        }
+        while (emailEnd > emailStart && isEdgePunctuation(text.charAt(emailEnd - 1))) {
+            emailEnd--;
+        }
+        int atIndex = validate(text, emailStart, emailEnd);
+        if (atIndex < 0) {
+            return -1;
+        }
+        target.append(text, start, emailStart);
+        appendMasked(target, text, emailStart, atIndex, emailEnd);
+        target.append(text, emailEnd, end);
+        return end;
+    }
+
+    private static boolean isEdgePunctuation(char c) {
+        return c == '.' || c == '-';
+    }
+}
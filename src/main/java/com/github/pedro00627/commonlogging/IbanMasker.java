@@ -0,0 +1,181 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Enmascarador de números de cuenta IBAN.
+ * Un IBAN tiene un código de país de 2 letras, 2 dígitos de control y hasta 30 caracteres
+ * alfanuméricos más, opcionalmente agrupados de 4 en 4 con espacios, y su resto módulo 97 es 1.
+ * Se muestran el código de país, los dígitos de control y los últimos 4 caracteres.
+ * Ejemplo: "DE89 3704 0044 0532 0130 00" -> "DE89 **** **** **** **30 00"
+ */
+final class IbanMasker {
+    private static final int MIN_LENGTH = 15;
+    private static final int MAX_LENGTH = 34;
+    private static final int VISIBLE_PREFIX = 4;
+    private static final int VISIBLE_SUFFIX = 4;
+    private static final int MODULUS = 97;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private IbanMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara un IBAN.
+     *
+     * @param iban El IBAN. Puede ser nulo.
+     * @return El IBAN enmascarado, o {@link DocumentMasker#HIDDEN_DOCUMENT} si no es válido.
+     */
+    static String mask(String iban) {
+        if (iban == null || !isIban(iban)) {
+            return DocumentMasker.HIDDEN_DOCUMENT;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            appendMasked(buffer, iban, 0, iban.length());
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el IBAN enmascarado.
+     *
+     * @param iban El IBAN. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    static void maskTo(CharSequence iban, StringBuilder target) {
+        if (iban == null || !isIban(iban)) {
+            target.append(DocumentMasker.HIDDEN_DOCUMENT);
+        } else {
+            appendMasked(target, iban, 0, iban.length());
+        }
+    }
+
+    /**
+     * Enmascara el IBAN más largo que empiece en la posición indicada, uniendo grupos
+     * separados por un espacio.
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param limit El final del texto.
+     * @param target El buffer de destino; solo se escribe si hay un IBAN.
+     * @return El final del IBAN enmascarado, o -1 si no hay ninguno.
+     */
+    static int maskInText(CharSequence text, int start, int limit, StringBuilder target) {
+        if (start + VISIBLE_PREFIX > limit || !hasPrefix(text, start)) {
+            return -1;
+        }
+        int best = -1;
+        int length = 0;
+        int i = start;
+        while (true) {
+            int groupStart = i;
+            while (i < limit && isAlphanumeric(text.charAt(i))) {
+                i++;
+            }
+            length += i - groupStart;
+            if (i == groupStart || length > MAX_LENGTH) {
+                break;
+            }
+            if (length >= MIN_LENGTH && (i == limit || !Character.isLetterOrDigit(text.charAt(i)))
+                    && checksum(text, start, i) == 1) {
+                best = i;
+            }
+            if (i + 1 < limit && text.charAt(i) == ' ' && isAlphanumeric(text.charAt(i + 1))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (best < 0) {
+            return -1;
+        }
+        appendMasked(target, text, start, best);
+        return best;
+    }
+
+    private static boolean isIban(CharSequence iban) {
+        int length = 0;
+        for (int i = 0, end = iban.length(); i < end; i++) {
+            char c = iban.charAt(i);
+            if (isAlphanumeric(c)) {
+                length++;
+            } else if (c != ' ' || i == 0 || iban.charAt(i - 1) == ' ') {
+                return false;
+            }
+        }
+        return length >= MIN_LENGTH && length <= MAX_LENGTH && hasPrefix(iban, 0)
+                && checksum(iban, 0, iban.length()) == 1;
+    }
+
+    private static boolean hasPrefix(CharSequence text, int start) {
+        return isUpperCase(text.charAt(start)) && isUpperCase(text.charAt(start + 1))
+                && isDigit(text.charAt(start + 2)) && isDigit(text.charAt(start + 3));
+    }
+
+    /**
+     * Calcula el resto módulo 97 del IBAN con los 4 primeros caracteres al final y las letras
+     * convertidas a números (A=10 ... Z=35), sin construir el número completo.
+     */
+    private static int checksum(CharSequence text, int start, int end) {
+        int remainder = 0;
+        int prefixEnd = start;
+        for (int seen = 0; seen < VISIBLE_PREFIX; prefixEnd++) {
+            if (text.charAt(prefixEnd) != ' ') {
+                seen++;
+            }
+        }
+        for (int i = prefixEnd; i < end; i++) {
+            remainder = accumulate(remainder, text.charAt(i));
+        }
+        for (int i = start; i < prefixEnd; i++) {
+            remainder = accumulate(remainder, text.charAt(i));
+        }
+        return remainder;
+    }
+
+    private static int accumulate(int remainder, char c) {
+        if (isDigit(c)) {
+            return (remainder * 10 + (c - '0')) % MODULUS;
+        }
+        if (c == ' ') {
+            return remainder;
+        }
+        int value = Character.toUpperCase(c) - 'A' + 10;
+        return (remainder * 100 + value) % MODULUS;
+    }
+
+    private static void appendMasked(StringBuilder target, CharSequence text, int start, int end) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != ' ') {
+                length++;
+            }
+        }
+        int position = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                target.append(c);
+            } else {
+                target.append(position < VISIBLE_PREFIX || position >= length - VISIBLE_SUFFIX ? c : '*');
+                position++;
+            }
+        }
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return isDigit(c) || isUpperCase(c) || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
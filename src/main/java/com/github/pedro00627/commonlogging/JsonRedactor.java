@@ -0,0 +1,855 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.Arrays;
+
+/**
+ * Enmascarador de cuerpos JSON para el logging de peticiones y respuestas.
+ * Recorre el JSON con un tokenizador en streaming y lo reescribe compactado, sin construir un
+ * árbol: los valores de las rutas configuradas (por ejemplo {@code customer.email}) se
+ * enmascaran con su {@link MaskType}, y el resto de cadenas y números pasan por un
+ * {@link MaskingEngine} que detecta correos y documentos; un número enmascarado sale como cadena.
+ * Los arreglos no cuentan como nivel de la ruta, de modo que {@code items.card} enmascara la
+ * tarjeta de cada elemento de {@code items}.
+ * <p>
+ * El resultado se corta a un presupuesto de bytes UTF-8 y termina en {@link #TRUNCATED_SUFFIX};
+ * el recorrido se detiene en ese punto, así que el trabajo y la memoria dependen del
+ * presupuesto y de la profundidad máxima ({@link #MAX_DEPTH}), no del tamaño del cuerpo. Un
+ * valor enmascarado que no termina dentro del presupuesto se oculta entero como {@code "***"}.
+ * Si el cuerpo no es JSON válido (una coma final, varios documentos seguidos, más de
+ * {@link #MAX_DEPTH} niveles) se conserva lo ya enmascarado hasta el error y se corta con
+ * {@link #INVALID_SUFFIX}: las rutas configuradas nunca salen sin enmascarar. Solo un redactor
+ * sin rutas enmascara el cuerpo inválido como texto libre con el motor.
+ * <p>
+ * Las instancias son inmutables y pueden compartirse entre hilos.
+ * <pre>{@code
+ * JsonRedactor redactor = JsonRedactor.builder()
+ *     .mask("customer.email", MaskType.EMAIL)
+ *     .mask("payment.card", MaskType.CARD)
+ *     .maxBytes(4096)
+ *     .build();
+ * LogHelper.debug("Request body: {}", redactor.redact(body));
+ * }</pre>
+ */
+public final class JsonRedactor {
+    /**
+     * Texto que se añade al resultado cuando se corta por el presupuesto de bytes.
+     */
+    public static final String TRUNCATED_SUFFIX = "...[truncated]";
+
+    /**
+     * Texto que se añade al resultado cuando el cuerpo deja de ser JSON válido.
+     */
+    public static final String INVALID_SUFFIX = "...[invalid json]";
+
+    /**
+     * Profundidad máxima de anidamiento; un JSON más profundo se trata como inválido.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * Caracteres que se leen más allá del presupuesto para no cortar un dato sensible antes de
+     * enmascararlo (un correo cortado ya no es un correo válido).
+     */
+    private static final int LOOKAHEAD = 64;
+
+    private static final String HIDDEN_VALUE = "\"***\"";
+
+    private final Node root;
+    private final boolean hasPaths;
+    private final MaskingEngine engine;
+    private final boolean autoDetect;
+    private final int maxBytes;
+
+    private JsonRedactor(Builder builder) {
+        this.root = builder.root.copy();
+        this.hasPaths = root.names.length > 0;
+        this.engine = builder.engine;
+        this.autoDetect = builder.autoDetect;
+        this.maxBytes = builder.maxBytes;
+    }
+
+    /**
+     * @return Un constructor de redactores, sin rutas, con detección automática y sin límite de bytes.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Enmascara un cuerpo JSON.
+     *
+     * @param json El cuerpo. Puede ser nulo.
+     * @return El cuerpo enmascarado y compactado, cortado al presupuesto de bytes.
+     */
+    public String redact(CharSequence json) {
+        if (json == null) {
+            return null;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            redactTo(json, buffer);
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el cuerpo JSON enmascarado.
+     *
+     * @param json El cuerpo. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    public void redactTo(CharSequence json, StringBuilder target) {
+        if (json == null) {
+            target.append("null");
+            return;
+        }
+        Thread current = Thread.currentThread();
+        Cursor cursor = current.isVirtual() ? new Cursor() : Cursor.THREAD_CURSOR.get();
+        cursor.redact(this, json, target);
+    }
+
+    /**
+     * Constructor de {@link JsonRedactor}.
+     */
+    public static final class Builder {
+        private final Node root = new Node();
+        private MaskingEngine engine = MaskingEngine.defaultEngine();
+        private boolean autoDetect = true;
+        private int maxBytes = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        /**
+         * Enmascara el valor de una ruta de campos separados por puntos. Si el valor es un objeto
+         * o un arreglo se reemplaza completo por "***"; si es un número se enmascara su texto.
+         *
+         * @param path La ruta, por ejemplo {@code customer.email}.
+         * @param type El tipo de dato del valor.
+         * @return Este constructor.
+         * @throws IllegalArgumentException Si la ruta está vacía o tiene segmentos vacíos.
+         */
+        public Builder mask(String path, MaskType type) {
+            if (path == null || path.isEmpty() || type == null) {
+                throw new IllegalArgumentException("path and mask type are required");
+            }
+            Node node = root;
+            int start = 0;
+            while (true) {
+                int dot = path.indexOf('.', start);
+                int end = dot < 0 ? path.length() : dot;
+                if (end == start) {
+                    throw new IllegalArgumentException("invalid JSON path: " + path);
+                }
+                node = node.child(path.substring(start, end));
+                if (dot < 0) {
+                    break;
+                }
+                start = dot + 1;
+            }
+            node.mask = type;
+            return this;
+        }
+
+        /**
+         * Indica si las cadenas fuera de las rutas configuradas se revisan con el motor.
+         *
+         * @param enabled true (por defecto) para detectar datos sensibles en cualquier cadena.
+         * @return Este constructor.
+         */
+        public Builder autoDetect(boolean enabled) {
+            this.autoDetect = enabled;
+            return this;
+        }
+
+        /**
+         * Establece el motor de detección; por defecto {@link MaskingEngine#defaultEngine()}.
+         *
+         * @param engine El motor.
+         * @return Este constructor.
+         */
+        public Builder engine(MaskingEngine engine) {
+            if (engine == null) {
+                throw new IllegalArgumentException("engine is required");
+            }
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Establece el presupuesto de bytes UTF-8 del resultado, sin contar {@link #TRUNCATED_SUFFIX}.
+         *
+         * @param maxBytes El número máximo de bytes.
+         * @return Este constructor.
+         */
+        public Builder maxBytes(int maxBytes) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * @return Un redactor con la configuración actual.
+         */
+        public JsonRedactor build() {
+            return new JsonRedactor(this);
+        }
+    }
+
+    /**
+     * Nodo del árbol de rutas. Los hijos se comparan directamente con la clave del JSON, sin
+     * crear un String por clave.
+     */
+    private static final class Node {
+        private String[] names = new String[0];
+        private Node[] children = new Node[0];
+        private MaskType mask;
+
+        Node child(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return children[i];
+                }
+            }
+            names = Arrays.copyOf(names, names.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            names[names.length - 1] = name;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+
+        Node copy() {
+            Node copy = new Node();
+            copy.names = names.clone();
+            copy.children = new Node[children.length];
+            for (int i = 0; i < children.length; i++) {
+                copy.children[i] = children[i].copy();
+            }
+            copy.mask = mask;
+            return copy;
+        }
+
+        Node find(CharSequence text, int start, int end) {
+            for (int i = 0; i < names.length; i++) {
+                if (keyEquals(names[i], text, start, end)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Compara una clave del JSON, que puede contener secuencias de escape, con un nombre.
+         */
+        private static boolean keyEquals(String name, CharSequence text, int start, int end) {
+            int n = 0;
+            for (int i = start; i < end; n++) {
+                char c = text.charAt(i);
+                int next = i + 1;
+                if (c == '\\' && next < end) {
+                    char escape = text.charAt(next);
+                    next++;
+                    int code = escape == 'u' ? hex(text, next, end) : -1;
+                    if (code >= 0) {
+                        c = (char) code;
+                        next += 4;
+                    } else {
+                        c = unescape(escape);
+                    }
+                }
+                if (n >= name.length() || name.charAt(n) != c) {
+                    return false;
+                }
+                i = next;
+            }
+            return n == name.length();
+        }
+
+        /**
+         * @return El valor de los 4 dígitos hexadecimales de un escape unicode, o -1 si no lo son.
+         */
+        static int hex(CharSequence text, int from, int end) {
+            if (from + 4 > end) {
+                return -1;
+            }
+            int code = 0;
+            for (int i = from; i < from + 4; i++) {
+                int digit = Character.digit(text.charAt(i), 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                code = code << 4 | digit;
+            }
+            return code;
+        }
+
+        static char unescape(char escape) {
+            return switch (escape) {
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                default -> escape;
+            };
+        }
+    }
+
+    /**
+     * Estado de un recorrido. Se reutiliza por hilo; en hilos virtuales se crea uno por llamada.
+     */
+    private static final class Cursor {
+        static final ThreadLocal<Cursor> THREAD_CURSOR = ThreadLocal.withInitial(Cursor::new);
+
+        private final Window window = new Window();
+        private JsonRedactor redactor;
+        private CharSequence text;
+        private StringBuilder target;
+        private int pos;
+        private int end;
+        private int start;
+        private long bytes;
+        private int counted;
+        private boolean stopped;
+
+        void redact(JsonRedactor owner, CharSequence json, StringBuilder output) {
+            this.redactor = owner;
+            this.text = json;
+            this.target = output;
+            this.pos = 0;
+            this.end = json.length();
+            this.start = output.length();
+            this.bytes = 0;
+            this.counted = start;
+            this.stopped = false;
+            try {
+                boolean valid = value(owner.root, 0);
+                skipWhitespace();
+                if (!stopped && (!valid || pos < end)) {
+                    if (!owner.hasPaths) {
+                        redactAsText();
+                    } else {
+                        count();
+                        if (bytes <= owner.maxBytes) {
+                            target.append(INVALID_SUFFIX);
+                            return;
+                        }
+                        stopped = true;
+                    }
+                }
+                count();
+                if (stopped || bytes > owner.maxBytes) {
+                    truncate();
+                }
+            } finally {
+                this.redactor = null;
+                this.text = null;
+                this.target = null;
+                window.release();
+            }
+        }
+
+        private boolean value(Node node, int depth) {
+            skipWhitespace();
+            if (pos >= end) {
+                return false;
+            }
+            char c = text.charAt(pos);
+            if (node != null && node.mask != null) {
+                return maskedValue(node.mask, c);
+            }
+            return switch (c) {
+                case '{' -> object(node, depth + 1);
+                case '[' -> array(node, depth + 1);
+                case '"' -> string(redactor.autoDetect);
+                default -> literal();
+            };
+        }
+
+        private boolean object(Node node, int depth) {
+            if (depth > MAX_DEPTH) {
+                return false;
+            }
+            target.append('{');
+            pos++;
+            skipWhitespace();
+            if (pos < end && text.charAt(pos) == '}') {
+                target.append('}');
+                pos++;
+                return true;
+            }
+            while (true) {
+                skipWhitespace();
+                if (pos >= end || text.charAt(pos) != '"') {
+                    return false;
+                }
+                int keyStart = pos + 1;
+                int limit = readLimit(keyStart);
+                int keyEnd = stringEnd(keyStart, limit);
+                if (keyEnd < 0) {
+                    if (limit == end) {
+                        return false;
+                    }
+                    target.append(text, pos, limit);
+                    stopped = true;
+                    return true;
+                }
+                Node child = node != null ? node.find(text, keyStart, keyEnd) : null;
+                target.append(text, pos, keyEnd + 1);
+                pos = keyEnd + 1;
+                skipWhitespace();
+                if (pos >= end || text.charAt(pos) != ':') {
+                    return false;
+                }
+                target.append(':');
+                pos++;
+                if (!value(child, depth) || checkBudget()) {
+                    return stopped;
+                }
+                skipWhitespace();
+                if (pos >= end) {
+                    return false;
+                }
+                char c = text.charAt(pos++);
+                target.append(c);
+                if (c == '}') {
+                    return true;
+                }
+                if (c != ',') {
+                    return false;
+                }
+            }
+        }
+
+        private boolean array(Node node, int depth) {
+            if (depth > MAX_DEPTH) {
+                return false;
+            }
+            target.append('[');
+            pos++;
+            skipWhitespace();
+            if (pos < end && text.charAt(pos) == ']') {
+                target.append(']');
+                pos++;
+                return true;
+            }
+            while (true) {
+                if (!value(node, depth) || checkBudget()) {
+                    return stopped;
+                }
+                skipWhitespace();
+                if (pos >= end) {
+                    return false;
+                }
+                char c = text.charAt(pos++);
+                target.append(c);
+                if (c == ']') {
+                    return true;
+                }
+                if (c != ',') {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * Copia una cadena y si se pide la revisa con el motor sobre el propio buffer de salida.
+         * Sin secuencias de escape se copia tal cual; con ellas el motor recibe el contenido
+         * decodificado, que después se vuelve a escapar, para que un escape unicode no se tome por
+         * parte de una palabra.
+         */
+        private boolean string(boolean detect) {
+            int contentStart = pos + 1;
+            int limit = readLimit(contentStart);
+            int contentEnd = stringEnd(contentStart, limit);
+            if (contentEnd < 0) {
+                if (limit == end) {
+                    return false;
+                }
+                // La cadena no cabe en el presupuesto: se copia lo necesario y se detiene el recorrido
+                contentEnd = limit;
+                stopped = true;
+            }
+            target.append('"');
+            int from = target.length();
+            if (detect && window.of(text, contentStart, contentEnd).hasEscapes()) {
+                target.append(window);
+                redactor.engine.redact(target, from);
+                escape(from);
+            } else {
+                target.append(text, contentStart, contentEnd);
+                if (detect) {
+                    redactor.engine.redact(target, from);
+                }
+            }
+            if (!stopped) {
+                target.append('"');
+            }
+            pos = contentEnd + 1;
+            return true;
+        }
+
+        /**
+         * Copia un número, true, false o null. Cualquier otra palabra invalida el JSON, para no
+         * copiar texto libre sin enmascarar. Con la detección automática los números también pasan
+         * por el motor: si enmascara un documento o un teléfono, el número sale como cadena para
+         * que el resultado siga siendo JSON válido.
+         */
+        private boolean literal() {
+            int literalStart = pos;
+            if (!skipLiteral()) {
+                return true;
+            }
+            boolean number = isNumber(literalStart, pos);
+            if (!number && !isWord("true", literalStart, pos)
+                    && !isWord("false", literalStart, pos) && !isNull(literalStart, pos)) {
+                return false;
+            }
+            int from = target.length();
+            target.append(text, literalStart, pos);
+            if (number && redactor.autoDetect && redactor.engine.redact(target, from)) {
+                target.insert(from, '"');
+                target.append('"');
+            }
+            return true;
+        }
+
+        /**
+         * Avanza hasta el final del literal que empieza en la posición actual, leyendo solo lo que
+         * cabe en el presupuesto.
+         *
+         * @return false si el literal no termina dentro del presupuesto; el recorrido se detiene.
+         */
+        private boolean skipLiteral() {
+            int limit = readLimit(pos);
+            while (pos < limit && isLiteralChar(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos == limit && limit < end && isLiteralChar(text.charAt(limit))) {
+                stopped = true;
+                return false;
+            }
+            return true;
+        }
+
+        private boolean isNumber(int from, int to) {
+            if (from == to) {
+                return false;
+            }
+            char first = text.charAt(from);
+            if (first != '-' && (first < '0' || first > '9')) {
+                return false;
+            }
+            for (int i = from + 1; i < to; i++) {
+                char c = text.charAt(i);
+                if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '+' && c != '-') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isWord(String word, int from, int to) {
+            if (to - from != word.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (text.charAt(from + i) != word.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean maskedValue(MaskType mask, char first) {
+            if (first == '{' || first == '[') {
+                int limit = readLimit(pos);
+                if (!skipContainer(limit)) {
+                    return limit < end && hideUnfinished();
+                }
+                target.append(HIDDEN_VALUE);
+                return true;
+            }
+            int valueStart;
+            int valueEnd;
+            if (first == '"') {
+                valueStart = pos + 1;
+                int limit = readLimit(valueStart);
+                valueEnd = stringEnd(valueStart, limit);
+                if (valueEnd < 0) {
+                    return limit < end && hideUnfinished();
+                }
+                pos = valueEnd + 1;
+            } else {
+                valueStart = pos;
+                if (!skipLiteral()) {
+                    return hideUnfinished();
+                }
+                valueEnd = pos;
+                if (valueEnd == valueStart) {
+                    return false;
+                }
+                if (isNull(valueStart, valueEnd)) {
+                    target.append("null");
+                    return true;
+                }
+            }
+            target.append('"');
+            int from = target.length();
+            mask.maskTo(window.of(text, valueStart, valueEnd), target);
+            if (first == '"' && window.hasEscapes()) {
+                escape(from);
+            }
+            target.append('"');
+            return true;
+        }
+
+        /**
+         * Vuelve a escapar el resultado de enmascarar un valor con secuencias de escape, que el
+         * enmascarador pudo copiar parcialmente (por ejemplo, una barra invertida sin su pareja).
+         */
+        private void escape(int from) {
+            for (int i = from; i < target.length(); i++) {
+                char c = target.charAt(i);
+                String escaped = switch (c) {
+                    case '\\' -> "\\\\";
+                    case '"' -> "\\\"";
+                    case '\n' -> "\\n";
+                    case '\r' -> "\\r";
+                    case '\t' -> "\\t";
+                    case '\b' -> "\\b";
+                    case '\f' -> "\\f";
+                    default -> c < ' ' ? String.format("\\u%04x", (int) c) : null;
+                };
+                if (escaped != null) {
+                    target.replace(i, i + 1, escaped);
+                    i += escaped.length() - 1;
+                }
+            }
+        }
+
+        /**
+         * Un valor de una ruta enmascarada no termina dentro del presupuesto: se oculta entero sin
+         * leer el resto y se detiene el recorrido.
+         */
+        private boolean hideUnfinished() {
+            target.append(HIDDEN_VALUE);
+            stopped = true;
+            return true;
+        }
+
+        /**
+         * Salta un objeto o un arreglo sin copiarlo, leyendo como mucho hasta el límite.
+         *
+         * @return false si el contenedor no se cierra antes del límite.
+         */
+        private boolean skipContainer(int limit) {
+            int nesting = 0;
+            while (pos < limit) {
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    int closing = stringEnd(pos + 1, limit);
+                    if (closing < 0) {
+                        return false;
+                    }
+                    pos = closing + 1;
+                    continue;
+                }
+                pos++;
+                if (c == '{' || c == '[') {
+                    nesting++;
+                } else if ((c == '}' || c == ']') && --nesting == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return La posición de las comillas que cierran la cadena antes del límite, o -1.
+         */
+        private int stringEnd(int from, int limit) {
+            for (int i = from; i < limit; i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    return i;
+                }
+                if (c == '\\') {
+                    i++;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * El cuerpo no es JSON válido y el redactor no tiene rutas: se descarta lo escrito y se
+         * enmascara como texto libre, leyendo solo lo que cabe en el presupuesto.
+         */
+        private void redactAsText() {
+            target.setLength(start);
+            counted = start;
+            bytes = 0;
+            int limit = (int) Math.min(end, (long) redactor.maxBytes + LOOKAHEAD);
+            target.append(text, 0, limit);
+            redactor.engine.redact(target, start);
+        }
+
+        /**
+         * Actualiza el contador de bytes y detiene el recorrido al superar el presupuesto más el
+         * margen de lectura adelantada.
+         *
+         * @return true si el recorrido debe detenerse.
+         */
+        private boolean checkBudget() {
+            count();
+            if (bytes > (long) redactor.maxBytes + LOOKAHEAD) {
+                stopped = true;
+            }
+            return stopped;
+        }
+
+        /**
+         * Calcula hasta dónde se lee un valor que empieza en la posición indicada: lo que queda de
+         * presupuesto más el margen de lectura adelantada. Cada carácter ocupa al menos un byte.
+         */
+        private int readLimit(int from) {
+            count();
+            long remaining = Math.max(0, redactor.maxBytes - bytes) + LOOKAHEAD;
+            return (int) Math.min(end, from + remaining);
+        }
+
+        private void count() {
+            for (int i = counted, length = target.length(); i < length; i++) {
+                bytes += utf8Length(target.charAt(i));
+            }
+            counted = target.length();
+        }
+
+        /**
+         * Corta el resultado al presupuesto de bytes sin partir pares sustitutos y añade la marca
+         * de corte.
+         */
+        private void truncate() {
+            int cut = target.length();
+            long size = bytes;
+            while (cut > start && size > redactor.maxBytes) {
+                size -= utf8Length(target.charAt(--cut));
+            }
+            if (cut > start && Character.isHighSurrogate(target.charAt(cut - 1))) {
+                cut--;
+            }
+            target.setLength(cut);
+            target.append(TRUNCATED_SUFFIX);
+        }
+
+        private boolean isNull(int from, int to) {
+            return isWord("null", from, to);
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                char c = text.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private static boolean isLiteralChar(char c) {
+            return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || c == '-' || c == '+' || c == '.';
+        }
+
+        private static int utf8Length(char c) {
+            if (c < 0x80) {
+                return 1;
+            }
+            // Cada mitad de un par sustituto cuenta 2 bytes: el par ocupa 4 en UTF-8
+            return c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        }
+    }
+
+    /**
+     * Vista de un valor del JSON para pasarlo a {@link MaskType#maskTo(CharSequence, StringBuilder)}
+     * sin crear un String. Si el valor tiene secuencias de escape se decodifica al leerlo.
+     */
+    private static final class Window implements CharSequence {
+        private StringBuilder decoded = new StringBuilder();
+        private CharSequence text;
+        private int offset;
+        private int length;
+        private boolean escapes;
+
+        Window of(CharSequence source, int start, int end) {
+            escapes = false;
+            for (int i = start; i < end && !escapes; i++) {
+                escapes = source.charAt(i) == '\\';
+            }
+            if (escapes) {
+                decoded.setLength(0);
+                decode(source, start, end);
+                text = decoded;
+                offset = 0;
+                length = decoded.length();
+            } else {
+                text = source;
+                offset = start;
+                length = end - start;
+            }
+            return this;
+        }
+
+        boolean hasEscapes() {
+            return escapes;
+        }
+
+        void release() {
+            text = null;
+            if (decoded.capacity() > ReusableBuffers.MAX_RETAINED_CAPACITY) {
+                decoded = new StringBuilder();
+            }
+        }
+
+        private void decode(CharSequence source, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = source.charAt(i);
+                if (c == '\\' && i + 1 < end) {
+                    char escape = source.charAt(++i);
+                    int code = escape == 'u' ? Node.hex(source, i + 1, end) : -1;
+                    if (code >= 0) {
+                        c = (char) code;
+                        i += 4;
+                    } else {
+                        c = Node.unescape(escape);
+                    }
+                }
+                decoded.append(c);
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text.charAt(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return text.subSequence(offset + from, offset + to);
+        }
+
+        @Override
+        public String toString() {
+            return text.subSequence(offset, offset + length).toString();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.Map;
+
+/**
+ * Tabla inmutable de claves con su tipo de enmascaramiento, para consultar en cada evento si una
+ * clave del MDC debe enmascararse.
+ * Al construirla se busca un multiplicador y un tamaño de tabla con los que ninguna de las claves
+ * configuradas colisiona (hash perfecto sobre String.hashCode(), que la cadena ya tiene en caché).
+ * Consultar una clave no configurada cuesta una multiplicación, una lectura del arreglo y, como
+ * mucho, una comparación de enteros. Solo si dos claves configuradas tienen el mismo hashCode la
+ * tabla se construye con sondeo lineal, y entonces la consulta recorre las posiciones ocupadas
+ * contiguas.
+ */
+final class KeyMaskTable {
+    /**
+     * Tabla sin claves.
+     */
+    static final KeyMaskTable EMPTY = new KeyMaskTable(new String[1], new int[1], new MaskType[1], 0, 31, false);
+
+    private static final int MAX_BITS = 12;
+    private static final int[] MULTIPLIERS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1};
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final MaskType[] types;
+    private final int multiplier;
+    private final int shift;
+    private final int mask;
+    private final boolean probing;
+
+    private KeyMaskTable(String[] keys, int[] hashes, MaskType[] types, int multiplier, int shift,
+            boolean probing) {
+        this.keys = keys;
+        this.hashes = hashes;
+        this.types = types;
+        this.multiplier = multiplier;
+        this.shift = shift;
+        this.mask = keys.length - 1;
+        this.probing = probing;
+    }
+
+    /**
+     * Construye la tabla.
+     *
+     * @param masks Las claves y su tipo; un tipo nulo indica que el valor se revisa con
+     *              {@link PiiScanner} en lugar de enmascararse completo.
+     * @return La tabla.
+     */
+    static KeyMaskTable of(Map<String, MaskType> masks) {
+        if (masks.isEmpty()) {
+            return EMPTY;
+        }
+        int minBits = 32 - Integer.numberOfLeadingZeros(masks.size() * 2 - 1);
+        for (int bits = Math.max(minBits, 1); bits <= MAX_BITS; bits++) {
+            for (int multiplier : MULTIPLIERS) {
+                KeyMaskTable table = tryBuild(masks, bits, multiplier, false);
+                if (table != null) {
+                    return table;
+                }
+            }
+        }
+        // Claves con el mismo hashCode: no hay hash perfecto y se resuelve con sondeo lineal
+        return tryBuild(masks, Math.max(minBits, 1), MULTIPLIERS[0], true);
+    }
+
+    private static KeyMaskTable tryBuild(Map<String, MaskType> masks, int bits, int multiplier, boolean probe) {
+        int size = 1 << bits;
+        String[] keys = new String[size];
+        int[] hashes = new int[size];
+        MaskType[] types = new MaskType[size];
+        int shift = 32 - bits;
+        for (Map.Entry<String, MaskType> entry : masks.entrySet()) {
+            int hash = entry.getKey().hashCode();
+            int slot = (hash * multiplier) >>> shift;
+            while (keys[slot] != null) {
+                if (!probe) {
+                    return null;
+                }
+                slot = (slot + 1) & (size - 1);
+            }
+            keys[slot] = entry.getKey();
+            hashes[slot] = hash;
+            types[slot] = entry.getValue();
+        }
+        return new KeyMaskTable(keys, hashes, types, multiplier, shift, probe);
+    }
+
+    /**
+     * Busca una clave.
+     *
+     * @param key La clave.
+     * @return La posición de la clave en la tabla, o -1 si no está configurada.
+     */
+    int indexOf(String key) {
+        int hash = key.hashCode();
+        if (!probing) {
+            int slot = (hash * multiplier) >>> shift;
+            return hashes[slot] == hash && keys[slot] != null && keys[slot].equals(key) ? slot : -1;
+        }
+        for (int slot = (hash * multiplier) >>> shift; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keys[slot].equals(key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true si la tabla resuelve colisiones con sondeo lineal.
+     */
+    boolean probing() {
+        return probing;
+    }
+
+    /**
+     * @param index Una posición devuelta por {@link #indexOf(String)}.
+     * @return El tipo de la clave, o null si su valor se revisa con {@link PiiScanner}.
+     */
+    MaskType typeAt(int index) {
+        return types[index];
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.function.Supplier;
+
+/**
+ * Argumento de logging cuyo valor se calcula al formatear el mensaje.
+ * Permite que las implementaciones por defecto de {@link LoggerPort} acepten proveedores
+ * sin invocarlos antes de que la implementación compruebe el nivel: el proveedor solo se
+ * ejecuta cuando el mensaje se formatea, y como mucho una vez.
+ */
+final class LazyArgument implements Supplier<Object> {
+    private final Supplier<?> supplier;
+    private boolean resolved;
+    private Object value;
+
+    private LazyArgument(Supplier<?> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Envuelve un proveedor en un argumento diferido.
+     *
+     * @param supplier El proveedor del valor. Puede ser nulo.
+     * @return El argumento diferido.
+     */
+    static LazyArgument of(Supplier<?> supplier) {
+        return new LazyArgument(supplier);
+    }
+
+    /**
+     * Envuelve cada proveedor en un argumento diferido.
+     *
+     * @param suppliers Los proveedores de los valores. Puede ser nulo.
+     * @return Los argumentos diferidos, listos para pasarse como argumentos variables.
+     */
+    static Object[] ofAll(Supplier<?>... suppliers) {
+        if (suppliers == null) {
+            return MessageFormatter.NO_ARGS;
+        }
+        Object[] arguments = new Object[suppliers.length];
+        for (int i = 0; i < suppliers.length; i++) {
+            arguments[i] = new LazyArgument(suppliers[i]);
+        }
+        return arguments;
+    }
+
+    /**
+     * @return El valor del proveedor, calculado en la primera llamada.
+     */
+    @Override
+    public Object get() {
+        if (!resolved) {
+            value = supplier != null ? supplier.get() : null;
+            resolved = true;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+}
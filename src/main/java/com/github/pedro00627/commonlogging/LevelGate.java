@@ -0,0 +1,79 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Comprobación de nivel que el JIT puede plegar a una constante.
+ * Cada puerta guarda en un call site el resultado de consultar el backend, protegido por un
+ * SwitchPoint compartido. Mientras el SwitchPoint sea válido, invocar la puerta desde un
+ * campo {@code static final} se compila como una constante y las ramas de niveles
+ * deshabilitados desaparecen. Al invalidarlo (porque los niveles cambiaron), el código
+ * compilado se desoptimiza y la siguiente llamada vuelve a consultar el backend.
+ */
+final class LevelGate {
+    private static final MethodType GATE_TYPE = MethodType.methodType(boolean.class);
+    private static final MethodHandle RELINK;
+
+    private static volatile SwitchPoint switchPoint = new SwitchPoint();
+
+    static {
+        try {
+            RELINK = MethodHandles.lookup().findVirtual(LevelGate.class, "relink", GATE_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final BooleanSupplier probe;
+    private final MutableCallSite callSite = new MutableCallSite(GATE_TYPE);
+    private final MethodHandle invoker = callSite.dynamicInvoker();
+
+    /**
+     * Crea una puerta de nivel.
+     *
+     * @param probe Consulta al backend que indica si el nivel está habilitado.
+     */
+    LevelGate(BooleanSupplier probe) {
+        this.probe = probe;
+        relink();
+    }
+
+    /**
+     * Devuelve el invocador de la puerta, de tipo {@code ()boolean}. Para que el JIT lo pliegue
+     * debe guardarse en un campo {@code static final} e invocarse con invokeExact.
+     *
+     * @return El invocador de la puerta.
+     */
+    MethodHandle invoker() {
+        return invoker;
+    }
+
+    /**
+     * Invalida todas las puertas; la siguiente comprobación de cada una consultará de nuevo el backend.
+     */
+    static synchronized void invalidateAll() {
+        SwitchPoint previous = switchPoint;
+        switchPoint = new SwitchPoint();
+        SwitchPoint.invalidateAll(new SwitchPoint[] {previous});
+    }
+
+    /**
+     * Consulta el backend e instala el resultado como constante protegida por el SwitchPoint actual.
+     * El SwitchPoint se lee antes de consultar, de modo que una invalidación concurrente nunca
+     * deja instalado un valor obsoleto.
+     *
+     * @return Si el nivel está habilitado.
+     */
+    private boolean relink() {
+        SwitchPoint current = switchPoint;
+        boolean enabled = probe.getAsBoolean();
+        MethodHandle constant = MethodHandles.constant(boolean.class, enabled);
+        callSite.setTarget(current.guardWithTest(constant, RELINK.bindTo(this)));
+        return enabled;
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.spi.ExtendedLogger;
+import org.apache.logging.log4j.spi.ExtendedLoggerWrapper;
+import org.apache.logging.log4j.spi.LocationAwareLogger;
+
+/**
+ * Logger que entrega a Log4j2 la ubicación registrada por {@link LocationWeaver}.
+ * Cuando el sitio de llamada está tejido, el evento se crea con esa ubicación y Log4j2 no recorre
+ * la pila aunque includeLocation esté activo. En los sitios sin tejer el comportamiento es el del
+ * logger envuelto.
+ */
+final class LocatingLogger extends ExtendedLoggerWrapper {
+    private static final long serialVersionUID = 1L;
+
+    private final LocationAwareLogger locationAware;
+
+    private LocatingLogger(ExtendedLogger logger, LocationAwareLogger locationAware) {
+        super(logger, logger.getName(), logger.getMessageFactory());
+        this.locationAware = locationAware;
+    }
+
+    /**
+     * Envuelve un logger. Los loggers que no aceptan una ubicación se devuelven sin cambios.
+     *
+     * @param logger El logger de Log4j2.
+     * @return El logger envuelto, o el mismo logger.
+     */
+    static ExtendedLogger wrap(ExtendedLogger logger) {
+        if (logger instanceof LocatingLogger || !(logger instanceof LocationAwareLogger locationAware)) {
+            return logger;
+        }
+        return new LocatingLogger(logger, locationAware);
+    }
+
+    @Override
+    public void logMessage(String fqcn, Level level, Marker marker, Message message, Throwable t) {
+        StackTraceElement location = LogLocation.current();
+        if (location == null) {
+            logger.logMessage(fqcn, level, marker, message, t);
+        } else {
+            locationAware.logMessage(level, marker, fqcn, location, message, t);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.AnalyzerAdapter;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+/**
+ * Paso de compilación que registra la clase, el método y la línea de cada llamada a
+ * {@link LogHelper} y {@link LoggerPort}, para que Log4j2 no tenga que recorrer la pila al
+ * calcular la ubicación (includeLocation y el campo "source" de la plantilla JSON).
+ * Reescribe los archivos .class ya compilados: cada llamada de logging queda entre
+ * {@link LogLocation#enter(StackTraceElement)} y {@link LogLocation#exit(StackTraceElement)}, con la
+ * ubicación como constante dinámica de la clase y la ubicación anterior en una variable local
+ * nueva. Si la llamada lanza una excepción, un manejador añadido al final del método llama a exit
+ * y la relanza, para que la ubicación no quede registrada en el hilo. En los métodos de nivel de
+ * las clases que implementan {@link LoggerPort} se usa {@link LogLocation#delegate(StackTraceElement)},
+ * que conserva la ubicación de quien llamó a la implementación. Tejer una clase dos veces no la
+ * cambia.
+ * Las clases anteriores a Java 11 no admiten constantes dinámicas y se dejan sin tejer.
+ * Requiere org.ow2.asm:asm, asm-tree y asm-commons en el classpath del paso, no en el de la aplicación.
+ * Ejemplo: java -cp common-logging.jar:asm.jar com.github.pedro00627.commonlogging.LocationWeaver build/classes/java/main
+ */
+public final class LocationWeaver {
+    private static final String LOCATION = "com/github/pedro00627/commonlogging/LogLocation";
+    private static final String LOG_HELPER = "com/github/pedro00627/commonlogging/LogHelper";
+    private static final String PORT = "com/github/pedro00627/commonlogging/LoggerPort";
+    private static final Set<String> PORTS = Set.of(
+            PORT,
+            "com/github/pedro00627/commonlogging/Log4j2LoggerPort");
+    private static final Set<String> LEVEL_METHODS = Set.of("info", "warn", "debug", "error");
+
+    private static final String THROWABLE = "java/lang/Throwable";
+    private static final String STACK_TRACE_ELEMENT = "java/lang/StackTraceElement";
+    private static final String ENTER_DESCRIPTOR = "(Ljava/lang/StackTraceElement;)Ljava/lang/StackTraceElement;";
+    private static final String EXIT_DESCRIPTOR = "(Ljava/lang/StackTraceElement;)V";
+
+    private static final Handle BOOTSTRAP = new Handle(Opcodes.H_INVOKESTATIC, LOCATION, "bootstrap",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;"
+                    + "Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)Ljava/lang/StackTraceElement;",
+            false);
+
+    /**
+     * Primera versión del formato de clase con constantes dinámicas (Java 11).
+     */
+    private static final int CONDY_MAJOR_VERSION = 55;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private LocationWeaver() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Teje los directorios de clases indicados.
+     *
+     * @param args Los directorios de clases compiladas.
+     * @throws IOException Si no se puede leer o escribir un archivo.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: LocationWeaver <classes directory>...");
+        }
+        int woven = 0;
+        for (String directory : args) {
+            woven += weaveDirectory(Path.of(directory));
+        }
+        System.out.println("LocationWeaver: " + woven + " classes woven");
+    }
+
+    /**
+     * Teje en su sitio los archivos .class de un directorio y sus subdirectorios.
+     * Un directorio inexistente se ignora.
+     *
+     * @param directory El directorio de clases.
+     * @return El número de clases modificadas.
+     * @throws IOException Si no se puede leer o escribir un archivo.
+     */
+    public static int weaveDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int woven = 0;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".class")).toList()) {
+                byte[] original = Files.readAllBytes(file);
+                byte[] result = weave(original);
+                if (result != original) {
+                    Files.write(file, result);
+                    woven++;
+                }
+            }
+        }
+        return woven;
+    }
+
+    /**
+     * Teje una clase.
+     *
+     * @param classFile El contenido del archivo .class.
+     * @return La clase tejida, o el mismo arreglo si no tiene llamadas por tejer.
+     */
+    public static byte[] weave(byte[] classFile) {
+        ClassReader reader = new ClassReader(classFile);
+        if (reader.readUnsignedShort(6) < CONDY_MAJOR_VERSION) {
+            return classFile;
+        }
+        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        SiteWeaver weaver = new SiteWeaver(writer);
+        // AnalyzerAdapter necesita los marcos expandidos para conocer las variables locales de cada llamada
+        reader.accept(weaver, ClassReader.EXPAND_FRAMES);
+        return weaver.sites == 0 ? classFile : writer.toByteArray();
+    }
+
+    private static boolean isLoggingCall(int opcode, String owner, String name) {
+        if (!LEVEL_METHODS.contains(name)) {
+            return false;
+        }
+        return opcode == Opcodes.INVOKESTATIC ? owner.equals(LOG_HELPER) : PORTS.contains(owner);
+    }
+
+    private static final class SiteWeaver extends ClassVisitor {
+        private String owner;
+        private String className;
+        private String sourceFile = "";
+        private boolean port;
+        private int sites;
+
+        SiteWeaver(ClassVisitor next) {
+            super(Opcodes.ASM9, next);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                String[] interfaces) {
+            owner = name;
+            className = name.replace('/', '.');
+            port = interfaces != null && Arrays.asList(interfaces).contains(PORT);
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            if (source != null) {
+                sourceFile = source;
+            }
+            super.visitSource(source, debug);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                String[] exceptions) {
+            MethodVisitor next = super.visitMethod(access, name, descriptor, signature, exceptions);
+            if (next == null) {
+                return null;
+            }
+            MethodNode method = new MethodNode(Opcodes.ASM9, access, name, descriptor, signature, exceptions);
+            boolean delegating = port && LEVEL_METHODS.contains(name);
+            return new CallWeaver(method, new AnalyzerAdapter(owner, access, name, descriptor, method), next,
+                    delegating);
+        }
+
+        /**
+         * Llamada tejida: el rango de la llamada, las variables locales en ese punto, que el
+         * manejador de la llamada declara en su marco, y cuántas posiciones ocupan.
+         */
+        private record Site(LabelNode start, LabelNode end, Object[] locals, int slots) {
+        }
+
+        /**
+         * Teje las llamadas de un método. El método se guarda completo para poner los manejadores
+         * de las llamadas al principio de la tabla de excepciones, ya que la JVM usa la primera
+         * entrada que cubre la instrucción. Cada manejador va al final del método y queda cubierto
+         * por los mismos bloques catch que su llamada, así que la excepción relanzada llega al
+         * mismo catch que sin tejer.
+         * <p>
+         * La ubicación anterior se guarda en una variable local después de las del método. Su
+         * posición solo se conoce al final, así que las instrucciones que la usan se escriben
+         * directamente en el método, sin pasar por AnalyzerAdapter, y se numeran en visitEnd. Los
+         * argumentos de una llamada se evalúan antes de enter, así que dos llamadas del mismo
+         * método nunca se solapan y comparten la variable.
+         */
+        private final class CallWeaver extends MethodVisitor {
+            private final MethodNode method;
+            private final AnalyzerAdapter analyzer;
+            private final MethodVisitor next;
+            private final String enter;
+            private final List<Site> woven = new ArrayList<>();
+            private final List<VarInsnNode> previous = new ArrayList<>();
+            private int line = -1;
+            private boolean entered;
+
+            CallWeaver(MethodNode method, AnalyzerAdapter analyzer, MethodVisitor next, boolean delegating) {
+                super(Opcodes.ASM9, analyzer);
+                this.method = method;
+                this.analyzer = analyzer;
+                this.next = next;
+                this.enter = delegating ? "delegate" : "enter";
+            }
+
+            @Override
+            public void visitLineNumber(int line, Label start) {
+                this.line = line;
+                super.visitLineNumber(line, start);
+            }
+
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name, String descriptor,
+                    boolean isInterface) {
+                if (owner.equals(LOCATION)) {
+                    // Llamada ya tejida: enter o delegate preceden a la llamada y exit la sigue
+                    entered = !name.equals("exit");
+                    super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                    return;
+                }
+                if (entered || analyzer.locals == null || !isLoggingCall(opcode, owner, name)) {
+                    entered = false;
+                    super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                    return;
+                }
+                method.visitLdcInsn(new ConstantDynamic("location", "Ljava/lang/StackTraceElement;", BOOTSTRAP,
+                        className, method.name, sourceFile, line));
+                method.visitMethodInsn(Opcodes.INVOKESTATIC, LOCATION, enter, ENTER_DESCRIPTOR, false);
+                previous(Opcodes.ASTORE);
+                LabelNode start = label(this);
+                super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                LabelNode end = label(this);
+                woven.add(new Site(start, end, frameTypes(analyzer.locals), analyzer.locals.size()));
+                exit();
+                sites++;
+            }
+
+            @Override
+            public void visitEnd() {
+                super.visitEnd();
+                if (woven.isEmpty()) {
+                    method.accept(next);
+                    return;
+                }
+                int slot = method.maxLocals;
+                List<TryCatchBlockNode> guards = new ArrayList<>();
+                List<TryCatchBlockNode> enclosing = new ArrayList<>();
+                for (Site site : woven) {
+                    // La última instrucción del método nunca continúa en la siguiente: el manejador
+                    // solo se alcanza por una excepción
+                    LabelNode handler = label(method);
+                    Object[] locals = handlerLocals(site, slot);
+                    method.visitFrame(Opcodes.F_NEW, locals.length, locals, 1, new Object[] {THROWABLE});
+                    exit();
+                    method.visitInsn(Opcodes.ATHROW);
+                    LabelNode handlerEnd = label(method);
+                    guards.add(new TryCatchBlockNode(site.start(), site.end(), handler, null));
+                    for (TryCatchBlockNode block : method.tryCatchBlocks) {
+                        if (encloses(block, site)) {
+                            enclosing.add(new TryCatchBlockNode(handler, handlerEnd, block.handler, block.type));
+                        }
+                    }
+                }
+                method.tryCatchBlocks.addAll(0, guards);
+                method.tryCatchBlocks.addAll(enclosing);
+                for (VarInsnNode instruction : previous) {
+                    instruction.var = slot;
+                }
+                method.maxLocals = slot + 1;
+                method.accept(next);
+            }
+
+            /**
+             * Restaura la ubicación anterior, guardada en la variable local de la llamada.
+             */
+            private void exit() {
+                previous(Opcodes.ALOAD);
+                method.visitMethodInsn(Opcodes.INVOKESTATIC, LOCATION, "exit", EXIT_DESCRIPTOR, false);
+            }
+
+            /**
+             * Añade una instrucción sobre la variable de la ubicación anterior, que se numera en visitEnd.
+             */
+            private void previous(int opcode) {
+                method.visitVarInsn(opcode, 0);
+                previous.add((VarInsnNode) method.instructions.getLast());
+            }
+
+            /**
+             * Las variables del marco del manejador: las de la llamada y, en la posición indicada,
+             * la ubicación anterior. Las posiciones intermedias no se usan.
+             */
+            private Object[] handlerLocals(Site site, int slot) {
+                List<Object> locals = new ArrayList<>(Arrays.asList(site.locals()));
+                for (int i = site.slots(); i < slot; i++) {
+                    locals.add(Opcodes.TOP);
+                }
+                locals.add(STACK_TRACE_ELEMENT);
+                return locals.toArray();
+            }
+
+            /**
+             * Añade una etiqueta en la posición actual y devuelve su nodo en el método guardado.
+             */
+            private LabelNode label(MethodVisitor visitor) {
+                visitor.visitLabel(new Label());
+                return (LabelNode) method.instructions.getLast();
+            }
+
+            private boolean encloses(TryCatchBlockNode block, Site site) {
+                return method.instructions.indexOf(block.start) <= method.instructions.indexOf(site.start())
+                        && method.instructions.indexOf(site.end()) <= method.instructions.indexOf(block.end);
+            }
+        }
+    }
+
+    /**
+     * Convierte los tipos de AnalyzerAdapter, donde long y double ocupan dos posiciones, al formato
+     * de un marco, donde ocupan una.
+     */
+    private static Object[] frameTypes(List<Object> types) {
+        List<Object> frame = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            Object type = types.get(i);
+            frame.add(type);
+            if (type == Opcodes.LONG || type == Opcodes.DOUBLE) {
+                i++;
+            }
+        }
+        return frame.toArray();
+    }
+}
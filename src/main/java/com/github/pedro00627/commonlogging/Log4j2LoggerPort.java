@@ -0,0 +1,255 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.function.Supplier;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.spi.ExtendedLogger;
+
+/**
+ * Implementación de {@link LoggerPort} sobre un logger de Log4j2.
+ * Cada instancia registra con el nombre de su logger, de modo que los niveles por paquete de
+ * los perfiles YAML y los filtros por clase se aplican a sus eventos.
+ * Todas las variantes de {@link LoggerPort} se implementan directamente con logIfEnabled: las de
+ * aridad fija llegan a Log4j2 sin crear arreglos, los mensajes son reutilizables
+ * ({@link TemplateMessageFactory}) y Log4j2 ve esta clase como el punto de entrada al calcular
+ * la ubicación del llamador.
+ * Normalmente se obtiene con {@link LogHelper#forClass(Class)}.
+ */
+public final class Log4j2LoggerPort implements LoggerPort {
+    /**
+     * Nombre de la clase que Log4j2 usa para localizar al llamador cuando includeLocation está activo.
+     */
+    private static final String FQCN = Log4j2LoggerPort.class.getName();
+
+    private final ExtendedLogger logger;
+
+    /**
+     * Crea un puerto sobre el logger indicado.
+     * Para conservar la semántica de placeholders y escapes de la librería, el logger debería
+     * crearse con {@link #of(String)} o {@link LogHelper#forClass(Class)}; con otra fábrica de
+     * mensajes se aplican las reglas de formateo de esa fábrica.
+     * Las llamadas tejidas con {@link LocationWeaver} llegan a Log4j2 con su ubicación.
+     *
+     * @param logger El logger de Log4j2.
+     */
+    public Log4j2LoggerPort(ExtendedLogger logger) {
+        this.logger = LocatingLogger.wrap(logger);
+    }
+
+    /**
+     * Crea un puerto para el logger con el nombre indicado, usando la fábrica de mensajes de la librería.
+     * A diferencia de {@link LogHelper#forClass(Class)}, el resultado no se guarda en caché.
+     *
+     * @param name El nombre del logger.
+     * @return El puerto.
+     */
+    public static Log4j2LoggerPort of(String name) {
+        return new Log4j2LoggerPort(LogManager.getContext(false).getLogger(name, TemplateMessageFactory.INSTANCE));
+    }
+
+    /**
+     * @return El nombre del logger subyacente.
+     */
+    public String name() {
+        return logger.getName();
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return logger.isEnabled(Level.DEBUG);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return logger.isEnabled(Level.INFO);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return logger.isEnabled(Level.WARN);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return logger.isEnabled(Level.ERROR);
+    }
+
+    @Override
+    public void info(String message) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message);
+    }
+
+    @Override
+    public void info(String message, Object arg1) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1);
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2);
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2, Object arg3) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2, arg3, arg4);
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2, arg3, arg4, arg5);
+    }
+
+    @Override
+    public void info(String message, Object... args) {
+        logger.logIfEnabled(FQCN, Level.INFO, null, message, args);
+    }
+
+    @Override
+    public void info(String message, Supplier<?>... argSuppliers) {
+        if (logger.isEnabled(Level.INFO)) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, LogHelper.resolve(argSuppliers));
+        }
+    }
+
+    @Override
+    public void info(Supplier<String> messageSupplier) {
+        if (logger.isEnabled(Level.INFO)) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, messageSupplier.get());
+        }
+    }
+
+    @Override
+    public void warn(String message) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message);
+    }
+
+    @Override
+    public void warn(String message, Object arg1) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1);
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2);
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2, Object arg3) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2, arg3, arg4);
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2, arg3, arg4, arg5);
+    }
+
+    @Override
+    public void warn(String message, Object... args) {
+        logger.logIfEnabled(FQCN, Level.WARN, null, message, args);
+    }
+
+    @Override
+    public void warn(String message, Supplier<?>... argSuppliers) {
+        if (logger.isEnabled(Level.WARN)) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, LogHelper.resolve(argSuppliers));
+        }
+    }
+
+    @Override
+    public void warn(Supplier<String> messageSupplier) {
+        if (logger.isEnabled(Level.WARN)) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, messageSupplier.get());
+        }
+    }
+
+    @Override
+    public void debug(String message) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message);
+    }
+
+    @Override
+    public void debug(String message, Object arg1) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1);
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2);
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2, Object arg3) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2, arg3, arg4);
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2, arg3, arg4, arg5);
+    }
+
+    @Override
+    public void debug(String message, Object... args) {
+        logger.logIfEnabled(FQCN, Level.DEBUG, null, message, args);
+    }
+
+    @Override
+    public void debug(String message, Supplier<?>... argSuppliers) {
+        if (logger.isEnabled(Level.DEBUG)) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, LogHelper.resolve(argSuppliers));
+        }
+    }
+
+    @Override
+    public void debug(Supplier<String> messageSupplier) {
+        if (logger.isEnabled(Level.DEBUG)) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, messageSupplier.get());
+        }
+    }
+
+    @Override
+    public void error(String message, Throwable throwable) {
+        logger.logIfEnabled(FQCN, Level.ERROR, null, message, throwable);
+    }
+
+    @Override
+    public void error(Supplier<String> messageSupplier, Throwable throwable) {
+        if (logger.isEnabled(Level.ERROR)) {
+            logger.logIfEnabled(FQCN, Level.ERROR, null, messageSupplier.get(), throwable);
+        }
+    }
+
+    @Override
+    public String maskEmail(String email) {
+        return LogHelper.maskEmail(email);
+    }
+
+    @Override
+    public String maskDocument(String documentId) {
+        return LogHelper.maskDocument(documentId);
+    }
+
+    @Override
+    public String mask(MaskingRule type, String value) {
+        return LogHelper.mask(type, value);
+    }
+
+    @Override
+    public String toString() {
+        return "Log4j2LoggerPort[" + logger.getName() + "]";
+    }
+}
@@ -1,8 +1,12 @@
 package com.github.pedro00627.commonlogging;
 
-import java.util.logging.Logger;
-import java.util.logging.Level;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.spi.ExtendedLogger;
+import org.apache.logging.log4j.spi.LoggerContext;
 
 /**
  * Clase de utilidad para operaciones relacionadas con logging seguro.
@@ -11,14 +15,56 @@ import java.util.regex.Pattern;
  */
 public final class LogHelper {
     /**
-     * Patrón de expresión regular para validar direcciones de correo electrónico.
-     * Utilizado internamente para determinar si un String es un correo electrónico válido
-     * antes de intentar enmascararlo.
+     * Propiedad de sistema que activa el modo sin basura (garbage-free): cada hilo reutiliza su
+     * mensaje de Log4j2 y su buffer de formateo, aunque Log4j2 no tenga habilitados los thread locals.
      */
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+    public static final String GARBAGE_FREE_PROPERTY = "commonlogging.garbageFree";
 
-    private static final Logger logger = Logger.getLogger(LogHelper.class.getName());
+    /**
+     * Propiedad de sistema que activa el formateo diferido: la plantilla y los argumentos viajan
+     * sin formatear hasta el appender, de modo que con loggers o appenders asíncronos el formateo
+     * ocurre en el hilo de fondo. Los argumentos mutables se convierten a texto al registrar.
+     */
+    public static final String DEFERRED_FORMATTING_PROPERTY = "commonlogging.deferredFormatting";
+
+    /**
+     * Nombre de la clase que Log4j2 usa para localizar al llamador cuando includeLocation está activo.
+     */
+    private static final String FQCN = LogHelper.class.getName();
+
+    private static final LoggerContext context = LogManager.getContext(LogHelper.class.getClassLoader(), false);
+
+    private static final ExtendedLogger logger =
+            LocatingLogger.wrap(context.getLogger(LogHelper.class.getName(), TemplateMessageFactory.INSTANCE));
+
+    /**
+     * Puertas de nivel plegables por el JIT. Deben declararse después de {@code logger},
+     * ya que al crearse consultan su nivel.
+     */
+    private static final MethodHandle DEBUG_ENABLED = new LevelGate(() -> logger.isEnabled(Level.DEBUG)).invoker();
+    private static final MethodHandle INFO_ENABLED = new LevelGate(() -> logger.isEnabled(Level.INFO)).invoker();
+    private static final MethodHandle WARN_ENABLED = new LevelGate(() -> logger.isEnabled(Level.WARN)).invoker();
+    private static final MethodHandle ERROR_ENABLED = new LevelGate(() -> logger.isEnabled(Level.ERROR)).invoker();
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * Un puerto por clase, creado en la primera consulta. ClassValue no impide descargar la clase.
+     */
+    private static final ClassValue<LoggerPort> PORTS = new ClassValue<>() {
+        @Override
+        protected LoggerPort computeValue(Class<?> type) {
+            LoggerContext typeContext = LogManager.getContext(type.getClassLoader(), false);
+            return new Log4j2LoggerPort(typeContext.getLogger(type.getName(), TemplateMessageFactory.INSTANCE));
+        }
+    };
+
+    static {
+        // Log4j2 notifica cada cambio de configuración, incluidos los hechos con Configurator
+        if (context instanceof org.apache.logging.log4j.core.LoggerContext coreContext) {
+            coreContext.addPropertyChangeListener(event -> LevelGate.invalidateAll());
+        }
+    }
 
     /**
      * Constructor privado para evitar la instanciación de esta clase de utilidad.
@@ -27,6 +73,190 @@ public final class LogHelper {
         // Private constructor for utility class
     }
 
+    /**
+     * Devuelve el logger de la clase indicada. Los eventos llevan el nombre de la clase, por lo
+     * que se les aplican los niveles y filtros configurados para su paquete.
+     * Las instancias se guardan en caché: llamadas sucesivas con la misma clase devuelven la misma.
+     * Ejemplo: private static final LoggerPort log = LogHelper.forClass(OrderService.class);
+     *
+     * @param type La clase que registra los mensajes.
+     * @return El logger de la clase.
+     */
+    public static LoggerPort forClass(Class<?> type) {
+        return PORTS.get(type);
+    }
+
+    /**
+     * Devuelve el logger de la clase que invoca este método, detectada con StackWalker.
+     * El recorrido de la pila ocurre en cada invocación, así que el resultado debe guardarse
+     * en un campo {@code static final}: de ese modo cada sitio de llamada lo resuelve una sola vez.
+     * Ejemplo: private static final LoggerPort log = LogHelper.forCaller();
+     *
+     * @return El logger de la clase llamadora.
+     */
+    public static LoggerPort forCaller() {
+        return forClass(STACK_WALKER.getCallerClass());
+    }
+
+    /**
+     * Indica si el nivel debug está habilitado. Una vez compilada, la comprobación se reduce a una
+     * constante, por lo que puede usarse para proteger bloques costosos sin penalización.
+     *
+     * @return true si los mensajes de nivel debug se registrarán.
+     */
+    public static boolean isDebugEnabled() {
+        try {
+            return (boolean) DEBUG_ENABLED.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Level check failed", e);
+        }
+    }
+
+    /**
+     * Indica si el nivel info está habilitado. Una vez compilada, la comprobación se reduce a una
+     * constante, por lo que puede usarse para proteger bloques costosos sin penalización.
+     *
+     * @return true si los mensajes de nivel info se registrarán.
+     */
+    public static boolean isInfoEnabled() {
+        try {
+            return (boolean) INFO_ENABLED.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Level check failed", e);
+        }
+    }
+
+    /**
+     * Indica si el nivel warn está habilitado. Una vez compilada, la comprobación se reduce a una
+     * constante, por lo que puede usarse para proteger bloques costosos sin penalización.
+     *
+     * @return true si los mensajes de nivel warn se registrarán.
+     */
+    public static boolean isWarnEnabled() {
+        try {
+            return (boolean) WARN_ENABLED.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Level check failed", e);
+        }
+    }
+
+    /**
+     * Indica si el nivel error está habilitado. Una vez compilada, la comprobación se reduce a una
+     * constante, por lo que puede usarse para proteger bloques costosos sin penalización.
+     *
+     * @return true si los mensajes de nivel error se registrarán.
+     */
+    public static boolean isErrorEnabled() {
+        try {
+            return (boolean) ERROR_ENABLED.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Level check failed", e);
+        }
+    }
+
+    /**
+     * Vuelve a consultar los niveles configurados en el backend.
+     * Las reconfiguraciones de Log4j2 y los cambios hechos con Configurator se detectan
+     * automáticamente; este método cubre los casos en que el backend no notifica el cambio.
+     */
+    public static void refreshLevels() {
+        LevelGate.invalidateAll();
+    }
+
+    /**
+     * Registra un mensaje informativo sin argumentos.
+     *
+     * @param message El mensaje a registrar.
+     */
+    public static void info(String message) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con un argumento.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     */
+    public static void info(String message, Object arg1) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con dos argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     */
+    public static void info(String message, Object arg1, Object arg2) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con tres argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     */
+    public static void info(String message, Object arg1, Object arg2, Object arg3) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con cuatro argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     */
+    public static void info(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2, arg3, arg4);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con cinco argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     * @param arg5 El quinto argumento.
+     */
+    public static void info(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, arg1, arg2, arg3, arg4, arg5);
+        }
+    }
+
     /**
      * Registra un mensaje informativo.
      *
@@ -34,8 +264,119 @@ public final class LogHelper {
      * @param args Argumentos opcionales que se usarán para formatear el mensaje.
      */
     public static void info(String message, Object... args) {
-        if (logger.isLoggable(Level.INFO)) {
-            logger.info(formatMessage(message, args));
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, args);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo cuyos argumentos se calculan de forma diferida.
+     * Los proveedores solo se invocan, una vez cada uno, si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param argSuppliers Proveedores de los argumentos que se usarán para formatear el mensaje.
+     */
+    public static void info(String message, Supplier<?>... argSuppliers) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, message, resolve(argSuppliers));
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo construido de forma diferida.
+     * El proveedor solo se invoca si el nivel está habilitado.
+     *
+     * @param messageSupplier Proveedor del mensaje a registrar.
+     */
+    public static void info(Supplier<String> messageSupplier) {
+        if (isInfoEnabled()) {
+            logger.logIfEnabled(FQCN, Level.INFO, null, messageSupplier.get());
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia sin argumentos.
+     *
+     * @param message El mensaje a registrar.
+     */
+    public static void warn(String message) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message);
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con un argumento.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     */
+    public static void warn(String message, Object arg1) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1);
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con dos argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     */
+    public static void warn(String message, Object arg1, Object arg2) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2);
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con tres argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     */
+    public static void warn(String message, Object arg1, Object arg2, Object arg3) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con cuatro argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     */
+    public static void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2, arg3, arg4);
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con cinco argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     * @param arg5 El quinto argumento.
+     */
+    public static void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, arg1, arg2, arg3, arg4, arg5);
         }
     }
 
@@ -46,8 +387,119 @@ public final class LogHelper {
      * @param args Argumentos opcionales que se usarán para formatear el mensaje.
      */
     public static void warn(String message, Object... args) {
-        if (logger.isLoggable(Level.WARNING)) {
-            logger.warning(formatMessage(message, args));
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, args);
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia cuyos argumentos se calculan de forma diferida.
+     * Los proveedores solo se invocan, una vez cada uno, si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param argSuppliers Proveedores de los argumentos que se usarán para formatear el mensaje.
+     */
+    public static void warn(String message, Supplier<?>... argSuppliers) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, message, resolve(argSuppliers));
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia construido de forma diferida.
+     * El proveedor solo se invoca si el nivel está habilitado.
+     *
+     * @param messageSupplier Proveedor del mensaje a registrar.
+     */
+    public static void warn(Supplier<String> messageSupplier) {
+        if (isWarnEnabled()) {
+            logger.logIfEnabled(FQCN, Level.WARN, null, messageSupplier.get());
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración sin argumentos.
+     *
+     * @param message El mensaje a registrar.
+     */
+    public static void debug(String message) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message);
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con un argumento.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     */
+    public static void debug(String message, Object arg1) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1);
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con dos argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     */
+    public static void debug(String message, Object arg1, Object arg2) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2);
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con tres argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     */
+    public static void debug(String message, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con cuatro argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     */
+    public static void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2, arg3, arg4);
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con cinco argumentos.
+     * El arreglo de argumentos solo se crea si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     * @param arg5 El quinto argumento.
+     */
+    public static void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, arg1, arg2, arg3, arg4, arg5);
         }
     }
 
@@ -58,8 +510,33 @@ public final class LogHelper {
      * @param args Argumentos opcionales que se usarán para formatear el mensaje.
      */
     public static void debug(String message, Object... args) {
-        if (logger.isLoggable(Level.FINE)) {
-            logger.fine(formatMessage(message, args));
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, args);
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración cuyos argumentos se calculan de forma diferida.
+     * Los proveedores solo se invocan, una vez cada uno, si el nivel está habilitado.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders ({}) para los argumentos.
+     * @param argSuppliers Proveedores de los argumentos que se usarán para formatear el mensaje.
+     */
+    public static void debug(String message, Supplier<?>... argSuppliers) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, message, resolve(argSuppliers));
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración construido de forma diferida.
+     * El proveedor solo se invoca si el nivel está habilitado.
+     *
+     * @param messageSupplier Proveedor del mensaje a registrar.
+     */
+    public static void debug(Supplier<String> messageSupplier) {
+        if (isDebugEnabled()) {
+            logger.logIfEnabled(FQCN, Level.DEBUG, null, messageSupplier.get());
         }
     }
 
@@ -70,27 +547,39 @@ public final class LogHelper {
      * @param throwable La excepción asociada al error.
      */
     public static void error(String message, Throwable throwable) {
-        logger.log(Level.SEVERE, message, throwable);
+        if (isErrorEnabled()) {
+            logger.logIfEnabled(FQCN, Level.ERROR, null, message, throwable);
+        }
     }
 
     /**
-     * Formatea un mensaje reemplazando placeholders {} con los argumentos proporcionados.
-     * Método interno para dar formato a los mensajes de logging.
+     * Registra un mensaje de error construido de forma diferida junto con una excepción.
+     * El proveedor solo se invoca si el nivel está habilitado.
      *
-     * @param message El mensaje con placeholders
-     * @param args Los argumentos a insertar
-     * @return El mensaje formateado
+     * @param messageSupplier Proveedor del mensaje de error a registrar.
+     * @param throwable La excepción asociada al error.
      */
-    private static String formatMessage(String message, Object... args) {
-        if (args == null || args.length == 0) {
-            return message;
+    public static void error(Supplier<String> messageSupplier, Throwable throwable) {
+        if (isErrorEnabled()) {
+            logger.logIfEnabled(FQCN, Level.ERROR, null, messageSupplier.get(), throwable);
         }
+    }
 
-        String result = message;
-        for (Object arg : args) {
-            result = result.replaceFirst("\\{\\}", arg != null ? arg.toString() : "null");
+    /**
+     * Invoca cada proveedor una única vez y devuelve los valores obtenidos.
+     *
+     * @param argSuppliers Los proveedores de argumentos. Puede ser nulo o contener nulos.
+     * @return Los valores de los argumentos.
+     */
+    static Object[] resolve(Supplier<?>... argSuppliers) {
+        if (argSuppliers == null || argSuppliers.length == 0) {
+            return MessageFormatter.NO_ARGS;
         }
-        return result;
+        Object[] values = new Object[argSuppliers.length];
+        for (int i = 0; i < argSuppliers.length; i++) {
+            values[i] = argSuppliers[i] != null ? argSuppliers[i].get() : null;
+        }
+        return values;
     }
 
     /**
@@ -104,16 +593,7 @@ public final class LogHelper {
      * @return El correo electrónico enmascarado si es válido, o "invalid-email-format" en caso contrario.
      */
     public static String maskEmail(String email) {
-        if (email == null || !EMAIL_PATTERN.matcher(email).matches()) {
-            return "invalid-email-format";
-        }
-        int atIndex = email.indexOf('@');
-        String localPart = email.substring(0, atIndex);
-        if (localPart.length() <= 2) {
-            return "***" + email.substring(atIndex);
-        }
-        // Muestra el primer y último caracter de la parte local para mayor seguridad, como indica el comentario.
-        return localPart.charAt(0) + "***" + localPart.charAt(localPart.length() - 1) + email.substring(atIndex);
+        return EmailMasker.mask(email);
     }
 
     /**
@@ -128,16 +608,67 @@ public final class LogHelper {
      * @return El documento enmascarado si cumple con la longitud mínima, o "***" en caso contrario.
      */
     public static String maskDocument(String documentId) {
-        if (documentId == null || documentId.length() < 6) {
-            return "***";
-        }
-        
-        // Para documentos de exactamente 6 caracteres, mostrar primer y último dígito
-        if (documentId.length() == 6) {
-            return documentId.charAt(0) + "****" + documentId.charAt(documentId.length() - 1);
-        }
-        
-        // Para documentos más largos, mostrar primer dígito y últimos 4 dígitos
-        return documentId.charAt(0) + "****" + documentId.substring(documentId.length() - 4);
+        return DocumentMasker.mask(documentId);
+    }
+
+    /**
+     * Enmascara un valor con la regla indicada. Los tipos de {@link MaskType} incluyen, además
+     * de correos y documentos, tarjetas, teléfonos, IBAN, tokens y claves de API; las reglas
+     * propias se crean implementando {@link MaskingRule}.
+     * Ejemplo: mask(MaskType.CARD, "4111 1111 1111 1111") -> "**** **** **** 1111"
+     *
+     * @param type La regla de enmascarado.
+     * @param value El valor a enmascarar. Puede ser nulo.
+     * @return El valor enmascarado.
+     */
+    public static String mask(MaskingRule type, String value) {
+        return type.mask(value);
+    }
+
+    /**
+     * Añade al buffer indicado el correo enmascarado, con las mismas reglas que
+     * {@link #maskEmail(String)} y sin crear Strings intermedios. Permite enmascarar mientras se
+     * construye un mensaje.
+     *
+     * @param email El correo electrónico a enmascarar. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    public static void maskEmail(CharSequence email, StringBuilder target) {
+        EmailMasker.maskTo(email, target);
+    }
+
+    /**
+     * Escribe en el destino indicado el correo enmascarado, con las mismas reglas que
+     * {@link #maskEmail(String)} y sin crear Strings intermedios.
+     *
+     * @param email El correo electrónico a enmascarar. Puede ser nulo.
+     * @param target El destino, por ejemplo un Writer.
+     * @throws IOException Si el destino falla al escribir.
+     */
+    public static void maskEmail(CharSequence email, Appendable target) throws IOException {
+        EmailMasker.maskTo(email, target);
+    }
+
+    /**
+     * Añade al buffer indicado el documento enmascarado, con las mismas reglas que
+     * {@link #maskDocument(String)} y sin crear Strings intermedios.
+     *
+     * @param documentId El número de documento a enmascarar. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    public static void maskDocument(CharSequence documentId, StringBuilder target) {
+        DocumentMasker.maskTo(documentId, target);
+    }
+
+    /**
+     * Escribe en el destino indicado el documento enmascarado, con las mismas reglas que
+     * {@link #maskDocument(String)} y sin crear Strings intermedios.
+     *
+     * @param documentId El número de documento a enmascarar. Puede ser nulo.
+     * @param target El destino, por ejemplo un Writer.
+     * @throws IOException Si el destino falla al escribir.
+     */
+    public static void maskDocument(CharSequence documentId, Appendable target) throws IOException {
+        DocumentMasker.maskTo(documentId, target);
     }
-}
\ No newline at end of file
+}
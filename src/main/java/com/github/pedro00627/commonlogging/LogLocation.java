@@ -0,0 +1,89 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Ubicación en el código fuente de la llamada de logging en curso, registrada en tiempo de
+ * compilación por {@link LocationWeaver}.
+ * El código tejido rodea cada llamada a {@link LogHelper} o {@link LoggerPort} con
+ * {@link #enter(StackTraceElement)} y {@link #exit(StackTraceElement)}, que también se ejecuta si
+ * la llamada lanza una excepción. La ubicación es una constante dinámica de la clase llamadora: se
+ * crea la primera vez que se ejecuta el sitio de llamada y después solo se asigna, así que Log4j2
+ * la recibe sin recorrer la pila y sin crear objetos.
+ * Las llamadas se anidan: un {@code toString()} de un argumento que registra otro mensaje mientras
+ * se formatea el primero lleva su propia ubicación, y al terminar se restaura la de fuera.
+ * Los métodos públicos solo deben invocarse desde código tejido.
+ */
+public final class LogLocation {
+    private static final ThreadLocal<StackTraceElement> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private LogLocation() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Método de arranque de la constante dinámica de cada sitio de llamada.
+     *
+     * @param lookup El lookup de la clase llamadora.
+     * @param name El nombre de la constante; no se usa.
+     * @param type El tipo de la constante, {@link StackTraceElement}.
+     * @param className El nombre binario de la clase llamadora.
+     * @param methodName El método llamador.
+     * @param fileName El archivo fuente, o una cadena vacía si la clase no lo registra.
+     * @param line La línea de la llamada, o -1 si la clase no registra líneas.
+     * @return La ubicación.
+     */
+    public static StackTraceElement bootstrap(MethodHandles.Lookup lookup, String name, Class<?> type,
+            String className, String methodName, String fileName, int line) {
+        return new StackTraceElement(className, methodName, fileName.isEmpty() ? null : fileName, line);
+    }
+
+    /**
+     * Registra la ubicación de la llamada que está a punto de ejecutarse en este hilo.
+     *
+     * @param location La ubicación.
+     * @return La ubicación que había registrada, que se pasa a {@link #exit(StackTraceElement)}.
+     */
+    public static StackTraceElement enter(StackTraceElement location) {
+        StackTraceElement previous = CURRENT.get();
+        CURRENT.set(location);
+        return previous;
+    }
+
+    /**
+     * Registra la ubicación de una llamada hecha desde un método de nivel de una implementación
+     * de {@link LoggerPort}. Si ya hay una registrada, se conserva: una implementación que delega
+     * en otra no sustituye la ubicación de quien la llamó.
+     *
+     * @param location La ubicación.
+     * @return La ubicación que había registrada, que se pasa a {@link #exit(StackTraceElement)}.
+     */
+    public static StackTraceElement delegate(StackTraceElement location) {
+        StackTraceElement previous = CURRENT.get();
+        if (previous == null) {
+            CURRENT.set(location);
+        }
+        return previous;
+    }
+
+    /**
+     * Restaura la ubicación que había antes de la llamada, al terminar.
+     *
+     * @param previous El valor devuelto por {@link #enter(StackTraceElement)} o
+     *                 {@link #delegate(StackTraceElement)}.
+     */
+    public static void exit(StackTraceElement previous) {
+        // set conserva la entrada del hilo aunque el valor sea null: el siguiente enter no crea objetos
+        CURRENT.set(previous);
+    }
+
+    /**
+     * @return La ubicación de la llamada en curso, o null si el sitio de llamada no está tejido.
+     */
+    static StackTraceElement current() {
+        return CURRENT.get();
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.pedro00627.commonlogging;
 
+import java.util.function.Supplier;
+
 /**
  * Interfaz que define las operaciones de logging y enmascaramiento de datos sensibles.
  * Proporciona métodos para registrar mensajes en diferentes niveles (info, warn, debug, error)
@@ -7,6 +9,47 @@ package com.github.pedro00627.commonlogging;
  * para logging seguro.
  */
 public interface LoggerPort {
+    /**
+     * Indica si el nivel debug está habilitado, para proteger bloques costosos.
+     * La implementación por defecto devuelve true; las implementaciones deberían sobrescribirla
+     * con una comprobación barata del nivel de su backend.
+     *
+     * @return true si los mensajes de depuración se registrarán.
+     */
+    default boolean isDebugEnabled() {
+        return true;
+    }
+
+    /**
+     * Indica si el nivel info está habilitado, para proteger bloques costosos.
+     * La implementación por defecto devuelve true.
+     *
+     * @return true si los mensajes informativos se registrarán.
+     */
+    default boolean isInfoEnabled() {
+        return true;
+    }
+
+    /**
+     * Indica si el nivel warn está habilitado, para proteger bloques costosos.
+     * La implementación por defecto devuelve true.
+     *
+     * @return true si los mensajes de advertencia se registrarán.
+     */
+    default boolean isWarnEnabled() {
+        return true;
+    }
+
+    /**
+     * Indica si el nivel error está habilitado, para proteger bloques costosos.
+     * La implementación por defecto devuelve true.
+     *
+     * @return true si los mensajes de error se registrarán.
+     */
+    default boolean isErrorEnabled() {
+        return true;
+    }
+
     /**
      * Registra un mensaje informativo.
      *
@@ -15,6 +58,121 @@ public interface LoggerPort {
      */
     void info(String message, Object... args);
 
+    /**
+     * Registra un mensaje informativo sin argumentos.
+     *
+     * @param message El mensaje a registrar.
+     */
+    default void info(String message) {
+        info(message, MessageFormatter.NO_ARGS);
+    }
+
+    /**
+     * Registra un mensaje informativo con un argumento.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     */
+    default void info(String message, Object arg1) {
+        if (isInfoEnabled()) {
+            info(message, new Object[] {arg1});
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con dos argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     */
+    default void info(String message, Object arg1, Object arg2) {
+        if (isInfoEnabled()) {
+            info(message, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con tres argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     */
+    default void info(String message, Object arg1, Object arg2, Object arg3) {
+        if (isInfoEnabled()) {
+            info(message, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con cuatro argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     */
+    default void info(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isInfoEnabled()) {
+            info(message, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo con cinco argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     * @param arg5 El quinto argumento.
+     */
+    default void info(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        if (isInfoEnabled()) {
+            info(message, new Object[] {arg1, arg2, arg3, arg4, arg5});
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo cuyos argumentos se calculan de forma diferida.
+     * Los proveedores solo se invocan si el nivel está habilitado, al formatear el mensaje.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param argSuppliers Proveedores de los argumentos que se usarán para formatear el mensaje.
+     */
+    default void info(String message, Supplier<?>... argSuppliers) {
+        if (isInfoEnabled()) {
+            info(message, LazyArgument.ofAll(argSuppliers));
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo construido de forma diferida.
+     * El proveedor solo se invoca si el nivel está habilitado. La implementación por defecto
+     * lo registra con la plantilla "{}".
+     *
+     * @param messageSupplier Proveedor del mensaje a registrar.
+     */
+    default void info(Supplier<String> messageSupplier) {
+        if (isInfoEnabled()) {
+            info("{}", new Object[] {LazyArgument.of(messageSupplier)});
+        }
+    }
+
     /**
      * Registra un mensaje de advertencia.
      *
@@ -23,6 +181,121 @@ public interface LoggerPort {
      */
     void warn(String message, Object... args);
 
+    /**
+     * Registra un mensaje de advertencia sin argumentos.
+     *
+     * @param message El mensaje a registrar.
+     */
+    default void warn(String message) {
+        warn(message, MessageFormatter.NO_ARGS);
+    }
+
+    /**
+     * Registra un mensaje de advertencia con un argumento.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     */
+    default void warn(String message, Object arg1) {
+        if (isWarnEnabled()) {
+            warn(message, new Object[] {arg1});
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con dos argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     */
+    default void warn(String message, Object arg1, Object arg2) {
+        if (isWarnEnabled()) {
+            warn(message, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con tres argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     */
+    default void warn(String message, Object arg1, Object arg2, Object arg3) {
+        if (isWarnEnabled()) {
+            warn(message, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con cuatro argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     */
+    default void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isWarnEnabled()) {
+            warn(message, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia con cinco argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     * @param arg5 El quinto argumento.
+     */
+    default void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        if (isWarnEnabled()) {
+            warn(message, new Object[] {arg1, arg2, arg3, arg4, arg5});
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia cuyos argumentos se calculan de forma diferida.
+     * Los proveedores solo se invocan si el nivel está habilitado, al formatear el mensaje.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param argSuppliers Proveedores de los argumentos que se usarán para formatear el mensaje.
+     */
+    default void warn(String message, Supplier<?>... argSuppliers) {
+        if (isWarnEnabled()) {
+            warn(message, LazyArgument.ofAll(argSuppliers));
+        }
+    }
+
+    /**
+     * Registra un mensaje de advertencia construido de forma diferida.
+     * El proveedor solo se invoca si el nivel está habilitado. La implementación por defecto
+     * lo registra con la plantilla "{}".
+     *
+     * @param messageSupplier Proveedor del mensaje a registrar.
+     */
+    default void warn(Supplier<String> messageSupplier) {
+        if (isWarnEnabled()) {
+            warn("{}", new Object[] {LazyArgument.of(messageSupplier)});
+        }
+    }
+
     /**
      * Registra un mensaje de depuración.
      *
@@ -31,6 +304,121 @@ public interface LoggerPort {
      */
     void debug(String message, Object... args);
 
+    /**
+     * Registra un mensaje de depuración sin argumentos.
+     *
+     * @param message El mensaje a registrar.
+     */
+    default void debug(String message) {
+        debug(message, MessageFormatter.NO_ARGS);
+    }
+
+    /**
+     * Registra un mensaje de depuración con un argumento.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     */
+    default void debug(String message, Object arg1) {
+        if (isDebugEnabled()) {
+            debug(message, new Object[] {arg1});
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con dos argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     */
+    default void debug(String message, Object arg1, Object arg2) {
+        if (isDebugEnabled()) {
+            debug(message, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con tres argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     */
+    default void debug(String message, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) {
+            debug(message, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con cuatro argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     */
+    default void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isDebugEnabled()) {
+            debug(message, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración con cinco argumentos.
+     * La implementación por defecto comprueba el nivel antes de crear el arreglo de argumentos
+     * y delegar en la variante de argumentos variables.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param arg1 El primer argumento.
+     * @param arg2 El segundo argumento.
+     * @param arg3 El tercer argumento.
+     * @param arg4 El cuarto argumento.
+     * @param arg5 El quinto argumento.
+     */
+    default void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5) {
+        if (isDebugEnabled()) {
+            debug(message, new Object[] {arg1, arg2, arg3, arg4, arg5});
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración cuyos argumentos se calculan de forma diferida.
+     * Los proveedores solo se invocan si el nivel está habilitado, al formatear el mensaje.
+     *
+     * @param message El mensaje a registrar. Puede contener placeholders para los argumentos.
+     * @param argSuppliers Proveedores de los argumentos que se usarán para formatear el mensaje.
+     */
+    default void debug(String message, Supplier<?>... argSuppliers) {
+        if (isDebugEnabled()) {
+            debug(message, LazyArgument.ofAll(argSuppliers));
+        }
+    }
+
+    /**
+     * Registra un mensaje de depuración construido de forma diferida.
+     * El proveedor solo se invoca si el nivel está habilitado. La implementación por defecto
+     * lo registra con la plantilla "{}".
+     *
+     * @param messageSupplier Proveedor del mensaje a registrar.
+     */
+    default void debug(Supplier<String> messageSupplier) {
+        if (isDebugEnabled()) {
+            debug("{}", new Object[] {LazyArgument.of(messageSupplier)});
+        }
+    }
+
     /**
      * Registra un mensaje de error junto con una excepción.
      *
@@ -39,6 +427,18 @@ public interface LoggerPort {
      */
     void error(String message, Throwable throwable);
 
+    /**
+     * Registra un mensaje de error construido de forma diferida junto con una excepción.
+     *
+     * @param messageSupplier Proveedor del mensaje de error a registrar.
+     * @param throwable La excepción asociada al error.
+     */
+    default void error(Supplier<String> messageSupplier, Throwable throwable) {
+        if (isErrorEnabled()) {
+            error(messageSupplier.get(), throwable);
+        }
+    }
+
     /**
      * Enmascara una dirección de correo electrónico para logging seguro.
      * Por ejemplo, "test.user@example.com" podría ser enmascarado a "t***r@example.com".
@@ -56,4 +456,16 @@ public interface LoggerPort {
      * @return El documento enmascarado o un indicador de formato inválido si no cumple con la longitud mínima.
      */
     String maskDocument(String documentId);
+
+    /**
+     * Enmascara un valor con la regla indicada, por ejemplo un tipo de {@link MaskType}.
+     * Por ejemplo, mask(MaskType.CARD, "4111111111111111") podría devolver "************1111".
+     *
+     * @param type La regla de enmascarado.
+     * @param value El valor a enmascarar.
+     * @return El valor enmascarado.
+     */
+    default String mask(MaskingRule type, String value) {
+        return type.mask(value);
+    }
 }
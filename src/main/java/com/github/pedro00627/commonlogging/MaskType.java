@@ -0,0 +1,241 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Tipos de dato sensible que la librería sabe enmascarar.
+ * Cada tipo es también una {@link MaskingRule} que detecta ese dato dentro de texto libre, de
+ * modo que los tipos pueden combinarse en un {@link MaskingEngine}. Las constantes están
+ * declaradas de la más específica a la más general, que es el orden en que el motor por
+ * defecto las aplica.
+ */
+public enum MaskType implements MaskingRule {
+    /**
+     * Correo electrónico, con las reglas de {@link LogHelper#maskEmail(String)}.
+     */
+    EMAIL {
+        @Override
+        public String mask(String value) {
+            return EmailMasker.mask(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            EmailMasker.maskTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return AT;
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return EmailMasker.maskInText(text, start, end, target);
+        }
+    },
+
+    /**
+     * Número de tarjeta de pago validado con Luhn; se muestran los últimos 4 dígitos.
+     * Ejemplo: "4111 1111 1111 1111" -> "**** **** **** 1111"
+     */
+    CARD {
+        @Override
+        public String mask(String value) {
+            return CardMasker.mask(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            CardMasker.maskTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return DIGIT;
+        }
+
+        @Override
+        public boolean canStartWith(char first) {
+            return first >= '0' && first <= '9';
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return CardMasker.maskInText(text, start, limit, target);
+        }
+    },
+
+    /**
+     * Número de teléfono; se muestran los últimos 2 dígitos. En texto libre solo se detectan
+     * números con prefijo internacional.
+     * Ejemplo: "+57 300 123 4567" -> "+** *** *** **67"
+     */
+    PHONE {
+        @Override
+        public String mask(String value) {
+            return PhoneMasker.mask(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            PhoneMasker.maskTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return DIGIT;
+        }
+
+        @Override
+        public boolean canStartWith(char first) {
+            return first == '+';
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return PhoneMasker.maskInText(text, start, limit, target);
+        }
+    },
+
+    /**
+     * Número de cuenta IBAN validado con módulo 97; se muestran el país, el control y los
+     * últimos 4 caracteres.
+     * Ejemplo: "DE89370400440532013000" -> "DE89**************3000"
+     */
+    IBAN {
+        @Override
+        public String mask(String value) {
+            return IbanMasker.mask(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            IbanMasker.maskTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return LETTER | DIGIT;
+        }
+
+        @Override
+        public boolean canStartWith(char first) {
+            return first >= 'A' && first <= 'Z';
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return IbanMasker.maskInText(text, start, limit, target);
+        }
+    },
+
+    /**
+     * Token de acceso: credenciales Bearer y JWT.
+     * Ejemplo: "Bearer abcdef0123456789" -> "Bearer abcd***"
+     */
+    TOKEN {
+        @Override
+        public String mask(String value) {
+            return SecretMasker.maskToken(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            SecretMasker.maskTokenTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return LETTER;
+        }
+
+        @Override
+        public boolean canStartWith(char first) {
+            return first == 'B' || first == 'b' || first == 'e';
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return SecretMasker.maskTokenInText(text, start, end, limit, target);
+        }
+    },
+
+    /**
+     * Clave de API de un proveedor conocido; se conserva solo el prefijo del proveedor.
+     * Ejemplo: "sk_live_51H8xYzAbCdEfGhIj" -> "sk_live_***"
+     */
+    API_KEY {
+        @Override
+        public String mask(String value) {
+            return SecretMasker.maskApiKey(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            SecretMasker.maskApiKeyTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return LETTER | LONG;
+        }
+
+        @Override
+        public boolean canStartWith(char first) {
+            for (String prefix : SecretMasker.API_KEY_PREFIXES) {
+                if (prefix.charAt(0) == first) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return SecretMasker.maskKeyInText(text, start, end, SecretMasker.API_KEY_PREFIXES,
+                    SecretMasker.MIN_KEY_BODY, target);
+        }
+    },
+
+    /**
+     * Número de documento de identidad, con las reglas de {@link LogHelper#maskDocument(String)}.
+     * En texto libre se enmascaran las secuencias de 6 a 20 dígitos que no están pegadas a letras.
+     */
+    DOCUMENT {
+        @Override
+        public String mask(String value) {
+            return DocumentMasker.mask(value);
+        }
+
+        @Override
+        public void maskTo(CharSequence value, StringBuilder target) {
+            DocumentMasker.maskTo(value, target);
+        }
+
+        @Override
+        public int requiredFeatures() {
+            return DIGIT_RUN;
+        }
+
+        @Override
+        public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+            return DocumentMasker.maskInText(text, start, end, target);
+        }
+    };
+
+    /**
+     * Enmascara un valor.
+     *
+     * @param value El valor a enmascarar. Puede ser nulo.
+     * @return El valor enmascarado.
+     */
+    @Override
+    public abstract String mask(String value);
+
+    /**
+     * Añade el valor enmascarado al final del buffer indicado.
+     *
+     * @param value El valor a enmascarar. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    public abstract void maskTo(CharSequence value, StringBuilder target);
+}
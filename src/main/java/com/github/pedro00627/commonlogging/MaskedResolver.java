@@ -0,0 +1,192 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.layout.template.json.resolver.EventResolver;
+import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolverConfig;
+import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Resolver de JsonTemplateLayout que escribe un campo del evento ya enmascarado.
+ * Configuración:
+ * <ul>
+ *   <li>{@code field}: {@code message} (por defecto) para el mensaje formateado, o {@code mdc}
+ *       para el valor de una clave del MDC indicada en {@code key}.</li>
+ *   <li>{@code mask}: {@code pii} (por defecto) para enmascarar con {@link PiiScanner} los
+ *       correos y documentos que aparezcan en el texto, o el nombre de un {@link MaskType} para
+ *       enmascarar el valor completo.</li>
+ *   <li>{@code masks}: con {@code field} {@code mdc} y sin {@code key}, escribe todo el MDC como
+ *       objeto JSON y enmascara los valores de las claves indicadas, por ejemplo
+ *       {@code {"userEmail": "email", "documentId": "document"}}. Las demás claves se escriben
+ *       como el resolver {@code mdc} de Log4j2, conservando el tipo JSON de números y lógicos.</li>
+ * </ul>
+ * El texto se escribe directamente en el buffer del layout y se enmascara allí mismo, antes de
+ * escaparlo como cadena JSON, de modo que no se crean Strings intermedios. Las claves de
+ * {@code masks} se buscan en una {@link KeyMaskTable} precalculada.
+ */
+final class MaskedResolver implements EventResolver {
+    /**
+     * Nombre del resolver en las plantillas ({@code "$resolver": "masked"}).
+     */
+    static final String NAME = "masked";
+
+    private static final ThreadLocal<MaskingWriter> THREAD_WRITER = ThreadLocal.withInitial(MaskingWriter::new);
+
+    /**
+     * Escribe una entrada del MDC; sin estado, para recorrer el mapa sin crear lambdas por evento.
+     */
+    private static final TriConsumer<String, Object, MaskingWriter> ENTRY_WRITER = MaskedResolver::writeEntry;
+
+    private final String key;
+    private final MaskType maskType;
+    private final KeyMaskTable keyMasks;
+
+    MaskedResolver(TemplateResolverConfig config) {
+        String field = config.getString("field");
+        KeyMaskTable masks = null;
+        if (field == null || "message".equals(field)) {
+            this.key = null;
+        } else if ("mdc".equals(field)) {
+            this.key = config.getString("key");
+            if (key == null) {
+                masks = parseKeyMasks(config.getObject("masks"));
+            }
+            if (key == null && masks == null) {
+                throw new IllegalArgumentException("masked resolver requires a key or masks for the mdc field: " + config);
+            }
+        } else {
+            throw new IllegalArgumentException("unknown masked resolver field: " + field);
+        }
+        this.keyMasks = masks;
+        this.maskType = parseMaskType(config.getString("mask"));
+    }
+
+    private static KeyMaskTable parseKeyMasks(Object masks) {
+        if (masks == null) {
+            return null;
+        }
+        if (!(masks instanceof Map<?, ?> entries)) {
+            throw new IllegalArgumentException("masked resolver masks must be an object: " + masks);
+        }
+        Map<String, MaskType> types = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : entries.entrySet()) {
+            if (!(entry.getValue() instanceof String mask)) {
+                throw new IllegalArgumentException("masked resolver mask for " + entry.getKey() + " must be a string");
+            }
+            types.put(String.valueOf(entry.getKey()), parseMaskType(mask));
+        }
+        return KeyMaskTable.of(types);
+    }
+
+    private static MaskType parseMaskType(String mask) {
+        if (mask == null || "pii".equalsIgnoreCase(mask)) {
+            return null;
+        }
+        try {
+            return MaskType.valueOf(mask.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown masked resolver mask: " + mask, e);
+        }
+    }
+
+    @Override
+    public void resolve(LogEvent event, JsonWriter jsonWriter) {
+        if (keyMasks != null) {
+            resolveContextData(event, jsonWriter);
+            return;
+        }
+        Object value = key == null ? event.getMessage() : event.getContextData().getValue(key);
+        if (value == null) {
+            jsonWriter.writeNull();
+            return;
+        }
+        MaskingWriter writer = writer();
+        writer.value = value;
+        writer.maskType = maskType;
+        try {
+            jsonWriter.writeString(writer);
+        } finally {
+            writer.value = null;
+        }
+    }
+
+    private void resolveContextData(LogEvent event, JsonWriter jsonWriter) {
+        MaskingWriter writer = writer();
+        writer.jsonWriter = jsonWriter;
+        writer.keyMasks = keyMasks;
+        writer.firstEntry = true;
+        jsonWriter.writeObjectStart();
+        try {
+            event.getContextData().forEach(ENTRY_WRITER, writer);
+        } finally {
+            writer.value = null;
+            writer.jsonWriter = null;
+        }
+        jsonWriter.writeObjectEnd();
+    }
+
+    private static void writeEntry(String key, Object value, MaskingWriter writer) {
+        JsonWriter jsonWriter = writer.jsonWriter;
+        if (!writer.firstEntry) {
+            jsonWriter.writeSeparator();
+        }
+        writer.firstEntry = false;
+        jsonWriter.writeObjectKey(key);
+        int index = writer.keyMasks.indexOf(key);
+        if (value != null && index >= 0) {
+            writer.value = value;
+            writer.maskType = writer.keyMasks.typeAt(index);
+            jsonWriter.writeString(writer);
+        } else {
+            // Como el resolver mdc de Log4j2: números y lógicos conservan su tipo JSON
+            jsonWriter.writeValue(value);
+        }
+    }
+
+    private static MaskingWriter writer() {
+        Thread current = Thread.currentThread();
+        return current.isVirtual() ? new MaskingWriter() : THREAD_WRITER.get();
+    }
+
+    /**
+     * Escribe un valor enmascarado al final del buffer del layout. Las instancias se reutilizan
+     * por hilo para no crear un objeto por evento; al escribir todo el MDC guardan además el
+     * estado del recorrido.
+     */
+    private static final class MaskingWriter implements StringBuilderFormattable {
+        private Object value;
+        private MaskType maskType;
+        private JsonWriter jsonWriter;
+        private KeyMaskTable keyMasks;
+        private boolean firstEntry;
+
+        @Override
+        public void formatTo(StringBuilder buffer) {
+            int start = buffer.length();
+            if (value instanceof StringBuilderFormattable formattable) {
+                formattable.formatTo(buffer);
+            } else if (value instanceof Message message) {
+                buffer.append(message.getFormattedMessage());
+            } else {
+                MessageTemplate.appendArgument(buffer, value);
+            }
+            if (maskType == null) {
+                PiiScanner.redact(buffer, start);
+                return;
+            }
+            StringBuilder scratch = ReusableBuffers.acquire();
+            try {
+                scratch.append(buffer, start, buffer.length());
+                buffer.setLength(start);
+                maskType.maskTo(scratch, buffer);
+            } finally {
+                ReusableBuffers.release(scratch);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.layout.template.json.resolver.EventResolver;
+import org.apache.logging.log4j.layout.template.json.resolver.EventResolverContext;
+import org.apache.logging.log4j.layout.template.json.resolver.EventResolverFactory;
+import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolverConfig;
+import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolverFactory;
+
+/**
+ * Registra el resolver {@code "$resolver": "masked"} en JsonTemplateLayout, que enmascara el
+ * mensaje o un valor del MDC mientras se escribe el JSON (ver {@link MaskedResolver}).
+ * Así el enmascarado ocurre en el hilo que codifica el evento, que con appenders asíncronos no
+ * es el hilo de la aplicación. La plantilla {@code log4j2-template-masked.json} lo usa para el
+ * campo message.
+ */
+@Plugin(name = "MaskedResolverFactory", category = TemplateResolverFactory.CATEGORY)
+public final class MaskedResolverFactory implements EventResolverFactory {
+    private static final MaskedResolverFactory INSTANCE = new MaskedResolverFactory();
+
+    private MaskedResolverFactory() {
+    }
+
+    /**
+     * Fábrica que Log4j2 usa al descubrir el plugin.
+     *
+     * @return La fábrica compartida.
+     */
+    @PluginFactory
+    public static MaskedResolverFactory getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public String getName() {
+        return MaskedResolver.NAME;
+    }
+
+    @Override
+    public EventResolver create(EventResolverContext context, TemplateResolverConfig config) {
+        return new MaskedResolver(config);
+    }
+}
@@ -0,0 +1,306 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Conjunto de reglas de enmascarado compilado para recorrer el texto una sola vez.
+ * Al crearse, el motor precalcula dos tablas de despacho: una por combinación de rasgos de
+ * palabra y otra por primer carácter, cada una con el conjunto de reglas candidatas como
+ * máscara de bits. Durante el recorrido, cada carácter cuesta una consulta a la tabla de clases
+ * y cada palabra una intersección de dos máscaras; solo las reglas candidatas validan la palabra.
+ * El costo sobre texto sin datos sensibles es O(n) y no depende del número de reglas.
+ * <p>
+ * Las reglas se evalúan en el orden en que se registran y gana la primera que enmascara, así que
+ * las más específicas deben ir primero. Las instancias son inmutables y pueden compartirse
+ * entre hilos.
+ */
+public final class MaskingEngine {
+    /**
+     * Propiedad de sistema con los tipos de {@link MaskType}, separados por comas, que usa el
+     * motor por defecto (por ejemplo "EMAIL,DOCUMENT,CARD,IBAN"). Se aplican en el orden de
+     * declaración de {@link MaskType}.
+     */
+    public static final String RULES_PROPERTY = "commonlogging.maskingRules";
+
+    /**
+     * Número máximo de reglas de un motor.
+     */
+    public static final int MAX_RULES = Long.SIZE;
+
+    private static final String DEFAULT_RULES = "EMAIL,DOCUMENT";
+
+    private static final int TOKEN = 1 << 7;
+    private static final int FEATURE_MASK = MaskingRule.DIGIT | MaskingRule.LETTER | MaskingRule.AT
+            | MaskingRule.DOT | MaskingRule.DIGIT_RUN | MaskingRule.LONG;
+    private static final int ASCII = 128;
+    private static final byte[] CHAR_CLASSES = new byte[ASCII];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASSES[c] = (byte) (TOKEN | MaskingRule.LETTER);
+            CHAR_CLASSES[Character.toUpperCase(c)] = (byte) (TOKEN | MaskingRule.LETTER);
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CHAR_CLASSES[c] = (byte) (TOKEN | MaskingRule.DIGIT);
+        }
+        CHAR_CLASSES['.'] = (byte) (TOKEN | MaskingRule.DOT);
+        CHAR_CLASSES['@'] = (byte) (TOKEN | MaskingRule.AT);
+        for (char c : "_+&*-".toCharArray()) {
+            CHAR_CLASSES[c] = (byte) TOKEN;
+        }
+    }
+
+    private static final MaskingEngine DEFAULT = of(parseRules(System.getProperty(RULES_PROPERTY, DEFAULT_RULES)));
+
+    private final MaskingRule[] rules;
+    private final long[] rulesByFeatures = new long[FEATURE_MASK + 1];
+    private final long[] rulesByFirstChar = new long[ASCII];
+
+    private MaskingEngine(MaskingRule[] rules) {
+        this.rules = rules;
+        for (int r = 0; r < rules.length; r++) {
+            long bit = 1L << r;
+            int required = rules[r].requiredFeatures() & FEATURE_MASK;
+            for (int features = 0; features <= FEATURE_MASK; features++) {
+                if ((features & required) == required) {
+                    rulesByFeatures[features] |= bit;
+                }
+            }
+            for (char c = 0; c < ASCII; c++) {
+                if ((CHAR_CLASSES[c] & TOKEN) != 0 && rules[r].canStartWith(c)) {
+                    rulesByFirstChar[c] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compila un motor con las reglas indicadas, en orden de prioridad.
+     *
+     * @param rules Las reglas.
+     * @return El motor.
+     * @throws IllegalArgumentException Si hay más de {@link #MAX_RULES} reglas o nombres repetidos.
+     */
+    public static MaskingEngine of(MaskingRule... rules) {
+        return of(List.of(rules));
+    }
+
+    /**
+     * Compila un motor con las reglas indicadas, en orden de prioridad.
+     *
+     * @param rules Las reglas.
+     * @return El motor.
+     * @throws IllegalArgumentException Si hay más de {@link #MAX_RULES} reglas o nombres repetidos.
+     */
+    public static MaskingEngine of(List<? extends MaskingRule> rules) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("at most " + MAX_RULES + " masking rules are supported, got " + rules.size());
+        }
+        Set<String> names = new HashSet<>();
+        for (MaskingRule rule : rules) {
+            if (!names.add(rule.name())) {
+                throw new IllegalArgumentException("duplicate masking rule: " + rule.name());
+            }
+        }
+        return new MaskingEngine(rules.toArray(new MaskingRule[0]));
+    }
+
+    /**
+     * Devuelve el motor configurado con {@link #RULES_PROPERTY}; por defecto enmascara correos
+     * y números de documento. Es el motor que usan {@link PiiScanner} y el resto de la librería.
+     *
+     * @return El motor por defecto.
+     */
+    public static MaskingEngine defaultEngine() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return Las reglas del motor, en orden de prioridad.
+     */
+    public List<MaskingRule> rules() {
+        return List.of(rules);
+    }
+
+    /**
+     * Indica si alguna palabra del texto es candidata para alguna regla. Un resultado false
+     * garantiza que {@link #redact(String)} devolverá el texto sin cambios.
+     *
+     * @param text El texto a inspeccionar. Puede ser nulo.
+     * @return true si el texto puede contener datos sensibles.
+     */
+    public boolean mayContainPii(CharSequence text) {
+        return text != null && firstCandidate(text, 0) >= 0;
+    }
+
+    /**
+     * Enmascara los datos sensibles que aparezcan en el texto.
+     *
+     * @param text El texto a enmascarar. Puede ser nulo.
+     * @return El texto enmascarado, o la misma instancia si no contiene datos sensibles.
+     */
+    public String redact(String text) {
+        if (text == null) {
+            return null;
+        }
+        int candidate = firstCandidate(text, 0);
+        if (candidate < 0) {
+            return text;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            buffer.append(text, 0, candidate);
+            return rewrite(text, candidate, buffer) ? buffer.toString() : text;
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Enmascara en el sitio los datos sensibles del buffer a partir de la posición indicada.
+     * El texto anterior a esa posición no se inspecciona y se trata como un separador.
+     *
+     * @param text El buffer a enmascarar.
+     * @param from La posición desde la que se inspecciona el buffer.
+     * @return true si se enmascaró algún fragmento.
+     */
+    public boolean redact(StringBuilder text, int from) {
+        int candidate = firstCandidate(text, from);
+        if (candidate < 0) {
+            return false;
+        }
+        StringBuilder scratch = ReusableBuffers.acquire();
+        try {
+            if (!rewrite(text, candidate, scratch)) {
+                return false;
+            }
+            text.setLength(candidate);
+            text.append(scratch);
+            return true;
+        } finally {
+            ReusableBuffers.release(scratch);
+        }
+    }
+
+    /**
+     * Recorre el texto desde la posición indicada y, si alguna regla enmascara algo, añade al
+     * buffer el texto reescrito desde esa posición.
+     *
+     * @return true si se enmascaró algo; en caso contrario el contenido del buffer no es significativo.
+     */
+    private boolean rewrite(CharSequence text, int from, StringBuilder target) {
+        int length = text.length();
+        int copied = from;
+        boolean changed = false;
+        int i = from;
+        while (i < length) {
+            char first = text.charAt(i);
+            if (classes(first) == 0) {
+                i++;
+                continue;
+            }
+            int start = i;
+            long word = scanWord(text, start, length);
+            i = (int) (word >>> Integer.SIZE);
+            long candidates = candidates((int) word, i - start, first);
+            if (candidates == 0) {
+                continue;
+            }
+            target.append(text, copied, start);
+            copied = start;
+            while (candidates != 0) {
+                MaskingRule rule = rules[Long.numberOfTrailingZeros(candidates)];
+                candidates &= candidates - 1;
+                int masked = rule.maskInText(text, start, i, length, target);
+                if (masked > start) {
+                    changed = true;
+                    copied = masked;
+                    i = masked;
+                    break;
+                }
+            }
+        }
+        if (changed) {
+            target.append(text, copied, length);
+        }
+        return changed;
+    }
+
+    /**
+     * Busca la primera palabra para la que hay alguna regla candidata, sin escribir nada.
+     *
+     * @return El inicio de la palabra, o -1 si no hay ninguna.
+     */
+    private int firstCandidate(CharSequence text, int from) {
+        int length = text.length();
+        int i = from;
+        while (i < length) {
+            char first = text.charAt(i);
+            if (classes(first) == 0) {
+                i++;
+                continue;
+            }
+            int start = i;
+            long word = scanWord(text, start, length);
+            i = (int) (word >>> Integer.SIZE);
+            if (candidates((int) word, i - start, first) != 0) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Recorre una palabra y calcula sus rasgos.
+     *
+     * @return El final de la palabra en los 32 bits altos y sus rasgos en los bajos.
+     */
+    private static long scanWord(CharSequence text, int start, int length) {
+        int features = 0;
+        int digits = 0;
+        int i = start;
+        do {
+            int classes = classes(text.charAt(i));
+            features |= classes;
+            digits = (classes & MaskingRule.DIGIT) != 0 ? digits + 1 : 0;
+            if (digits >= PiiScanner.MIN_DOCUMENT_DIGITS) {
+                features |= MaskingRule.DIGIT_RUN;
+            }
+            i++;
+        } while (i < length && classes(text.charAt(i)) != 0);
+        return ((long) i << Integer.SIZE) | features;
+    }
+
+    private long candidates(int features, int wordLength, char first) {
+        int wordFeatures = (features & FEATURE_MASK)
+                | (wordLength >= MaskingRule.LONG_WORD_LENGTH ? MaskingRule.LONG : 0);
+        return rulesByFeatures[wordFeatures] & rulesByFirstChar[first];
+    }
+
+    private static int classes(char c) {
+        return c < ASCII ? CHAR_CLASSES[c] & 0xFF : 0;
+    }
+
+    /**
+     * Convierte la lista de tipos de la propiedad de sistema en reglas, en orden de declaración.
+     */
+    static List<MaskingRule> parseRules(String names) {
+        EnumSet<MaskType> types = EnumSet.noneOf(MaskType.class);
+        for (String name : names.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                try {
+                    types.add(MaskType.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("unknown masking rule in " + RULES_PROPERTY + ": " + trimmed, e);
+                }
+            }
+        }
+        return new ArrayList<>(types);
+    }
+}
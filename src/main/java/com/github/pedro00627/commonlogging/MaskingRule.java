@@ -0,0 +1,107 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Regla de enmascarado: detecta un tipo de dato sensible dentro de texto libre y sabe enmascarar
+ * un valor suelto de ese tipo. Los tipos incluidos son las constantes de {@link MaskType}; las
+ * reglas propias se combinan con ellas en un {@link MaskingEngine}.
+ * <p>
+ * El motor recorre el texto una sola vez, dividiéndolo en palabras de caracteres ASCII
+ * alfanuméricos y {@code ._+&*-@}, y calcula para cada palabra un conjunto de rasgos (las
+ * constantes de esta interfaz). Una regla solo se evalúa sobre las palabras que tienen todos sus
+ * {@link #requiredFeatures() rasgos requeridos} y cuyo primer carácter acepta
+ * {@link #canStartWith(char)}, de modo que añadir reglas no añade trabajo sobre el resto del texto.
+ */
+public interface MaskingRule {
+    /**
+     * Rasgo: la palabra contiene al menos un dígito.
+     */
+    int DIGIT = 1;
+
+    /**
+     * Rasgo: la palabra contiene al menos una letra ASCII.
+     */
+    int LETTER = 1 << 1;
+
+    /**
+     * Rasgo: la palabra contiene una arroba.
+     */
+    int AT = 1 << 2;
+
+    /**
+     * Rasgo: la palabra contiene un punto.
+     */
+    int DOT = 1 << 3;
+
+    /**
+     * Rasgo: la palabra contiene una secuencia de al menos {@link PiiScanner#MIN_DOCUMENT_DIGITS} dígitos.
+     */
+    int DIGIT_RUN = 1 << 4;
+
+    /**
+     * Rasgo: la palabra tiene al menos {@link #LONG_WORD_LENGTH} caracteres.
+     */
+    int LONG = 1 << 5;
+
+    /**
+     * Longitud a partir de la cual una palabra tiene el rasgo {@link #LONG}.
+     */
+    int LONG_WORD_LENGTH = 16;
+
+    /**
+     * @return El nombre de la regla, único dentro de un motor.
+     */
+    String name();
+
+    /**
+     * @return Los rasgos que debe tener una palabra para evaluar la regla, como combinación de
+     *         las constantes de esta interfaz.
+     */
+    int requiredFeatures();
+
+    /**
+     * Indica si una coincidencia puede empezar por el carácter indicado. El motor consulta este
+     * método una sola vez por cada carácter ASCII al compilar las reglas.
+     *
+     * @param first El primer carácter de la palabra.
+     * @return true si la regla debe evaluarse sobre palabras que empiezan por ese carácter.
+     */
+    default boolean canStartWith(char first) {
+        return true;
+    }
+
+    /**
+     * Intenta enmascarar el dato que empieza en una palabra del texto. Si hay coincidencia,
+     * añade al buffer el reemplazo del fragmento entre start y la posición devuelta; si no, no
+     * añade nada.
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param end El final de la palabra, excluido.
+     * @param limit El final del texto; la coincidencia puede extenderse más allá de la palabra,
+     *              por ejemplo en números agrupados con espacios.
+     * @param target El buffer de destino.
+     * @return El final del fragmento enmascarado, mayor que start, o -1 si no hay coincidencia.
+     */
+    int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target);
+
+    /**
+     * Enmascara un valor suelto de este tipo.
+     *
+     * @param value El valor a enmascarar. Puede ser nulo.
+     * @return El valor enmascarado.
+     */
+    String mask(String value);
+
+    /**
+     * Crea una regla para secretos que empiezan por un prefijo conocido, por ejemplo las claves
+     * de API de un proveedor interno. El texto se enmascara conservando solo el prefijo.
+     * Ejemplo: con el prefijo "acme_", "acme_9f8e7d6c5b4a3210" -> "acme_***"
+     *
+     * @param name El nombre de la regla.
+     * @param prefix El prefijo del secreto.
+     * @return La regla.
+     */
+    static MaskingRule secretPrefix(String name, String prefix) {
+        return new PrefixRule(name, prefix);
+    }
+}
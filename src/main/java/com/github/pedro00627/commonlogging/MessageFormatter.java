@@ -0,0 +1,90 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Formateador de mensajes con placeholders ({}).
+ * Cada plantilla se analiza una sola vez en fragmentos literales y huecos, y se guarda en una
+ * caché compartida, de modo que formatear una plantilla conocida se reduce a concatenar
+ * fragmentos y argumentos sobre un StringBuilder pre-dimensionado. El texto de los argumentos
+ * se inserta de forma literal y un placeholder puede escaparse con una barra invertida ({@code \{}}).
+ */
+public final class MessageFormatter {
+    /**
+     * Propiedad de sistema para configurar la capacidad de la caché compartida de plantillas.
+     */
+    public static final String TEMPLATE_CACHE_CAPACITY_PROPERTY = "commonlogging.templateCache.capacity";
+
+    /**
+     * Propiedad de sistema para enmascarar con {@link PiiScanner} los correos y números de
+     * documento que aparezcan en el texto de los argumentos. El texto literal de las plantillas
+     * no se inspecciona.
+     */
+    public static final String PII_SCAN_PROPERTY = "commonlogging.piiScan";
+
+    /**
+     * Arreglo vacío compartido para las llamadas sin argumentos.
+     */
+    static final Object[] NO_ARGS = new Object[0];
+
+    private static final MessageTemplateCache TEMPLATE_CACHE = new MessageTemplateCache(
+            Integer.getInteger(TEMPLATE_CACHE_CAPACITY_PROPERTY, MessageTemplateCache.DEFAULT_CAPACITY));
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private MessageFormatter() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Formatea un mensaje reemplazando cada placeholder {} por el siguiente argumento.
+     * Los placeholders sin argumento se conservan tal cual y los argumentos sobrantes se ignoran.
+     * Una secuencia {@code \{}} produce el texto literal {} sin consumir argumentos, y
+     * {@code \\{}} produce una barra invertida seguida del argumento correspondiente.
+     * Ejemplo: format("Usuario {} creado en {}ms", "ana", 12) -> "Usuario ana creado en 12ms"
+     *
+     * @param template La plantilla con placeholders. Puede ser nula.
+     * @param args Los argumentos a insertar.
+     * @return El mensaje formateado, o la plantilla sin cambios si no hay argumentos.
+     */
+    public static String format(String template, Object... args) {
+        if (template == null || args == null || args.length == 0) {
+            return template;
+        }
+        MessageTemplate parsed = TEMPLATE_CACHE.get(template);
+        StringBuilder builder = new StringBuilder(parsed.estimateLength(args.length));
+        parsed.formatTo(builder, args);
+        return builder.toString();
+    }
+
+    /**
+     * Formatea un mensaje añadiendo el resultado al final del buffer indicado.
+     *
+     * @param builder El buffer de destino.
+     * @param template La plantilla con placeholders.
+     * @param args Los argumentos a insertar. Puede ser nulo.
+     */
+    public static void formatTo(StringBuilder builder, String template, Object... args) {
+        TEMPLATE_CACHE.get(template).formatTo(builder, args);
+    }
+
+    /**
+     * Formatea un mensaje usando solo los primeros argumentos del arreglo.
+     *
+     * @param builder El buffer de destino.
+     * @param template La plantilla con placeholders.
+     * @param args Los argumentos a insertar.
+     * @param argCount El número de argumentos válidos al inicio del arreglo.
+     */
+    static void formatTo(StringBuilder builder, String template, Object[] args, int argCount) {
+        TEMPLATE_CACHE.get(template).formatTo(builder, args, argCount);
+    }
+
+    /**
+     * Devuelve la caché compartida de plantillas, para consultar sus contadores de aciertos y fallos.
+     *
+     * @return La caché compartida de plantillas.
+     */
+    public static MessageTemplateCache templateCache() {
+        return TEMPLATE_CACHE;
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plantilla de mensaje ya analizada: fragmentos literales intercalados con huecos para los argumentos.
+ * Los escapes ({@code \{}} y {@code \\{}}) se resuelven al analizar la plantilla, de modo que
+ * formatear se reduce a concatenar fragmentos y argumentos.
+ * Las instancias son inmutables y pueden compartirse entre hilos.
+ */
+final class MessageTemplate {
+    /**
+     * Capacidad estimada por argumento al pre-dimensionar el buffer de salida.
+     */
+    private static final int ESTIMATED_ARG_LENGTH = 16;
+
+    /**
+     * Si está activo, el texto de cada argumento pasa por {@link PiiScanner} al insertarse.
+     */
+    private static final boolean PII_SCAN = Boolean.getBoolean(MessageFormatter.PII_SCAN_PROPERTY);
+
+    private static final char DELIM_START = '{';
+    private static final char DELIM_STOP = '}';
+    private static final char ESCAPE_CHAR = '\\';
+    private static final String PLACEHOLDER = "{}";
+
+    private final String template;
+    private final String[] literals;
+    private final int literalLength;
+
+    private MessageTemplate(String template, String[] literals) {
+        this.template = template;
+        this.literals = literals;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Analiza una plantilla en una sola pasada.
+     *
+     * @param template La plantilla con placeholders.
+     * @return La plantilla analizada.
+     */
+    static MessageTemplate parse(String template) {
+        int length = template.length();
+        List<String> literals = null;
+        StringBuilder literal = null;
+        int literalStart = 0;
+        for (int i = 0; i < length - 1; i++) {
+            char current = template.charAt(i);
+            if (current == ESCAPE_CHAR) {
+                char next = template.charAt(i + 1);
+                if (next == DELIM_START && isPlaceholderAt(template, i + 1)) {
+                    // \{} -> {} literal
+                    literal = appendChunk(literal, template, literalStart, i).append(PLACEHOLDER);
+                    i += 2;
+                    literalStart = i + 1;
+                } else if (next == ESCAPE_CHAR && isPlaceholderAt(template, i + 2)) {
+                    // \\{} -> barra invertida literal seguida del placeholder
+                    literal = appendChunk(literal, template, literalStart, i + 1);
+                    i++;
+                    literalStart = i + 1;
+                }
+            } else if (current == DELIM_START && template.charAt(i + 1) == DELIM_STOP) {
+                if (literals == null) {
+                    literals = new ArrayList<>();
+                }
+                literals.add(closeLiteral(literal, template, literalStart, i));
+                literal = null;
+                i++;
+                literalStart = i + 1;
+            }
+        }
+        String last = closeLiteral(literal, template, literalStart, length);
+        if (literals == null) {
+            return new MessageTemplate(template, new String[] {last});
+        }
+        literals.add(last);
+        return new MessageTemplate(template, literals.toArray(new String[0]));
+    }
+
+    /**
+     * @return La plantilla original, tal como se recibió.
+     */
+    String template() {
+        return template;
+    }
+
+    /**
+     * @return El número de placeholders de la plantilla.
+     */
+    int placeholderCount() {
+        return literals.length - 1;
+    }
+
+    /**
+     * Estima la longitud del mensaje formateado para pre-dimensionar el buffer de salida.
+     *
+     * @param argCount El número de argumentos disponibles.
+     * @return La longitud estimada.
+     */
+    int estimateLength(int argCount) {
+        return literalLength + Math.min(argCount, placeholderCount()) * ESTIMATED_ARG_LENGTH;
+    }
+
+    /**
+     * Añade el mensaje formateado al final del buffer indicado.
+     * Los placeholders sin argumento se escriben como {} y los argumentos sobrantes se ignoran.
+     * Con {@link MessageFormatter#PII_SCAN_PROPERTY} activa, se enmascaran los datos personales
+     * del texto de los argumentos.
+     *
+     * @param builder El buffer de destino.
+     * @param args Los argumentos a insertar. Puede ser nulo.
+     */
+    void formatTo(StringBuilder builder, Object[] args) {
+        formatTo(builder, args, args == null ? 0 : args.length);
+    }
+
+    /**
+     * Añade el mensaje formateado usando solo los primeros argumentos del arreglo, para
+     * arreglos reutilizables cuya longitud no coincide con el número de argumentos.
+     *
+     * @param builder El buffer de destino.
+     * @param args Los argumentos a insertar. Puede ser nulo si argCount es 0.
+     * @param argCount El número de argumentos válidos al inicio del arreglo.
+     */
+    void formatTo(StringBuilder builder, Object[] args, int argCount) {
+        int slots = literals.length - 1;
+        for (int i = 0; i < slots; i++) {
+            builder.append(literals[i]);
+            if (i < argCount) {
+                int argStart = builder.length();
+                appendArgument(builder, args[i]);
+                if (PII_SCAN) {
+                    PiiScanner.redact(builder, argStart);
+                }
+            } else {
+                builder.append(PLACEHOLDER);
+            }
+        }
+        builder.append(literals[slots]);
+    }
+
+    /**
+     * Añade un argumento al buffer. Los tipos primitivos envueltos y las secuencias de caracteres
+     * se escriben directamente, sin pasar por toString(), para no crear Strings intermedios.
+     * Los objetos con campos {@link Sensitive}, y las colecciones, mapas y arreglos que los
+     * contienen, se escriben con esos campos enmascarados.
+     *
+     * @param builder El buffer de destino.
+     * @param arg El argumento a añadir. Puede ser nulo.
+     */
+    static void appendArgument(StringBuilder builder, Object arg) {
+        if (arg instanceof String value) {
+            builder.append(value);
+        } else if (arg instanceof Integer value) {
+            builder.append(value.intValue());
+        } else if (arg instanceof Long value) {
+            builder.append(value.longValue());
+        } else if (arg instanceof Boolean value) {
+            builder.append(value.booleanValue());
+        } else if (arg instanceof Character value) {
+            builder.append(value.charValue());
+        } else if (arg instanceof Short value) {
+            builder.append(value.shortValue());
+        } else if (arg instanceof Byte value) {
+            builder.append(value.byteValue());
+        } else if (arg instanceof Double value) {
+            builder.append(value.doubleValue());
+        } else if (arg instanceof Float value) {
+            builder.append(value.floatValue());
+        } else if (arg instanceof CharSequence value) {
+            builder.append(value);
+        } else if (arg instanceof LazyArgument lazy) {
+            appendArgument(builder, lazy.get());
+        } else {
+            SensitiveRenderer.renderTo(arg, builder);
+        }
+    }
+
+    private static boolean isPlaceholderAt(String template, int index) {
+        return index + 1 < template.length()
+                && template.charAt(index) == DELIM_START
+                && template.charAt(index + 1) == DELIM_STOP;
+    }
+
+    private static StringBuilder appendChunk(StringBuilder literal, String template, int start, int end) {
+        StringBuilder target = literal != null ? literal : new StringBuilder(end - start + PLACEHOLDER.length());
+        return target.append(template, start, end);
+    }
+
+    private static String closeLiteral(StringBuilder literal, String template, int start, int end) {
+        if (literal == null) {
+            return template.substring(start, end);
+        }
+        return literal.append(template, start, end).toString();
+    }
+}
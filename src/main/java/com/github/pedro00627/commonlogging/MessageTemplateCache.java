@@ -0,0 +1,101 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada y sin bloqueos de plantillas de mensaje ya analizadas.
+ * Es una tabla de correspondencia directa: cada plantilla ocupa la posición que indica su hash,
+ * y una plantilla nueva desaloja a la que ocupaba esa posición. Así, los mensajes construidos
+ * dinámicamente nunca hacen crecer la caché por encima de su capacidad, mientras que las
+ * plantillas constantes que se registran con frecuencia permanecen en ella.
+ * Expone contadores de aciertos y fallos para poder dimensionarla.
+ */
+public final class MessageTemplateCache {
+    /**
+     * Capacidad por defecto de la caché compartida.
+     */
+    static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Longitud máxima de una plantilla para ser almacenada. Las plantillas más largas
+     * se analizan en cada uso, lo que acota la memoria total que puede retener la caché.
+     */
+    static final int MAX_TEMPLATE_LENGTH = 2048;
+
+    private static final int MAX_CAPACITY = 1 << 16;
+
+    private final AtomicReferenceArray<MessageTemplate> entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Crea una caché con la capacidad indicada, redondeada a la siguiente potencia de dos.
+     *
+     * @param capacity El número máximo de plantillas retenidas. Debe ser mayor que cero.
+     */
+    public MessageTemplateCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero: " + capacity);
+        }
+        int size = capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 1);
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Obtiene la plantilla analizada, analizándola y almacenándola si no estaba en la caché.
+     *
+     * @param template La plantilla con placeholders.
+     * @return La plantilla analizada.
+     */
+    MessageTemplate get(String template) {
+        int hash = template.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        MessageTemplate cached = entries.getAcquire(index);
+        if (cached != null && cached.template().equals(template)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        MessageTemplate parsed = MessageTemplate.parse(template);
+        if (template.length() <= MAX_TEMPLATE_LENGTH) {
+            entries.setRelease(index, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * @return El número de búsquedas resueltas desde la caché.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return El número de búsquedas que requirieron analizar la plantilla.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return El número máximo de plantillas que puede retener la caché.
+     */
+    public int capacity() {
+        return entries.length();
+    }
+
+    /**
+     * Vacía la caché y reinicia los contadores.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setRelease(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Enmascarador de números de teléfono.
+ * Se muestran solo los últimos 2 dígitos y se conservan el prefijo internacional y los separadores.
+ * Ejemplo: "+57 300 123 4567" -> "+** *** *** **67"
+ * <p>
+ * Como valor suelto se acepta un número de 7 a 15 dígitos con separadores habituales
+ * (espacios, guiones, puntos y paréntesis). En texto libre solo se detectan números con prefijo
+ * internacional ({@code +} seguido de 8 a 15 dígitos, agrupados con espacios o guiones simples);
+ * sin prefijo un teléfono no se distingue de un número de documento.
+ */
+final class PhoneMasker {
+    private static final int MIN_DIGITS = 7;
+    private static final int MIN_TEXT_DIGITS = 8;
+    private static final int MAX_DIGITS = 15;
+    private static final int VISIBLE_SUFFIX = 2;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private PhoneMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara un número de teléfono.
+     *
+     * @param phone El número de teléfono. Puede ser nulo.
+     * @return El teléfono enmascarado, o {@link DocumentMasker#HIDDEN_DOCUMENT} si no es un número válido.
+     */
+    static String mask(String phone) {
+        if (phone == null || !isPhone(phone)) {
+            return DocumentMasker.HIDDEN_DOCUMENT;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            appendMasked(buffer, phone, 0, phone.length());
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el número de teléfono enmascarado.
+     *
+     * @param phone El número de teléfono. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    static void maskTo(CharSequence phone, StringBuilder target) {
+        if (phone == null || !isPhone(phone)) {
+            target.append(DocumentMasker.HIDDEN_DOCUMENT);
+        } else {
+            appendMasked(target, phone, 0, phone.length());
+        }
+    }
+
+    /**
+     * Enmascara el número internacional que empieza en la posición indicada, uniendo grupos de
+     * dígitos separados por un espacio o un guion.
+     *
+     * @param text El texto inspeccionado.
+     * @param start La posición del signo +.
+     * @param limit El final del texto.
+     * @param target El buffer de destino; solo se escribe si hay un teléfono.
+     * @return El final del teléfono enmascarado, o -1 si no hay ninguno.
+     */
+    static int maskInText(CharSequence text, int start, int limit, StringBuilder target) {
+        if (text.charAt(start) != '+') {
+            return -1;
+        }
+        int best = -1;
+        int digits = 0;
+        int i = start + 1;
+        while (true) {
+            int groupStart = i;
+            while (i < limit && isDigit(text.charAt(i))) {
+                i++;
+            }
+            digits += i - groupStart;
+            if (i == groupStart || digits > MAX_DIGITS) {
+                break;
+            }
+            if (digits >= MIN_TEXT_DIGITS && (i == limit || !Character.isLetterOrDigit(text.charAt(i)))) {
+                best = i;
+            }
+            if (i + 1 < limit && (text.charAt(i) == ' ' || text.charAt(i) == '-') && isDigit(text.charAt(i + 1))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (best < 0) {
+            return -1;
+        }
+        appendMasked(target, text, start, best);
+        return best;
+    }
+
+    private static boolean isPhone(CharSequence phone) {
+        int digits = 0;
+        for (int i = 0, length = phone.length(); i < length; i++) {
+            char c = phone.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+            } else if (!(c == '+' && i == 0) && c != ' ' && c != '-' && c != '.' && c != '(' && c != ')') {
+                return false;
+            }
+        }
+        return digits >= MIN_DIGITS && digits <= MAX_DIGITS;
+    }
+
+    private static void appendMasked(StringBuilder target, CharSequence text, int start, int end) {
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            if (isDigit(text.charAt(i))) {
+                digits++;
+            }
+        }
+        int hidden = digits - VISIBLE_SUFFIX;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c) && hidden-- > 0) {
+                target.append('*');
+            } else {
+                target.append(c);
+            }
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.rewrite.RewritePolicy;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * Política de reescritura de Log4j2 que enmascara con {@link PiiScanner} los correos y números
+ * de documento del mensaje de cada evento, incluidos los eventos de librerías de terceros que no
+ * pasan por {@link LogHelper}.
+ * Se declara dentro de un appender Rewrite:
+ * <pre>
+ * Rewrite:
+ *   name: MaskedConsole
+ *   AppenderRef:
+ *     ref: Console
+ *   PiiRewritePolicy: {}
+ * </pre>
+ * Los mensajes que implementan {@link StringBuilderFormattable} (los parametrizados y los
+ * reutilizables) se formatean en un buffer reutilizable, y solo se crea un String si contienen
+ * datos personales: los eventos sin ellos se entregan sin cambios y sin crear objetos nuevos.
+ */
+@Plugin(name = "PiiRewritePolicy", category = Core.CATEGORY_NAME, elementType = "rewritePolicy", printObject = true)
+public final class PiiRewritePolicy implements RewritePolicy {
+    private static final PiiRewritePolicy INSTANCE = new PiiRewritePolicy();
+
+    private PiiRewritePolicy() {
+    }
+
+    /**
+     * Fábrica que Log4j2 usa al leer la configuración.
+     *
+     * @return La política compartida; no tiene estado.
+     */
+    @PluginFactory
+    public static PiiRewritePolicy createPolicy() {
+        return INSTANCE;
+    }
+
+    @Override
+    public LogEvent rewrite(LogEvent source) {
+        Message message = source.getMessage();
+        if (!(message instanceof StringBuilderFormattable formattable)) {
+            String formatted = message.getFormattedMessage();
+            String redacted = PiiScanner.redact(formatted);
+            return redacted == formatted ? source : withMessage(source, redacted);
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            formattable.formatTo(buffer);
+            if (!PiiScanner.redact(buffer, 0)) {
+                return source;
+            }
+            return withMessage(source, buffer.toString());
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    private static LogEvent withMessage(LogEvent source, String redacted) {
+        return new Log4jLogEvent.Builder(source)
+                .setMessage(new SimpleMessage(redacted))
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "PiiRewritePolicy";
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Detecta y enmascara datos personales dentro de texto libre con el motor por defecto
+ * ({@link MaskingEngine#defaultEngine()}). Sin configuración, aplica las mismas reglas que
+ * {@link LogHelper#maskEmail(String)} y {@link LogHelper#maskDocument(String)}:
+ * <ul>
+ *   <li>Correos: secuencias de caracteres de correo que contienen una arroba y superan la misma
+ *       validación que maskEmail. Los puntos finales (fin de frase) no forman parte del correo.</li>
+ *   <li>Documentos: secuencias de entre {@link #MIN_DOCUMENT_DIGITS} y {@link #MAX_DOCUMENT_DIGITS}
+ *       dígitos que no están pegadas a letras, de modo que identificadores como hashes
+ *       hexadecimales no se alteran.</li>
+ * </ul>
+ * Otros tipos (tarjetas, teléfonos, IBAN, tokens y claves de API) se activan con
+ * {@link MaskingEngine#RULES_PROPERTY}. Si el texto no contiene candidatos, se devuelve sin
+ * cambios y sin reservar memoria; solo los textos con candidatos se reescriben, en una pasada
+ * lineal desde el primer candidato.
+ */
+public final class PiiScanner {
+    /**
+     * Número mínimo de dígitos consecutivos para tratar una secuencia como documento.
+     */
+    public static final int MIN_DOCUMENT_DIGITS = DocumentMasker.MIN_LENGTH;
+
+    /**
+     * Número máximo de dígitos consecutivos para tratar una secuencia como documento; las más
+     * largas no son números de documento y se conservan.
+     */
+    public static final int MAX_DOCUMENT_DIGITS = DocumentMasker.MAX_TEXT_DIGITS;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private PiiScanner() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Indica si el texto contiene algún candidato a dato personal. Un resultado false garantiza
+     * que {@link #redact(String)} devolverá el texto sin cambios.
+     *
+     * @param text El texto a inspeccionar. Puede ser nulo.
+     * @return true si el texto puede contener datos personales.
+     */
+    public static boolean mayContainPii(CharSequence text) {
+        return MaskingEngine.defaultEngine().mayContainPii(text);
+    }
+
+    /**
+     * Enmascara los datos personales que aparezcan en el texto.
+     *
+     * @param text El texto a enmascarar. Puede ser nulo.
+     * @return El texto enmascarado, o la misma instancia si no contiene datos personales.
+     */
+    public static String redact(String text) {
+        return MaskingEngine.defaultEngine().redact(text);
+    }
+
+    /**
+     * Enmascara en el sitio los datos personales del buffer a partir de la posición indicada.
+     * El texto anterior a esa posición no se inspecciona y se trata como un separador.
+     *
+     * @param text El buffer a enmascarar.
+     * @param from La posición desde la que se inspecciona el buffer.
+     * @return true si se enmascaró algún fragmento.
+     */
+    public static boolean redact(StringBuilder text, int from) {
+        return MaskingEngine.defaultEngine().redact(text, from);
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Regla para secretos con un prefijo conocido, creada con {@link MaskingRule#secretPrefix(String, String)}.
+ * Los rasgos requeridos y el primer carácter se derivan del prefijo, así que el motor solo
+ * evalúa la regla sobre palabras que pueden empezar por él.
+ */
+final class PrefixRule implements MaskingRule {
+    /**
+     * Número mínimo de caracteres tras el prefijo.
+     */
+    static final int MIN_BODY = 8;
+
+    private final String name;
+    private final String[] prefixes;
+    private final int requiredFeatures;
+
+    PrefixRule(String name, String prefix) {
+        if (name == null || prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("name and prefix are required");
+        }
+        this.name = name;
+        this.prefixes = new String[] {prefix};
+        int features = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c >= '0' && c <= '9') {
+                features |= DIGIT;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                features |= LETTER;
+            } else if (c == '.') {
+                features |= DOT;
+            } else if (c == '@') {
+                features |= AT;
+            }
+        }
+        this.requiredFeatures = features;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int requiredFeatures() {
+        return requiredFeatures;
+    }
+
+    @Override
+    public boolean canStartWith(char first) {
+        return prefixes[0].charAt(0) == first;
+    }
+
+    @Override
+    public int maskInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+        return SecretMasker.maskKeyInText(text, start, end, prefixes, MIN_BODY, target);
+    }
+
+    @Override
+    public String mask(String value) {
+        if (value != null && value.length() > prefixes[0].length() && value.startsWith(prefixes[0])) {
+            return prefixes[0] + "***";
+        }
+        return SecretMasker.maskApiKey(value);
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixRule[" + name + "=" + prefixes[0] + "]";
+    }
+}
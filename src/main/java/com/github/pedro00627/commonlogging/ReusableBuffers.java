@@ -0,0 +1,116 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffers de formateo reutilizables para el modo sin basura (garbage-free).
+ * En hilos de plataforma cada hilo reutiliza su propio buffer mediante un ThreadLocal.
+ * En hilos virtuales, que son numerosos y de vida corta, un ThreadLocal retendría un buffer
+ * por hilo, así que se toman de un pool acotado y sin bloqueos.
+ * Toda llamada a {@link #acquire()} debe ir seguida de {@link #release(StringBuilder)}.
+ */
+final class ReusableBuffers {
+    /**
+     * Capacidad inicial de cada buffer.
+     */
+    static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * Capacidad máxima que conserva un buffer al liberarse. Los buffers que crecieron por
+     * encima de este límite al formatear un mensaje excepcional se descartan.
+     */
+    static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final int POOL_SIZE = Math.min(64, Integer.highestOneBit(
+            Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+
+    private static final ThreadLocal<Slot> THREAD_BUFFER = ThreadLocal.withInitial(Slot::new);
+    private static final AtomicReferenceArray<StringBuilder> POOL = new AtomicReferenceArray<>(POOL_SIZE);
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private ReusableBuffers() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Obtiene un buffer vacío para el hilo actual.
+     * Si el buffer del hilo ya está en uso (por ejemplo, un toString() que a su vez registra
+     * un mensaje), se devuelve un buffer nuevo para no corromper el mensaje en curso.
+     *
+     * @return Un buffer vacío.
+     */
+    static StringBuilder acquire() {
+        Thread current = Thread.currentThread();
+        if (current.isVirtual()) {
+            return acquirePooled(current);
+        }
+        Slot slot = THREAD_BUFFER.get();
+        if (slot.inUse) {
+            return new StringBuilder(INITIAL_CAPACITY);
+        }
+        slot.inUse = true;
+        return slot.buffer;
+    }
+
+    /**
+     * Devuelve un buffer obtenido con {@link #acquire()} para que pueda reutilizarse.
+     *
+     * @param buffer El buffer a liberar.
+     */
+    static void release(StringBuilder buffer) {
+        Thread current = Thread.currentThread();
+        if (current.isVirtual()) {
+            releasePooled(current, buffer);
+            return;
+        }
+        Slot slot = THREAD_BUFFER.get();
+        if (slot.buffer != buffer) {
+            return;
+        }
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            slot.buffer = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            buffer.setLength(0);
+        }
+        slot.inUse = false;
+    }
+
+    private static StringBuilder acquirePooled(Thread current) {
+        int start = probe(current);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            StringBuilder pooled = POOL.getAndSet((start + i) & (POOL_SIZE - 1), null);
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        return new StringBuilder(INITIAL_CAPACITY);
+    }
+
+    private static void releasePooled(Thread current, StringBuilder buffer) {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            return;
+        }
+        buffer.setLength(0);
+        int start = probe(current);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (POOL.compareAndSet((start + i) & (POOL_SIZE - 1), null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private static int probe(Thread thread) {
+        long id = thread.threadId();
+        return (int) (id ^ (id >>> 32)) & (POOL_SIZE - 1);
+    }
+
+    /**
+     * Buffer asociado a un hilo de plataforma.
+     */
+    private static final class Slot {
+        private StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+        private boolean inUse;
+    }
+}
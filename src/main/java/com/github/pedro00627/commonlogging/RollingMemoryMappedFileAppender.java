@@ -0,0 +1,107 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.Serializable;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+/**
+ * Appender de Log4j2 con rotación que escribe sobre un archivo proyectado en memoria
+ * ({@link RollingMemoryMappedFileManager}). Acepta los mismos Policies y DefaultRolloverStrategy
+ * que RollingFile:
+ * <pre>
+ * RollingMemoryMappedFile:
+ *   name: RollingFile
+ *   fileName: "${LOG_PATH}/${SERVICE_NAME}.log"
+ *   filePattern: "${LOG_PATH}/${SERVICE_NAME}-%d{yyyy-MM-dd}-%i.log.gz"
+ *   regionLength: "33554432"
+ *   JsonTemplateLayout: {}
+ *   Policies:
+ *     SizeBasedTriggeringPolicy:
+ *       size: "50MB"
+ * </pre>
+ * Sin immediateFlush los eventos quedan en la caché de páginas del sistema operativo, que los
+ * escribe a disco por su cuenta; una caída de la máquina, no del proceso, puede perderlos.
+ */
+@Plugin(name = "RollingMemoryMappedFile", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE,
+        printObject = true)
+public final class RollingMemoryMappedFileAppender extends AbstractOutputStreamAppender<RollingMemoryMappedFileManager> {
+
+    private RollingMemoryMappedFileAppender(String name, Layout<? extends Serializable> layout, Filter filter,
+            boolean ignoreExceptions, boolean immediateFlush, RollingMemoryMappedFileManager manager) {
+        super(name, layout, filter, ignoreExceptions, immediateFlush, Property.EMPTY_ARRAY, manager);
+    }
+
+    /**
+     * Fábrica que Log4j2 usa al leer la configuración.
+     *
+     * @param name El nombre del appender.
+     * @param fileName El archivo activo.
+     * @param filePattern El patrón de los archivos rotados; la extensión .gz los comprime.
+     * @param append Si se continúa un archivo existente. Por defecto true.
+     * @param immediateFlush Si cada evento fuerza la escritura a disco. Por defecto false.
+     * @param regionLength El tamaño de cada bloque proyectado, en bytes. Por defecto 32 MB.
+     * @param ignoreExceptions Si los errores de escritura se ignoran. Por defecto true.
+     * @param policy La política de rotación.
+     * @param strategy La estrategia de rotación. Por defecto DefaultRolloverStrategy.
+     * @param layout El layout. Por defecto PatternLayout.
+     * @param filter El filtro, opcional.
+     * @param configuration La configuración de Log4j2.
+     * @return El appender.
+     */
+    @PluginFactory
+    public static RollingMemoryMappedFileAppender createAppender(
+            @PluginAttribute("name") String name,
+            @PluginAttribute("fileName") String fileName,
+            @PluginAttribute("filePattern") String filePattern,
+            @PluginAttribute(value = "append", defaultBoolean = true) boolean append,
+            @PluginAttribute(value = "immediateFlush", defaultBoolean = false) boolean immediateFlush,
+            @PluginAttribute(value = "regionLength", defaultInt = RollingMemoryMappedFileManager.DEFAULT_REGION_LENGTH)
+            int regionLength,
+            @PluginAttribute(value = "ignoreExceptions", defaultBoolean = true) boolean ignoreExceptions,
+            @PluginElement("Policy") TriggeringPolicy policy,
+            @PluginElement("Strategy") RolloverStrategy strategy,
+            @PluginElement("Layout") Layout<? extends Serializable> layout,
+            @PluginElement("Filter") Filter filter,
+            @PluginConfiguration Configuration configuration) {
+        if (name == null || fileName == null || filePattern == null) {
+            throw new IllegalArgumentException("RollingMemoryMappedFile requires name, fileName and filePattern");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("RollingMemoryMappedFile requires a triggering policy");
+        }
+        if (regionLength <= 0) {
+            throw new IllegalArgumentException("regionLength must be positive: " + regionLength);
+        }
+        Layout<? extends Serializable> eventLayout = layout != null ? layout : PatternLayout.createDefaultLayout(configuration);
+        RolloverStrategy rolloverStrategy = strategy != null
+                ? strategy
+                : DefaultRolloverStrategy.newBuilder().setConfig(configuration).build();
+        RollingMemoryMappedFileManager manager = RollingMemoryMappedFileManager.getMemoryMappedManager(fileName,
+                filePattern, append, immediateFlush, regionLength, policy, rolloverStrategy, eventLayout, configuration);
+        if (manager == null) {
+            return null;
+        }
+        return new RollingMemoryMappedFileAppender(name, eventLayout, filter, ignoreExceptions, immediateFlush, manager);
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        getManager().checkRollover(event);
+        super.append(event);
+    }
+}
@@ -0,0 +1,315 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.rolling.PatternProcessor;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.NullOutputStream;
+
+/**
+ * Gestor de archivo con rotación que escribe sobre una región del archivo proyectada en memoria.
+ * La región crece por bloques de tamaño fijo: al llenarse se proyecta el bloque siguiente, y al
+ * cerrar el archivo (al rotar o al detener el appender) se recorta a los bytes escritos. Si el
+ * proceso terminó sin cerrarlo, al reabrirlo para añadir se descartan los bytes a cero del final,
+ * que son la parte de la última región que nunca se escribió.
+ * Los layouts codifican directamente sobre la región, sin buffer intermedio ni llamadas al
+ * sistema por evento. Las políticas de rotación por tamaño y por tiempo y la compresión de los
+ * archivos rotados son las de {@link RollingFileManager}.
+ * Lo crea {@link RollingMemoryMappedFileAppender}.
+ */
+public final class RollingMemoryMappedFileManager extends RollingFileManager {
+    /**
+     * Tamaño por defecto de cada bloque proyectado: 32 MB.
+     */
+    public static final int DEFAULT_REGION_LENGTH = 32 * 1024 * 1024;
+
+    private static final Factory FACTORY = new Factory();
+
+    private static final int SCAN_BLOCK_LENGTH = 8 * 1024;
+
+    /**
+     * Libera una proyección sin esperar al recolector de basura. Es null si la JVM no lo permite;
+     * en ese caso la proyección se libera cuando el buffer deja de usarse.
+     */
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final boolean immediateFlush;
+    private final int regionLength;
+    private RandomAccessFile randomAccessFile;
+    private MappedByteBuffer mappedBuffer;
+    private long mappingOffset;
+
+    private RollingMemoryMappedFileManager(LoggerContext loggerContext, String fileName, String pattern,
+            boolean append, boolean immediateFlush, int regionLength, long initialTime, TriggeringPolicy policy,
+            RolloverStrategy strategy, Layout<? extends Serializable> layout) throws IOException {
+        super(loggerContext, fileName, pattern, NullOutputStream.getInstance(), append, false, 0, initialTime,
+                policy, strategy, null, layout, null, null, null, false, ByteBuffer.wrap(new byte[0]));
+        this.immediateFlush = immediateFlush;
+        this.regionLength = regionLength;
+        open(append);
+    }
+
+    /**
+     * Obtiene el gestor del archivo indicado, creándolo si no existe. Los appenders que escriben
+     * en el mismo archivo comparten el gestor.
+     *
+     * @param fileName El archivo activo.
+     * @param filePattern El patrón de los archivos rotados; la extensión .gz los comprime.
+     * @param append Si se añade al final de un archivo existente en lugar de vaciarlo.
+     * @param immediateFlush Si cada vaciado fuerza la escritura de la región a disco.
+     * @param regionLength El tamaño de cada bloque proyectado, en bytes.
+     * @param policy La política que decide cuándo rotar.
+     * @param strategy La estrategia que renombra y comprime los archivos rotados.
+     * @param layout El layout de los eventos.
+     * @param configuration La configuración de Log4j2.
+     * @return El gestor, o null si no se pudo abrir el archivo.
+     */
+    public static RollingMemoryMappedFileManager getMemoryMappedManager(String fileName, String filePattern,
+            boolean append, boolean immediateFlush, int regionLength, TriggeringPolicy policy,
+            RolloverStrategy strategy, Layout<? extends Serializable> layout, Configuration configuration) {
+        RollingMemoryMappedFileManager manager = narrow(RollingMemoryMappedFileManager.class,
+                getManager(fileName, FACTORY, new FactoryData(filePattern, append, immediateFlush, regionLength,
+                        policy, strategy, layout, configuration)));
+        if (manager != null) {
+            manager.initialize();
+        }
+        return manager;
+    }
+
+    /**
+     * @return El tamaño de cada bloque proyectado, en bytes.
+     */
+    public int getRegionLength() {
+        return regionLength;
+    }
+
+    /**
+     * @return Los bytes escritos en el archivo activo; los bloques proyectados sin usar no cuentan.
+     */
+    @Override
+    public long getFileSize() {
+        return mappingOffset + (mappedBuffer == null ? 0 : mappedBuffer.position());
+    }
+
+    @Override
+    public void updateData(Object data) {
+        FactoryData factoryData = (FactoryData) data;
+        setRolloverStrategy(factoryData.strategy);
+        setPatternProcessor(new PatternProcessor(factoryData.pattern, getPatternProcessor()));
+        setTriggeringPolicy(factoryData.policy);
+    }
+
+    @Override
+    protected synchronized void write(byte[] bytes, int offset, int length, boolean immediateFlush) {
+        ensureOpen();
+        while (length > mappedBuffer.remaining()) {
+            int chunk = mappedBuffer.remaining();
+            mappedBuffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+            remap();
+        }
+        mappedBuffer.put(bytes, offset, length);
+    }
+
+    /**
+     * @return La región proyectada, sobre la que los layouts codifican directamente.
+     */
+    @Override
+    public ByteBuffer getByteBuffer() {
+        ensureOpen();
+        return mappedBuffer;
+    }
+
+    /**
+     * Proyecta el bloque siguiente cuando la región está llena.
+     *
+     * @param buf La región llena.
+     * @return La nueva región.
+     */
+    @Override
+    public ByteBuffer drain(ByteBuffer buf) {
+        ensureOpen();
+        remap();
+        return mappedBuffer;
+    }
+
+    /**
+     * Con immediateFlush fuerza la escritura de la región a disco. Sin él no hace nada: los bytes
+     * ya están en la caché de páginas del sistema operativo y otros procesos pueden leerlos.
+     */
+    @Override
+    public synchronized void flush() {
+        if (immediateFlush && mappedBuffer != null) {
+            mappedBuffer.force();
+        }
+    }
+
+    @Override
+    public synchronized boolean closeOutputStream() {
+        if (randomAccessFile == null) {
+            return true;
+        }
+        long length = getFileSize();
+        try {
+            unmap(mappedBuffer);
+            randomAccessFile.setLength(length);
+            randomAccessFile.close();
+            return true;
+        } catch (IOException e) {
+            logError("Unable to close memory-mapped file", e);
+            return false;
+        } finally {
+            randomAccessFile = null;
+            mappedBuffer = null;
+            mappingOffset = length;
+        }
+    }
+
+    @Override
+    protected void createFileAfterRollover() throws IOException {
+        open(true);
+    }
+
+    private void open(boolean append) throws IOException {
+        randomAccessFile = new RandomAccessFile(getFileName(), "rw");
+        if (!append) {
+            randomAccessFile.setLength(0);
+        } else {
+            long written = writtenLength(randomAccessFile.getChannel());
+            if (written < randomAccessFile.length()) {
+                randomAccessFile.setLength(written);
+            }
+        }
+        mappingOffset = randomAccessFile.length();
+        mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, mappingOffset, regionLength);
+        byte[] header = layout == null || mappingOffset > 0 ? null : layout.getHeader();
+        if (header != null) {
+            write(header, 0, header.length, false);
+        }
+    }
+
+    /**
+     * Busca el último byte distinto de cero recorriendo el archivo desde el final por bloques.
+     * Los layouts de texto nunca escriben bytes a cero, así que los que quedan al final son los
+     * de una región proyectada que no se llegó a recortar.
+     *
+     * @param channel El canal del archivo.
+     * @return La longitud del archivo sin los bytes a cero del final.
+     */
+    private static long writtenLength(FileChannel channel) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_LENGTH);
+        long end = channel.size();
+        while (end > 0) {
+            int length = (int) Math.min(SCAN_BLOCK_LENGTH, end);
+            long position = end - length;
+            block.clear().limit(length);
+            while (block.hasRemaining() && channel.read(block, position + block.position()) >= 0) {
+                // Lee el bloque completo
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (block.get(i) != 0) {
+                    return position + i + 1;
+                }
+            }
+            end = position;
+        }
+        return 0;
+    }
+
+    private void ensureOpen() {
+        if (mappedBuffer == null) {
+            try {
+                open(true);
+            } catch (IOException e) {
+                throw new AppenderLoggingException("Unable to open memory-mapped file " + getFileName(), e);
+            }
+        }
+    }
+
+    private void remap() {
+        long offset = mappingOffset + mappedBuffer.position();
+        MappedByteBuffer previous = mappedBuffer;
+        try {
+            mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, offset, regionLength);
+            mappingOffset = offset;
+        } catch (IOException e) {
+            throw new AppenderLoggingException("Unable to remap memory-mapped file " + getFileName(), e);
+        }
+        unmap(previous);
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            LOGGER.error("Unable to unmap memory-mapped region", e);
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeType = Class.forName("sun.misc.Unsafe");
+            Field instance = unsafeType.getDeclaredField("theUnsafe");
+            instance.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeType, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(instance.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private record FactoryData(String pattern, boolean append, boolean immediateFlush, int regionLength,
+            TriggeringPolicy policy, RolloverStrategy strategy, Layout<? extends Serializable> layout,
+            Configuration configuration) {
+    }
+
+    private static final class Factory implements ManagerFactory<RollingMemoryMappedFileManager, FactoryData> {
+        @Override
+        public RollingMemoryMappedFileManager createManager(String name, FactoryData data) {
+            try {
+                Path file = Path.of(name).toAbsolutePath();
+                Files.createDirectories(file.getParent());
+                return new RollingMemoryMappedFileManager(data.configuration.getLoggerContext(), name, data.pattern,
+                        data.append, data.immediateFlush, data.regionLength, initialTime(file, data.append),
+                        data.policy, data.strategy, data.layout);
+            } catch (IOException e) {
+                LOGGER.error("Unable to create memory-mapped file {}", name, e);
+                return null;
+            }
+        }
+
+        /**
+         * Instante desde el que cuenta la rotación por tiempo: la creación del archivo si se
+         * continúa uno existente, o el momento actual si se empieza uno vacío.
+         */
+        private static long initialTime(Path file, boolean append) throws IOException {
+            if (append && Files.exists(file) && Files.size(file) > 0) {
+                return Files.readAttributes(file, BasicFileAttributes.class).creationTime().toMillis();
+            }
+            return System.currentTimeMillis();
+        }
+    }
+}
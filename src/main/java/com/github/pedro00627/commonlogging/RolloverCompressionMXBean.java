@@ -0,0 +1,43 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Métricas de la compresión en segundo plano de {@link ThrottledRolloverStrategy}.
+ * Se publican por JMX con el nombre {@value ThrottledRolloverStrategy#METRICS_OBJECT_NAME} y
+ * también pueden leerse con {@link ThrottledRolloverStrategy#metrics()}.
+ */
+public interface RolloverCompressionMXBean {
+    /**
+     * @return Los archivos rotados que esperan su compresión, sin contar el que se está comprimiendo.
+     */
+    int getQueueLength();
+
+    /**
+     * @return Los archivos comprimidos desde el arranque.
+     */
+    long getCompletedCount();
+
+    /**
+     * @return Las compresiones que fallaron; el archivo rotado se conserva sin comprimir.
+     */
+    long getFailedCount();
+
+    /**
+     * @return El tiempo total dedicado a comprimir, en milisegundos, incluidas las pausas del límite de bytes por segundo.
+     */
+    long getTotalCompressionMillis();
+
+    /**
+     * @return La duración de la última compresión, en milisegundos.
+     */
+    long getLastCompressionMillis();
+
+    /**
+     * @return Los bytes leídos de los archivos rotados.
+     */
+    long getUncompressedBytes();
+
+    /**
+     * @return Los bytes escritos en los archivos comprimidos.
+     */
+    long getCompressedBytes();
+}
@@ -0,0 +1,261 @@
+package com.github.pedro00627.commonlogging;
+
+/**
+ * Enmascarador de credenciales: tokens Bearer, JWT y claves de API.
+ * Un secreto no debe dejar rastro útil, así que se conserva como mucho un prefijo que identifica
+ * su tipo seguido de "***".
+ * <ul>
+ *   <li>Tokens: "Bearer abcdef0123456789" -> "Bearer abcd***", "eyJhbGciOi..." -> "eyJh***".</li>
+ *   <li>Claves de API con prefijo conocido: "sk_live_51H8xYz..." -> "sk_live_***".</li>
+ *   <li>Valores de menos de {@link #MIN_REVEAL_LENGTH} caracteres: "***".</li>
+ * </ul>
+ */
+final class SecretMasker {
+    /**
+     * Longitud mínima de un secreto para mostrar sus primeros caracteres.
+     */
+    static final int MIN_REVEAL_LENGTH = 12;
+
+    /**
+     * Número mínimo de caracteres tras el prefijo de una clave de API.
+     */
+    static final int MIN_KEY_BODY = 12;
+
+    private static final String BEARER = "Bearer";
+    private static final String JWT_PREFIX = "eyJ";
+    private static final int VISIBLE_PREFIX = 4;
+    private static final int MIN_BEARER_CREDENTIAL = 16;
+    private static final String MASK = "***";
+
+    /**
+     * Prefijos de claves de API de proveedores conocidos.
+     */
+    static final String[] API_KEY_PREFIXES = {
+        "sk_live_", "sk_test_", "pk_live_", "pk_test_", "rk_live_", "rk_test_", "AKIA", "ASIA",
+        "ghp_", "gho_", "ghu_", "ghs_", "ghr_", "github_pat_", "xoxb-", "xoxp-", "xoxa-", "xoxs-", "AIza"
+    };
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private SecretMasker() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Enmascara un token, conservando el esquema Bearer si lo tiene.
+     *
+     * @param token El token. Puede ser nulo.
+     * @return El token enmascarado.
+     */
+    static String maskToken(String token) {
+        if (token == null) {
+            return MASK;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            maskTokenTo(token, buffer);
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el token enmascarado.
+     *
+     * @param token El token. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    static void maskTokenTo(CharSequence token, StringBuilder target) {
+        if (token == null) {
+            target.append(MASK);
+            return;
+        }
+        int length = token.length();
+        int credential = 0;
+        if (length > BEARER.length() && regionMatches(token, 0, BEARER, true) && token.charAt(BEARER.length()) == ' ') {
+            credential = BEARER.length();
+            while (credential < length && token.charAt(credential) == ' ') {
+                credential++;
+            }
+            target.append(token, 0, credential);
+        }
+        appendSecret(target, token, credential, length);
+    }
+
+    /**
+     * Enmascara una clave de API, conservando el prefijo del proveedor si es conocido.
+     *
+     * @param key La clave. Puede ser nula.
+     * @return La clave enmascarada.
+     */
+    static String maskApiKey(String key) {
+        if (key == null) {
+            return MASK;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            maskApiKeyTo(key, buffer);
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer la clave de API enmascarada.
+     *
+     * @param key La clave. Puede ser nula.
+     * @param target El buffer de destino.
+     */
+    static void maskApiKeyTo(CharSequence key, StringBuilder target) {
+        if (key == null) {
+            target.append(MASK);
+            return;
+        }
+        for (String prefix : API_KEY_PREFIXES) {
+            if (key.length() > prefix.length() && regionMatches(key, 0, prefix, false)) {
+                target.append(prefix).append(MASK);
+                return;
+            }
+        }
+        appendSecret(target, key, 0, key.length());
+    }
+
+    /**
+     * Enmascara en texto libre un token Bearer (la palabra "Bearer" seguida de la credencial)
+     * o un JWT (tres segmentos base64url separados por puntos que empiezan por "eyJ").
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param end El final de la palabra, excluido.
+     * @param limit El final del texto.
+     * @param target El buffer de destino; solo se escribe si hay un token.
+     * @return El final del token enmascarado, o -1 si no hay ninguno.
+     */
+    static int maskTokenInText(CharSequence text, int start, int end, int limit, StringBuilder target) {
+        if (end - start == BEARER.length() && regionMatches(text, start, BEARER, true)) {
+            int credentialStart = end;
+            while (credentialStart < limit && text.charAt(credentialStart) == ' ') {
+                credentialStart++;
+            }
+            int credentialEnd = credentialStart;
+            while (credentialEnd < limit && isCredentialChar(text.charAt(credentialEnd))) {
+                credentialEnd++;
+            }
+            credentialEnd = trimTrailingDots(text, credentialStart, credentialEnd);
+            if (credentialStart == end || credentialEnd - credentialStart < MIN_BEARER_CREDENTIAL) {
+                return -1;
+            }
+            target.append(text, start, credentialStart);
+            appendSecret(target, text, credentialStart, credentialEnd);
+            return credentialEnd;
+        }
+        int jwtEnd = trimTrailingDots(text, start, end);
+        if (!isJwt(text, start, jwtEnd)) {
+            return -1;
+        }
+        appendSecret(target, text, start, jwtEnd);
+        return jwtEnd;
+    }
+
+    /**
+     * Enmascara en texto libre una clave de API que empieza por alguno de los prefijos indicados.
+     *
+     * @param text El texto inspeccionado.
+     * @param start El inicio de la palabra.
+     * @param end El final de la palabra, excluido.
+     * @param prefixes Los prefijos aceptados.
+     * @param minBody El número mínimo de caracteres tras el prefijo.
+     * @param target El buffer de destino; solo se escribe si hay una clave.
+     * @return El final de la clave enmascarada, o -1 si no hay ninguna.
+     */
+    static int maskKeyInText(CharSequence text, int start, int end, String[] prefixes, int minBody,
+            StringBuilder target) {
+        int keyEnd = trimTrailingDots(text, start, end);
+        for (String prefix : prefixes) {
+            int bodyStart = start + prefix.length();
+            if (keyEnd - bodyStart >= minBody && regionMatches(text, start, prefix, false)
+                    && isKeyBody(text, bodyStart, keyEnd)) {
+                target.append(prefix).append(MASK);
+                return keyEnd;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isJwt(CharSequence text, int start, int end) {
+        if (end - start < MIN_REVEAL_LENGTH || !regionMatches(text, start, JWT_PREFIX, false)) {
+            return false;
+        }
+        int dots = 0;
+        int segmentStart = start;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (i == segmentStart || ++dots > 2) {
+                    return false;
+                }
+                segmentStart = i + 1;
+            } else if (!isBase64Url(c)) {
+                return false;
+            }
+        }
+        return dots == 2 && regionMatches(text, indexAfterFirstDot(text, start), JWT_PREFIX, false);
+    }
+
+    private static int indexAfterFirstDot(CharSequence text, int start) {
+        int i = start;
+        while (text.charAt(i) != '.') {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static boolean isKeyBody(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isBase64Url(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendSecret(StringBuilder target, CharSequence text, int start, int end) {
+        if (end - start >= MIN_REVEAL_LENGTH) {
+            target.append(text, start, start + VISIBLE_PREFIX);
+        }
+        target.append(MASK);
+    }
+
+    private static int trimTrailingDots(CharSequence text, int start, int end) {
+        int trimmed = end;
+        while (trimmed > start && text.charAt(trimmed - 1) == '.') {
+            trimmed--;
+        }
+        return trimmed;
+    }
+
+    private static boolean regionMatches(CharSequence text, int start, String prefix, boolean ignoreCase) {
+        if (start + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = text.charAt(start + i);
+            char expected = prefix.charAt(i);
+            if (c != expected && !(ignoreCase && Character.toLowerCase(c) == Character.toLowerCase(expected))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCredentialChar(char c) {
+        return isBase64Url(c) || c == '.' || c == '~' || c == '+' || c == '/' || c == '=';
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
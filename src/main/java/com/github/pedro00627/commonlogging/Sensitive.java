@@ -0,0 +1,27 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un campo o componente de record que contiene un dato sensible.
+ * Cuando un objeto con campos anotados se pasa como argumento de log, se escribe con
+ * {@link SensitiveRenderer} en lugar de con su toString(), enmascarando esos campos.
+ * <pre>{@code
+ * record Customer(String name, @Sensitive(type = MaskType.EMAIL) String email) { }
+ * LogHelper.info("Alta de {}", customer); // Alta de Customer[name=Ana, email=a***a@mail.com]
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface Sensitive {
+
+    /**
+     * @return El tipo de dato, que determina cómo se enmascara el valor.
+     */
+    MaskType type();
+}
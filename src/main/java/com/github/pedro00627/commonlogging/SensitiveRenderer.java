@@ -0,0 +1,461 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escribe objetos con campos {@link Sensitive} enmascarando esos campos.
+ * Cada clase se inspecciona una sola vez: sus campos se convierten en accesores MethodHandle
+ * que se guardan en un ClassValue, de modo que escribir un objeto no usa reflexión y los
+ * valores van directamente al buffer de destino. ClassValue publica un único resultado por
+ * clase aunque varios hilos la usen por primera vez a la vez.
+ * <p>
+ * El formato es el de los records: {@code Customer[name=Ana, email=a***a@mail.com]}. Las
+ * clases cuyos campos, directamente o a través del tipo declarado de otros campos, no llevan
+ * anotaciones se escriben con su toString(). Las colecciones, mapas y arreglos que contienen
+ * objetos sensibles entre sus primeros {@value #SCAN_LIMIT} elementos se escriben elemento a
+ * elemento, con el formato de las colecciones del JDK, y un campo cuyo tipo declarado es un
+ * contenedor de objetos sensibles ({@code List<Customer>}) hace sensible a su clase.
+ * <p>
+ * Un objeto que se está escribiendo y vuelve a aparecer (por ejemplo {@code Order.customer} y
+ * {@code Customer.orders}) se escribe como {@value #CYCLE}, y por debajo de {@value #MAX_DEPTH}
+ * niveles de anidamiento los objetos se escriben como {@code Customer[...]}. Si los campos de una
+ * clase anotada no son accesibles (por ejemplo, un módulo que no abre su paquete), el objeto
+ * se escribe como {@code Customer[***]} para no exponer sus datos.
+ */
+public final class SensitiveRenderer {
+    private static final String HIDDEN_FIELDS = "***";
+    private static final String CYCLE = "(cycle)";
+    private static final String TRUNCATED = "...";
+
+    /**
+     * Niveles de objetos y contenedores anidados que se escriben como máximo.
+     */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * Elementos de cada contenedor que se revisan para decidir si tiene objetos sensibles.
+     */
+    private static final int SCAN_LIMIT = 32;
+
+    /**
+     * Objetos que el hilo está escribiendo, para detectar ciclos sin crear objetos por llamada.
+     */
+    private static final ThreadLocal<RenderStack> IN_PROGRESS = ThreadLocal.withInitial(RenderStack::new);
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private static final int OBJECT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int BOOLEAN = 3;
+    private static final int DOUBLE = 4;
+
+    /**
+     * Disposición de cada clase, calculada en la primera consulta.
+     */
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.scan(type);
+        }
+    };
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private SensitiveRenderer() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Indica si los objetos de una clase se escriben enmascarados.
+     *
+     * @param type La clase.
+     * @return true si la clase, sus superclases o los tipos de sus campos tienen campos
+     *         {@link Sensitive}.
+     */
+    public static boolean isSensitive(Class<?> type) {
+        return LAYOUTS.get(type) != Layout.PLAIN;
+    }
+
+    /**
+     * Obtiene el texto de un objeto con sus campos sensibles enmascarados.
+     *
+     * @param value El objeto. Puede ser nulo.
+     * @return El texto enmascarado, o String.valueOf(value) si su clase no tiene campos sensibles.
+     */
+    public static String render(Object value) {
+        if (value == null || !isSensitive(value.getClass()) && !containsSensitive(value)) {
+            return String.valueOf(value);
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            renderTo(value, buffer);
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Añade al buffer el texto de un objeto con sus campos sensibles enmascarados.
+     *
+     * @param value El objeto. Puede ser nulo.
+     * @param target El buffer de destino.
+     */
+    public static void renderTo(Object value, StringBuilder target) {
+        if (value == null) {
+            target.append("null");
+            return;
+        }
+        Layout layout = LAYOUTS.get(value.getClass());
+        if (layout == Layout.PLAIN && !containsSensitive(value)) {
+            target.append(value);
+            return;
+        }
+        RenderStack stack = IN_PROGRESS.get();
+        if (stack.contains(value)) {
+            target.append(CYCLE);
+            return;
+        }
+        if (stack.depth == MAX_DEPTH) {
+            if (layout == Layout.PLAIN) {
+                target.append(TRUNCATED);
+            } else {
+                target.append(layout.prefix).append(TRUNCATED).append(']');
+            }
+            return;
+        }
+        stack.objects[stack.depth++] = value;
+        try {
+            if (layout != Layout.PLAIN) {
+                layout.write(value, target);
+            } else {
+                renderElements(value, target);
+            }
+        } finally {
+            stack.objects[--stack.depth] = null;
+        }
+    }
+
+    private static boolean containsSensitive(Object value) {
+        return containsSensitive(value, 0);
+    }
+
+    /**
+     * Indica si un contenedor tiene objetos sensibles, directamente o en contenedores anidados,
+     * entre sus primeros {@link #SCAN_LIMIT} elementos. Solo se recorren colecciones, mapas y
+     * arreglos: otros Iterable pueden consumirse al recorrerlos o no terminar nunca.
+     */
+    private static boolean containsSensitive(Object value, int depth) {
+        if (depth == MAX_DEPTH) {
+            return false;
+        }
+        int scanned = 0;
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (scanned++ == SCAN_LIMIT) {
+                    break;
+                }
+                if (entry.getKey() != map && needsMasking(entry.getKey(), depth)
+                        || entry.getValue() != map && needsMasking(entry.getValue(), depth)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                if (scanned++ == SCAN_LIMIT) {
+                    break;
+                }
+                if (element != collection && needsMasking(element, depth)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof Object[] array) {
+            for (int i = 0, length = Math.min(array.length, SCAN_LIMIT); i < length; i++) {
+                if (array[i] != array && needsMasking(array[i], depth)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean needsMasking(Object value, int depth) {
+        return value != null && (isSensitive(value.getClass()) || containsSensitive(value, depth + 1));
+    }
+
+    /**
+     * Escribe un contenedor como lo haría su toString() en el JDK, pero con cada elemento escrito
+     * por {@link #renderTo}.
+     */
+    private static void renderElements(Object value, StringBuilder target) {
+        if (value instanceof Map<?, ?> map) {
+            target.append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                target.append(separator);
+                renderElement(entry.getKey(), map, "(this Map)", target);
+                target.append('=');
+                renderElement(entry.getValue(), map, "(this Map)", target);
+                separator = ", ";
+            }
+            target.append('}');
+        } else {
+            Collection<?> elements = value instanceof Object[] array ? Arrays.asList(array) : (Collection<?>) value;
+            target.append('[');
+            String separator = "";
+            for (Object element : elements) {
+                target.append(separator);
+                renderElement(element, value, "(this Collection)", target);
+                separator = ", ";
+            }
+            target.append(']');
+        }
+    }
+
+    private static void renderElement(Object element, Object container, String self, StringBuilder target) {
+        if (element == container) {
+            target.append(self);
+        } else {
+            renderTo(element, target);
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> type) {
+        return type.getClassLoader() == null;
+    }
+
+    /**
+     * Pila de los objetos que un hilo está escribiendo. Su profundidad está acotada por
+     * {@link #MAX_DEPTH}, así que buscar en ella es un recorrido corto por identidad.
+     */
+    private static final class RenderStack {
+        private final Object[] objects = new Object[MAX_DEPTH];
+        private int depth;
+
+        boolean contains(Object value) {
+            for (int i = 0; i < depth; i++) {
+                if (objects[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Campos de una clase en el orden en que se escriben.
+     */
+    private static final class Layout {
+        static final Layout PLAIN = new Layout(null, new Accessor[0]);
+
+        private final String prefix;
+        private final Accessor[] accessors;
+
+        private Layout(String prefix, Accessor[] accessors) {
+            this.prefix = prefix;
+            this.accessors = accessors;
+        }
+
+        static Layout scan(Class<?> type) {
+            if (!hasSensitiveField(type, new HashSet<>())) {
+                return PLAIN;
+            }
+            String prefix = type.getSimpleName() + "[";
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                List<Accessor> accessors = new ArrayList<>();
+                for (Field field : fields(type)) {
+                    String label = (accessors.isEmpty() ? "" : ", ") + field.getName() + "=";
+                    accessors.add(Accessor.of(lookup, field, label));
+                }
+                return new Layout(prefix, accessors.toArray(new Accessor[0]));
+            } catch (IllegalAccessException | RuntimeException e) {
+                return new Layout(prefix, null);
+            }
+        }
+
+        void write(Object value, StringBuilder target) {
+            target.append(prefix);
+            if (accessors == null) {
+                target.append(HIDDEN_FIELDS);
+            } else {
+                try {
+                    for (Accessor accessor : accessors) {
+                        accessor.write(value, target);
+                    }
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Field access failed", e);
+                }
+            }
+            target.append(']');
+        }
+
+        /**
+         * Una clase es sensible si tiene campos anotados o campos cuyo tipo declarado es sensible,
+         * de modo que un objeto que contiene otro con datos sensibles tampoco se escribe con su
+         * toString(). Los tipos ya visitados cortan las referencias circulares.
+         */
+        private static boolean hasSensitiveField(Class<?> type, Set<Class<?>> visited) {
+            // Las clases del JDK, los arreglos y las enumeraciones nunca llevan anotaciones propias
+            if (isJdkClass(type) || type.isArray() || type.isEnum() || type.isPrimitive()
+                    || !visited.add(type)) {
+                return false;
+            }
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && (Accessor.sensitiveType(field) != null
+                            || hasSensitiveType(field.getGenericType(), visited))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Un tipo declarado es sensible si lo es su clase, el tipo de sus elementos si es un
+         * arreglo o alguno de sus argumentos de tipo, como Customer en {@code Map<String, Customer>}.
+         */
+        private static boolean hasSensitiveType(Type type, Set<Class<?>> visited) {
+            if (type instanceof Class<?> raw) {
+                return raw.isArray() ? hasSensitiveType(raw.getComponentType(), visited) : hasSensitiveField(raw, visited);
+            }
+            if (type instanceof ParameterizedType parameterized) {
+                for (Type argument : parameterized.getActualTypeArguments()) {
+                    if (hasSensitiveType(argument, visited)) {
+                        return true;
+                    }
+                }
+                return hasSensitiveType(parameterized.getRawType(), visited);
+            }
+            if (type instanceof GenericArrayType array) {
+                return hasSensitiveType(array.getGenericComponentType(), visited);
+            }
+            if (type instanceof WildcardType wildcard) {
+                for (Type bound : wildcard.getUpperBounds()) {
+                    if (hasSensitiveType(bound, visited)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Campos de instancia de la clase, empezando por los de sus superclases.
+         */
+        private static List<Field> fields(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+                fields.addAll(fields(type.getSuperclass()));
+            }
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * Accesor de un campo. Los campos numéricos y lógicos no sensibles se leen sin encapsular.
+     */
+    private static final class Accessor {
+        private final String label;
+        private final MethodHandle getter;
+        private final int kind;
+        private final MaskType mask;
+
+        private Accessor(String label, MethodHandle getter, int kind, MaskType mask) {
+            this.label = label;
+            this.getter = getter;
+            this.kind = kind;
+            this.mask = mask;
+        }
+
+        static Accessor of(MethodHandles.Lookup lookup, Field field, String label) throws IllegalAccessException {
+            MethodHandle getter = lookup.unreflectGetter(field);
+            MaskType mask = sensitiveType(field);
+            Class<?> type = field.getType();
+            int kind = OBJECT;
+            if (mask == null) {
+                if (type == int.class || type == short.class || type == byte.class) {
+                    kind = INT;
+                } else if (type == long.class) {
+                    kind = LONG;
+                } else if (type == boolean.class) {
+                    kind = BOOLEAN;
+                } else if (type == double.class) {
+                    kind = DOUBLE;
+                }
+            }
+            Class<?> returnType = switch (kind) {
+                case INT -> int.class;
+                case LONG -> long.class;
+                case BOOLEAN -> boolean.class;
+                case DOUBLE -> double.class;
+                default -> Object.class;
+            };
+            return new Accessor(label, getter.asType(OBJECT_GETTER.changeReturnType(returnType)), kind, mask);
+        }
+
+        /**
+         * Los componentes de record propagan la anotación a su campo; se consulta también el
+         * componente por si la anotación se declaró solo para él.
+         */
+        static MaskType sensitiveType(Field field) {
+            Sensitive sensitive = field.getAnnotation(Sensitive.class);
+            if (sensitive == null && field.getDeclaringClass().isRecord()) {
+                for (RecordComponent component : field.getDeclaringClass().getRecordComponents()) {
+                    if (component.getName().equals(field.getName())) {
+                        sensitive = component.getAnnotation(Sensitive.class);
+                    }
+                }
+            }
+            return sensitive != null ? sensitive.type() : null;
+        }
+
+        void write(Object owner, StringBuilder target) throws Throwable {
+            target.append(label);
+            switch (kind) {
+                case INT -> target.append((int) getter.invokeExact(owner));
+                case LONG -> target.append((long) getter.invokeExact(owner));
+                case BOOLEAN -> target.append((boolean) getter.invokeExact(owner));
+                case DOUBLE -> target.append((double) getter.invokeExact(owner));
+                default -> writeObject((Object) getter.invokeExact(owner), target);
+            }
+        }
+
+        private void writeObject(Object value, StringBuilder target) {
+            if (mask == null) {
+                MessageTemplate.appendArgument(target, value);
+            } else if (value == null) {
+                target.append("null");
+            } else if (value instanceof CharSequence text) {
+                mask.maskTo(text, target);
+            } else {
+                mask.maskTo(String.valueOf(value), target);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.Arrays;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * Mensaje de Log4j2 que conserva la plantilla y los argumentos sin formatear.
+ * El texto se produce con las reglas de {@link MessageFormatter} (plantillas en caché, escapes
+ * y argumentos diferidos) y solo cuando el pipeline de Log4j2 lo solicita, escribiendo
+ * directamente en el buffer del evento.
+ * Las instancias reutilizables pertenecen a un único hilo (ver {@link TemplateMessageFactory});
+ * el resto se crea por llamada y no se modifica después.
+ */
+final class TemplateMessage implements ReusableMessage {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Número de argumentos que una instancia reutilizable guarda sin crear arreglos.
+     */
+    static final int MAX_FIXED_PARAMS = 10;
+
+    private final boolean reusable;
+    private transient String template;
+    private transient MessageTemplate parsed;
+    private transient Object[] params;
+    private transient int argCount;
+    private transient boolean formatting;
+
+    /**
+     * Crea una instancia reutilizable, con espacio para {@link #MAX_FIXED_PARAMS} argumentos.
+     */
+    TemplateMessage() {
+        this.reusable = true;
+        this.params = new Object[MAX_FIXED_PARAMS];
+    }
+
+    /**
+     * Crea un mensaje de un solo uso.
+     *
+     * @param template La plantilla con placeholders.
+     * @param args Los argumentos a insertar. Puede ser nulo.
+     */
+    TemplateMessage(String template, Object[] args) {
+        this.reusable = false;
+        this.template = template;
+        this.params = args != null ? args : MessageFormatter.NO_ARGS;
+        this.argCount = this.params.length;
+    }
+
+    /**
+     * Prepara la instancia reutilizable para una plantilla con argumentos fijos.
+     * El llamador debe escribir los argumentos en el arreglo devuelto.
+     *
+     * @param template La plantilla con placeholders.
+     * @param count El número de argumentos, como mucho {@link #MAX_FIXED_PARAMS}.
+     * @return El arreglo interno donde escribir los argumentos.
+     */
+    Object[] reserve(String template, int count) {
+        if (params.length < MAX_FIXED_PARAMS) {
+            params = new Object[MAX_FIXED_PARAMS];
+        }
+        this.template = template;
+        this.parsed = null;
+        this.argCount = count;
+        return params;
+    }
+
+    /**
+     * Prepara la instancia reutilizable para una plantilla con argumentos variables.
+     * Hasta {@link #MAX_FIXED_PARAMS} argumentos se copian al arreglo interno; por encima se
+     * referencia el arreglo recibido.
+     *
+     * @param template La plantilla con placeholders.
+     * @param args Los argumentos a insertar. Puede ser nulo.
+     * @return Esta instancia.
+     */
+    TemplateMessage set(String template, Object[] args) {
+        int count = args == null ? 0 : args.length;
+        if (count > MAX_FIXED_PARAMS) {
+            this.template = template;
+            this.parsed = null;
+            this.params = args;
+            this.argCount = count;
+        } else {
+            System.arraycopy(args == null ? MessageFormatter.NO_ARGS : args, 0, reserve(template, count), 0, count);
+        }
+        return this;
+    }
+
+    /**
+     * Indica si la instancia se está formateando. Un argumento que registre un mensaje desde su
+     * toString() no debe recibir esta misma instancia.
+     *
+     * @return true si la instancia está en uso.
+     */
+    boolean isFormatting() {
+        return formatting;
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        if (argCount == 0) {
+            buffer.append(template);
+            return;
+        }
+        formatting = true;
+        try {
+            parsed().formatTo(buffer, params, argCount);
+        } finally {
+            formatting = false;
+        }
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        if (argCount == 0) {
+            return template;
+        }
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            formatTo(buffer);
+            return buffer.toString();
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+
+    @Override
+    public String getFormat() {
+        return template;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return Arrays.copyOf(params, argCount);
+    }
+
+    /**
+     * Siguiendo la convención de Log4j2, un último argumento Throwable que no corresponde a
+     * ningún placeholder se trata como la excepción del evento.
+     *
+     * @return La excepción asociada, o null si no hay.
+     */
+    @Override
+    public Throwable getThrowable() {
+        if (argCount == 0 || !(params[argCount - 1] instanceof Throwable throwable)) {
+            return null;
+        }
+        return parsed().placeholderCount() < argCount ? throwable : null;
+    }
+
+    /**
+     * Devuelve la plantilla analizada, buscándola en la caché solo la primera vez por mensaje:
+     * getThrowable() y el formateo del mismo evento comparten una única consulta.
+     *
+     * @return La plantilla analizada.
+     */
+    private MessageTemplate parsed() {
+        MessageTemplate current = parsed;
+        if (current == null) {
+            current = MessageFormatter.templateCache().get(template);
+            parsed = current;
+        }
+        return current;
+    }
+
+    @Override
+    public short getParameterCount() {
+        return (short) argCount;
+    }
+
+    /**
+     * Entrega los argumentos al evento de Log4j2, que los conserva tras la llamada, y deja la
+     * instancia sin referencias a ellos para no retener objetos entre llamadas.
+     *
+     * @param emptyReplacement Arreglo vacío que el evento ofrece a cambio.
+     * @return Un arreglo con los argumentos.
+     */
+    @Override
+    public Object[] swapParameters(Object[] emptyReplacement) {
+        Object[] result;
+        if (!reusable) {
+            result = argCount <= emptyReplacement.length ? emptyReplacement : new Object[argCount];
+            System.arraycopy(params, 0, result, 0, argCount);
+            return result;
+        }
+        if (params.length > MAX_FIXED_PARAMS) {
+            result = params;
+            params = emptyReplacement.length >= MAX_FIXED_PARAMS ? emptyReplacement : new Object[MAX_FIXED_PARAMS];
+        } else if (argCount <= emptyReplacement.length) {
+            System.arraycopy(params, 0, emptyReplacement, 0, argCount);
+            Arrays.fill(params, 0, argCount, null);
+            result = emptyReplacement;
+        } else {
+            result = params;
+            params = new Object[MAX_FIXED_PARAMS];
+        }
+        return result;
+    }
+
+    @Override
+    public Message memento() {
+        return new TemplateMessage(template, getParameters());
+    }
+
+    @Override
+    public String toString() {
+        return getFormattedMessage();
+    }
+
+    /**
+     * Los argumentos pueden no ser serializables, así que se serializa el texto ya formateado.
+     *
+     * @return El mensaje formateado como un mensaje simple.
+     */
+    private Object writeReplace() {
+        return new SimpleMessage(getFormattedMessage());
+    }
+}
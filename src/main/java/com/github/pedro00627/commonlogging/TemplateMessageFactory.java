@@ -0,0 +1,256 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MessageFactory2;
+import org.apache.logging.log4j.message.ParameterizedMessageFactory;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.Constants;
+
+/**
+ * Fábrica de mensajes de Log4j2 que crea {@link TemplateMessage}, de modo que los eventos
+ * conservan la semántica de placeholders y escapes de {@link MessageFormatter}.
+ * En modo reutilizable cada hilo de plataforma reutiliza su propio mensaje y las variantes de
+ * aridad fija no crean arreglos; Log4j2 copia los argumentos al evento con swapParameters.
+ * Los hilos virtuales, y las llamadas reentrantes hechas mientras se formatea el mensaje del
+ * hilo, reciben un mensaje nuevo.
+ */
+final class TemplateMessageFactory implements MessageFactory2 {
+    /**
+     * Instancia compartida. Reutiliza mensajes si Log4j2 usa thread locals o si está activo el
+     * modo sin basura ({@link LogHelper#GARBAGE_FREE_PROPERTY}), salvo que esté activo el modo
+     * de formateo diferido ({@link LogHelper#DEFERRED_FORMATTING_PROPERTY}), que tiene prioridad.
+     */
+    static final TemplateMessageFactory INSTANCE = new TemplateMessageFactory(
+            Constants.ENABLE_THREADLOCALS || Boolean.getBoolean(LogHelper.GARBAGE_FREE_PROPERTY),
+            Boolean.getBoolean(LogHelper.DEFERRED_FORMATTING_PROPERTY));
+
+    private final boolean reusable;
+    private final boolean deferred;
+    private final MessageFactory2 fallback;
+    private final ThreadLocal<TemplateMessage> threadMessage = ThreadLocal.withInitial(TemplateMessage::new);
+
+    /**
+     * Crea una fábrica.
+     *
+     * @param reusable Si los hilos de plataforma deben reutilizar su mensaje.
+     * @param deferred Si los mensajes deben viajar sin formatear hasta el appender; en ese caso
+     *                 no se reutilizan, ya que se leen desde otro hilo.
+     */
+    TemplateMessageFactory(boolean reusable, boolean deferred) {
+        this.reusable = reusable && !deferred;
+        this.deferred = deferred;
+        this.fallback = this.reusable ? ReusableMessageFactory.INSTANCE : ParameterizedMessageFactory.INSTANCE;
+    }
+
+    /**
+     * Los mensajes que no son plantillas (objetos y secuencias de caracteres) se delegan en la
+     * fábrica equivalente de Log4j2.
+     */
+    @Override
+    public Message newMessage(Object message) {
+        return fallback.newMessage(message);
+    }
+
+    @Override
+    public Message newMessage(CharSequence charSequence) {
+        return fallback.newMessage(charSequence);
+    }
+
+    @Override
+    public Message newMessage(String message) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, MessageFormatter.NO_ARGS);
+        }
+        reusable.reserve(message, 0);
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object... params) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable != null) {
+            return reusable.set(message, params);
+        }
+        return deferred ? DeferredMessage.capture(message, params) : new TemplateMessage(message, params);
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0});
+        }
+        Object[] params = reusable.reserve(message, 1);
+        params[0] = p0;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1});
+        }
+        Object[] params = reusable.reserve(message, 2);
+        params[0] = p0;
+        params[1] = p1;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2});
+        }
+        Object[] params = reusable.reserve(message, 3);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3});
+        }
+        Object[] params = reusable.reserve(message, 4);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3, Object p4) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3, p4});
+        }
+        Object[] params = reusable.reserve(message, 5);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        params[4] = p4;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3, Object p4, Object p5) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3, p4, p5});
+        }
+        Object[] params = reusable.reserve(message, 6);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        params[4] = p4;
+        params[5] = p5;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3, Object p4, Object p5, Object p6) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3, p4, p5, p6});
+        }
+        Object[] params = reusable.reserve(message, 7);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        params[4] = p4;
+        params[5] = p5;
+        params[6] = p6;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3, Object p4, Object p5, Object p6, Object p7) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3, p4, p5, p6, p7});
+        }
+        Object[] params = reusable.reserve(message, 8);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        params[4] = p4;
+        params[5] = p5;
+        params[6] = p6;
+        params[7] = p7;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3, Object p4, Object p5, Object p6, Object p7, Object p8) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3, p4, p5, p6, p7, p8});
+        }
+        Object[] params = reusable.reserve(message, 9);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        params[4] = p4;
+        params[5] = p5;
+        params[6] = p6;
+        params[7] = p7;
+        params[8] = p8;
+        return reusable;
+    }
+
+    @Override
+    public Message newMessage(String message, Object p0, Object p1, Object p2, Object p3, Object p4, Object p5, Object p6, Object p7, Object p8, Object p9) {
+        TemplateMessage reusable = reusableMessage();
+        if (reusable == null) {
+            return oneShot(message, new Object[] {p0, p1, p2, p3, p4, p5, p6, p7, p8, p9});
+        }
+        Object[] params = reusable.reserve(message, 10);
+        params[0] = p0;
+        params[1] = p1;
+        params[2] = p2;
+        params[3] = p3;
+        params[4] = p4;
+        params[5] = p5;
+        params[6] = p6;
+        params[7] = p7;
+        params[8] = p8;
+        params[9] = p9;
+        return reusable;
+    }
+    /**
+     * Crea un mensaje de un solo uso sobre un arreglo de argumentos recién creado.
+     *
+     * @param message La plantilla con placeholders.
+     * @param args Los argumentos, en un arreglo que nadie más referencia.
+     * @return El mensaje.
+     */
+    private Message oneShot(String message, Object[] args) {
+        return deferred ? DeferredMessage.owning(message, args) : new TemplateMessage(message, args);
+    }
+
+    /**
+     * Devuelve el mensaje reutilizable del hilo actual, o null si debe crearse uno nuevo.
+     *
+     * @return El mensaje del hilo, o null.
+     */
+    private TemplateMessage reusableMessage() {
+        Thread current = Thread.currentThread();
+        if (!reusable || current.isVirtual()) {
+            return null;
+        }
+        TemplateMessage message = threadMessage.get();
+        return message.isFormatting() ? null : message;
+    }
+}
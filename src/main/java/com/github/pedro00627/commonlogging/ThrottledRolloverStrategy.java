@@ -0,0 +1,544 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.FileSize;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverDescription;
+import org.apache.logging.log4j.core.appender.rolling.RolloverDescriptionImpl;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.action.AbstractAction;
+import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Estrategia de rotación que comprime los archivos rotados en segundo plano, de uno en uno, en
+ * un hilo de baja prioridad y con un límite de bytes leídos por segundo, para que la compresión
+ * no compita por CPU y disco con el servicio justo cuando más escribe.
+ * La rotación solo renombra el archivo activo y encola su compresión, sin esperar a que termine,
+ * así que la siguiente rotación nunca espera a una compresión. La numeración es la de
+ * DefaultRolloverStrategy con fileIndex="nomax": cada archivo rotado recibe el índice siguiente al
+ * mayor existente y ya no se renombra, de modo que una compresión en curso nunca ve cambiar el
+ * nombre de su archivo; a diferencia de la numeración por defecto, los índices no vuelven a
+ * empezar en 1 y crecen mientras no cambie la fecha del patrón. Las compresiones se hacen en el
+ * orden de rotación y, al terminar cada una, se borran los archivos rotados más antiguos (por
+ * fecha de modificación) que excedan max. Como en DefaultRolloverStrategy, max se aplica a cada
+ * fecha de un patrón con %d, y los archivos de fechas anteriores no se borran.
+ * El filePattern debe terminar en la extensión del códec (.gz o .zst) y solo puede usar %d e %i
+ * en el nombre del archivo, no en el directorio:
+ * <pre>
+ * ThrottledRolloverStrategy:
+ *   max: "30"
+ *   codec: zstd
+ *   compressionLevel: "3"
+ *   bytesPerSecond: "10MB"
+ * </pre>
+ * El códec zstd requiere com.github.luben:zstd-jni en el classpath de la aplicación. Los archivos
+ * cuya compresión sigue pendiente al terminar la JVM se encolan en la primera rotación siguiente.
+ * Las métricas se publican por JMX ({@link RolloverCompressionMXBean}).
+ */
+@Plugin(name = "ThrottledRolloverStrategy", category = Core.CATEGORY_NAME, printObject = true)
+public final class ThrottledRolloverStrategy implements RolloverStrategy {
+    /**
+     * Nombre JMX de las métricas de compresión.
+     */
+    public static final String METRICS_OBJECT_NAME = "com.github.pedro00627.commonlogging:type=RolloverCompression";
+
+    /**
+     * Límite por defecto de bytes leídos por segundo: un archivo de 50 MB se comprime en unos 5 s.
+     */
+    public static final String DEFAULT_BYTES_PER_SECOND = "10MB";
+
+    /**
+     * Archivos rotados que se conservan por defecto, como en DefaultRolloverStrategy.
+     */
+    public static final int DEFAULT_MAX = 7;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Conversiones de fecha e índice del filePattern.
+     */
+    private static final Pattern CONVERSION = Pattern.compile("%(d(\\{[^}]*})*|-?\\d*i)");
+
+    private static final Metrics METRICS = new Metrics();
+
+    /**
+     * Un único hilo para todas las estrategias: las compresiones de distintos appenders esperan
+     * en cola en lugar de sumar su consumo de disco.
+     */
+    static final ThreadPoolExecutor COMPRESSOR = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), task -> {
+                Thread thread = new Thread(task, "log-rollover-compressor");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(METRICS, new ObjectName(METRICS_OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // Ya registrado por otro cargador de clases, o JMX no disponible: las métricas siguen en metrics()
+        }
+    }
+
+    private final DefaultRolloverStrategy delegate;
+    private final int max;
+    private final Codec codec;
+    private final int compressionLevel;
+    private final long bytesPerSecond;
+    private final AtomicBoolean recovered = new AtomicBoolean();
+
+    private ThrottledRolloverStrategy(DefaultRolloverStrategy delegate, int max, Codec codec, int compressionLevel,
+            long bytesPerSecond) {
+        this.delegate = delegate;
+        this.max = max;
+        this.codec = codec;
+        this.compressionLevel = compressionLevel;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Fábrica que Log4j2 usa al leer la configuración.
+     *
+     * @param max Los archivos rotados que se conservan, comprimidos o pendientes de comprimir.
+     *        Por defecto {@value #DEFAULT_MAX}.
+     * @param codec "gzip" (por defecto) o "zstd".
+     * @param compressionLevel El nivel de compresión: de -1 a 9 para gzip (por defecto -1, el de
+     *        la JVM) y de 1 a 22 para zstd (por defecto 3).
+     * @param bytesPerSecond Los bytes leídos por segundo como máximo, con unidades (KB, MB, GB);
+     *        "0" desactiva el límite. Por defecto {@value #DEFAULT_BYTES_PER_SECOND}.
+     * @param configuration La configuración de Log4j2.
+     * @return La estrategia.
+     */
+    @PluginFactory
+    public static ThrottledRolloverStrategy createStrategy(
+            @PluginAttribute(value = "max", defaultInt = DEFAULT_MAX) int max,
+            @PluginAttribute(value = "codec", defaultString = "gzip") String codec,
+            @PluginAttribute("compressionLevel") String compressionLevel,
+            @PluginAttribute(value = "bytesPerSecond", defaultString = DEFAULT_BYTES_PER_SECOND) String bytesPerSecond,
+            @PluginConfiguration Configuration configuration) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be positive: " + max);
+        }
+        Codec selected = Codec.of(codec);
+        int level = compressionLevel == null ? selected.defaultLevel : Integer.parseInt(compressionLevel.trim());
+        selected.checkLevel(level);
+        long rate = FileSize.parse(bytesPerSecond, -1);
+        if (rate < 0) {
+            throw new IllegalArgumentException("invalid bytesPerSecond: " + bytesPerSecond);
+        }
+        DefaultRolloverStrategy delegate = DefaultRolloverStrategy.newBuilder()
+                .setFileIndex("nomax")
+                .setConfig(configuration)
+                .build();
+        return new ThrottledRolloverStrategy(delegate, max, selected, level, rate);
+    }
+
+    /**
+     * @return Las métricas de compresión de todas las estrategias.
+     */
+    public static RolloverCompressionMXBean metrics() {
+        return METRICS;
+    }
+
+    /**
+     * Espera a que terminen las compresiones encoladas hasta ahora.
+     */
+    static void awaitCompressions() throws InterruptedException, ExecutionException {
+        COMPRESSOR.submit(() -> { }).get();
+    }
+
+    /**
+     * Renombra el archivo activo como DefaultRolloverStrategy y sustituye su compresión por la
+     * compresión en segundo plano con el códec configurado. La primera rotación encola además los
+     * archivos rotados que quedaron sin comprimir, por ejemplo al terminar la JVM con compresiones
+     * pendientes.
+     */
+    @Override
+    public RolloverDescription rollover(RollingFileManager manager) {
+        String filePattern = manager.getPatternProcessor().getPattern();
+        File activeFile = new File(manager.getFileName());
+        if (!recovered.getAndSet(true)) {
+            compressPending(new File(filePattern).getAbsoluteFile().getParentFile(), filePattern, activeFile);
+        }
+        RolloverDescription description = delegate.rollover(manager);
+        if (description == null || !(description.getSynchronous() instanceof FileRenameAction rename)) {
+            return description;
+        }
+        File uncompressed = codec.withoutExtension(rename.getDestination());
+        File compressed = new File(uncompressed.getPath() + codec.extension);
+        return new RolloverDescriptionImpl(description.getActiveFileName(), description.getAppend(),
+                new FileRenameAction(rename.getSource(), uncompressed, rename.isRenameEmptyFiles()),
+                compressAction(uncompressed, compressed, filePattern, activeFile));
+    }
+
+    /**
+     * Encola, de la más antigua a la más reciente, la compresión de los archivos rotados sin la
+     * extensión del códec.
+     */
+    private void compressPending(File directory, String filePattern, File activeFile) {
+        Pattern rolledFiles = rolledFiles(filePattern, codec);
+        File active = activeFile.getAbsoluteFile();
+        File[] pending = directory.listFiles((dir, name) -> !name.endsWith(codec.extension)
+                && rolledFiles.matcher(name).matches() && !new File(dir, name).getAbsoluteFile().equals(active));
+        if (pending == null) {
+            return;
+        }
+        Arrays.sort(pending, Comparator.comparingLong(File::lastModified));
+        for (File source : pending) {
+            new CompressAction(source, new File(source.getPath() + codec.extension), rolledFiles, activeFile).execute();
+        }
+    }
+
+    /**
+     * Crea la acción asíncrona de una rotación.
+     *
+     * @param source El archivo rotado.
+     * @param target El archivo comprimido.
+     * @param filePattern El filePattern del appender, para reconocer los archivos rotados al purgar.
+     * @param activeFile El archivo activo, que la purga nunca borra.
+     * @return La acción.
+     */
+    AbstractAction compressAction(File source, File target, String filePattern, File activeFile) {
+        return new CompressAction(source, target, rolledFiles(filePattern, codec), activeFile);
+    }
+
+    /**
+     * Convierte el nombre de archivo de un filePattern en una expresión que reconoce los archivos
+     * rotados, comprimidos o no: %i admite dígitos y %d cualquier texto, que se captura en un
+     * grupo para agrupar los archivos por fecha.
+     */
+    static Pattern rolledFiles(String filePattern, Codec codec) {
+        String name = codec.withoutExtension(new File(filePattern)).getName();
+        StringBuilder regex = new StringBuilder();
+        Matcher conversion = CONVERSION.matcher(name);
+        int last = 0;
+        while (conversion.find()) {
+            regex.append(Pattern.quote(name.substring(last, conversion.start())));
+            regex.append(conversion.group().endsWith("i") ? "\\d+" : "(.+)");
+            last = conversion.end();
+        }
+        regex.append(Pattern.quote(name.substring(last)))
+                .append("(?:").append(Pattern.quote(codec.extension)).append(")?");
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Borra, en cada fecha del patrón, los archivos rotados más antiguos que excedan el máximo.
+     * Se ejecuta en el hilo de compresión después de cada compresión, así que nunca coincide con
+     * una.
+     *
+     * @param directory El directorio de los archivos rotados.
+     * @param rolledFiles La expresión que reconoce los archivos rotados.
+     * @param activeFile El archivo activo.
+     * @param max Los archivos que se conservan por fecha.
+     */
+    static void purge(File directory, Pattern rolledFiles, File activeFile, int max) {
+        File active = activeFile.getAbsoluteFile();
+        File[] files = directory.listFiles((dir, name) -> rolledFiles.matcher(name).matches()
+                && !new File(dir, name).getAbsoluteFile().equals(active));
+        if (files == null || files.length <= max) {
+            return;
+        }
+        Map<String, List<File>> periods = new HashMap<>();
+        for (File file : files) {
+            Matcher matcher = rolledFiles.matcher(file.getName());
+            matcher.matches();
+            StringBuilder period = new StringBuilder();
+            for (int group = 1; group <= matcher.groupCount(); group++) {
+                period.append(matcher.group(group)).append('\0');
+            }
+            periods.computeIfAbsent(period.toString(), key -> new ArrayList<>()).add(file);
+        }
+        for (List<File> period : periods.values()) {
+            period.sort(Comparator.comparingLong(File::lastModified));
+            for (int i = 0; i < period.size() - max; i++) {
+                if (!period.get(i).delete()) {
+                    StatusLogger.getLogger().warn("Unable to delete rolled file {}", period.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Comprime un archivo y lo borra. El resultado se escribe en un archivo temporal que se
+     * renombra al terminar, de modo que nunca queda un archivo comprimido a medias con el nombre final.
+     *
+     * @param source El archivo rotado.
+     * @param target El archivo comprimido.
+     * @param codec El códec.
+     * @param level El nivel de compresión.
+     * @param bytesPerSecond El límite de bytes leídos por segundo, o 0 para no limitar.
+     * @throws IOException Si no se puede leer o escribir un archivo.
+     * @throws InterruptedException Si el hilo se interrumpe durante una pausa.
+     */
+    static void compress(File source, File target, Codec codec, int level, long bytesPerSecond)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        FileTime modified = Files.getLastModifiedTime(source.toPath());
+        Path temporary = Path.of(target.getPath() + ".tmp");
+        long read = 0;
+        try (InputStream input = Files.newInputStream(source.toPath());
+             OutputStream output = codec.open(Files.newOutputStream(temporary), level)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                output.write(buffer, 0, count);
+                read += count;
+                throttle(start, read, bytesPerSecond);
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        // La purga ordena por fecha de modificación: el archivo comprimido conserva la del rotado
+        Files.setLastModifiedTime(target.toPath(), modified);
+        Files.delete(source.toPath());
+        METRICS.record(System.nanoTime() - start, read, Files.size(target.toPath()));
+    }
+
+    /**
+     * Duerme lo necesario para que los bytes leídos desde el inicio no superen el límite.
+     */
+    private static void throttle(long start, long read, long bytesPerSecond) throws InterruptedException {
+        long wait = pauseNanos(System.nanoTime() - start, read, bytesPerSecond);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Calcula la pausa que mantiene la lectura dentro del límite.
+     *
+     * @param elapsedNanos El tiempo transcurrido desde el inicio de la compresión.
+     * @param read Los bytes leídos desde el inicio.
+     * @param bytesPerSecond El límite de bytes leídos por segundo, o 0 para no limitar.
+     * @return Los nanosegundos que hay que esperar, o 0 si la lectura no va adelantada.
+     */
+    static long pauseNanos(long elapsedNanos, long read, long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            return 0;
+        }
+        return Math.max(0, (long) (read * 1_000_000_000.0 / bytesPerSecond) - elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "ThrottledRolloverStrategy(max=" + max + ", codec=" + codec.name().toLowerCase(Locale.ROOT) + ", level="
+                + compressionLevel + ", bytesPerSecond=" + bytesPerSecond + ")";
+    }
+
+    /**
+     * Acción asíncrona de la rotación: encola la compresión y termina, de modo que Log4j2 libera
+     * la rotación del appender sin esperar a que el archivo se comprima.
+     */
+    private final class CompressAction extends AbstractAction {
+        private final File source;
+        private final File target;
+        private final Pattern rolledFiles;
+        private final File activeFile;
+
+        CompressAction(File source, File target, Pattern rolledFiles, File activeFile) {
+            this.source = source;
+            this.target = target;
+            this.rolledFiles = rolledFiles;
+            this.activeFile = activeFile;
+        }
+
+        @Override
+        public boolean execute() {
+            if (source.exists()) {
+                // Si no existe es un archivo vacío que la rotación borró en lugar de renombrar
+                COMPRESSOR.execute(this::compressAndPurge);
+            }
+            return true;
+        }
+
+        private void compressAndPurge() {
+            // Una purga anterior pudo borrar el archivo si hay más compresiones pendientes que max
+            if (source.exists()) {
+                try {
+                    compress(source, target, codec, compressionLevel, bytesPerSecond);
+                } catch (IOException | RuntimeException e) {
+                    METRICS.failed.incrementAndGet();
+                    StatusLogger.getLogger().error("Unable to compress {}", source, e);
+                } catch (InterruptedException e) {
+                    METRICS.failed.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            purge(target.getAbsoluteFile().getParentFile(), rolledFiles, activeFile, max);
+        }
+    }
+
+    /**
+     * Formatos de compresión disponibles.
+     */
+    enum Codec {
+        GZIP(".gz", Deflater.DEFAULT_COMPRESSION, -1, 9) {
+            @Override
+            OutputStream open(OutputStream output, int level) throws IOException {
+                return new GZIPOutputStream(output, BUFFER_SIZE) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+            }
+        },
+
+        ZSTD(".zst", 3, 1, 22) {
+            @Override
+            OutputStream open(OutputStream output, int level) throws IOException {
+                return Zstd.open(output, level);
+            }
+        };
+
+        final String extension;
+        final int defaultLevel;
+        private final int minLevel;
+        private final int maxLevel;
+
+        Codec(String extension, int defaultLevel, int minLevel, int maxLevel) {
+            this.extension = extension;
+            this.defaultLevel = defaultLevel;
+            this.minLevel = minLevel;
+            this.maxLevel = maxLevel;
+        }
+
+        static Codec of(String name) {
+            return switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "gz" -> GZIP;
+                case "zstd", "zst" -> {
+                    if (!Zstd.isAvailable()) {
+                        throw new IllegalArgumentException("zstd codec requires com.github.luben:zstd-jni on the classpath");
+                    }
+                    yield ZSTD;
+                }
+                default -> throw new IllegalArgumentException("unknown compression codec: " + name);
+            };
+        }
+
+        void checkLevel(int level) {
+            if (level < minLevel || level > maxLevel) {
+                throw new IllegalArgumentException(name().toLowerCase(Locale.ROOT) + " compression level must be between "
+                        + minLevel + " and " + maxLevel + ": " + level);
+            }
+        }
+
+        File withoutExtension(File file) {
+            String path = file.getPath();
+            return path.endsWith(extension) ? new File(path.substring(0, path.length() - extension.length())) : file;
+        }
+
+        abstract OutputStream open(OutputStream output, int level) throws IOException;
+    }
+
+    /**
+     * Acceso a zstd-jni en una clase aparte, para que la librería solo se cargue si se usa.
+     */
+    private static final class Zstd {
+        private static final String OUTPUT_STREAM = "com.github.luben.zstd.ZstdOutputStream";
+
+        static boolean isAvailable() {
+            try {
+                Class.forName(OUTPUT_STREAM, false, ThrottledRolloverStrategy.class.getClassLoader());
+                return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+        static OutputStream open(OutputStream output, int level) throws IOException {
+            return new com.github.luben.zstd.ZstdOutputStream(output, level);
+        }
+    }
+
+    private static final class Metrics implements RolloverCompressionMXBean {
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong lastNanos = new AtomicLong();
+        private final AtomicLong uncompressedBytes = new AtomicLong();
+        private final AtomicLong compressedBytes = new AtomicLong();
+
+        void record(long nanos, long uncompressed, long compressed) {
+            completed.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            lastNanos.set(nanos);
+            uncompressedBytes.addAndGet(uncompressed);
+            compressedBytes.addAndGet(compressed);
+        }
+
+        @Override
+        public int getQueueLength() {
+            return COMPRESSOR.getQueue().size();
+        }
+
+        @Override
+        public long getCompletedCount() {
+            return completed.get();
+        }
+
+        @Override
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        @Override
+        public long getTotalCompressionMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.get());
+        }
+
+        @Override
+        public long getLastCompressionMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(lastNanos.get());
+        }
+
+        @Override
+        public long getUncompressedBytes() {
+            return uncompressedBytes.get();
+        }
+
+        @Override
+        public long getCompressedBytes() {
+            return compressedBytes.get();
+        }
+    }
+}
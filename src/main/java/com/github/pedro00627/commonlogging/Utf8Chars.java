@@ -0,0 +1,119 @@
+package com.github.pedro00627.commonlogging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Vista como secuencia de caracteres de un rango de bytes UTF-8, sin decodificarlo.
+ * Cada byte se expone como un carácter: los bytes ASCII conservan su valor y los de secuencias
+ * multibyte quedan por encima de 0x7F, de modo que los validadores ASCII de la librería
+ * ({@link EmailMasker}) los rechazan igual que rechazarían el texto decodificado.
+ * Las instancias son mutables y se reutilizan por hilo; no deben guardarse.
+ */
+final class Utf8Chars implements CharSequence {
+    private static final ThreadLocal<Utf8Chars> THREAD_VIEW = ThreadLocal.withInitial(Utf8Chars::new);
+
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    /**
+     * Obtiene una vista sobre un rango de un arreglo.
+     *
+     * @param array El arreglo.
+     * @param offset El inicio del rango.
+     * @param length La longitud del rango en bytes.
+     * @return La vista.
+     */
+    static Utf8Chars of(byte[] array, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > array.length) {
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + (offset + length)
+                    + ") out of bounds for length " + array.length);
+        }
+        Utf8Chars view = view();
+        view.array = array;
+        view.buffer = null;
+        view.offset = offset;
+        view.length = length;
+        return view;
+    }
+
+    /**
+     * Obtiene una vista sobre los bytes restantes de un buffer, de su posición a su límite.
+     * Funciona igual con buffers en heap y directos, y no modifica la posición del buffer.
+     *
+     * @param buffer El buffer.
+     * @return La vista.
+     */
+    static Utf8Chars of(ByteBuffer buffer) {
+        Utf8Chars view = view();
+        if (buffer.hasArray()) {
+            view.array = buffer.array();
+            view.buffer = null;
+            view.offset = buffer.arrayOffset() + buffer.position();
+        } else {
+            view.array = null;
+            view.buffer = buffer;
+            view.offset = buffer.position();
+        }
+        view.length = buffer.remaining();
+        return view;
+    }
+
+    private static Utf8Chars view() {
+        Thread current = Thread.currentThread();
+        return current.isVirtual() ? new Utf8Chars() : THREAD_VIEW.get();
+    }
+
+    /**
+     * @param index La posición dentro del rango.
+     * @return El byte en esa posición.
+     */
+    byte byteAt(int index) {
+        return array != null ? array[offset + index] : buffer.get(offset + index);
+    }
+
+    /**
+     * @return true si todos los bytes del rango son ASCII.
+     */
+    boolean isAscii() {
+        for (int i = 0; i < length; i++) {
+            if (byteAt(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (byteAt(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    /**
+     * Decodifica el rango. Solo se usa en los casos poco frecuentes que no pueden resolverse
+     * sobre los bytes.
+     *
+     * @return El texto decodificado.
+     */
+    @Override
+    public String toString() {
+        if (array != null) {
+            return new String(array, offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] copy = new byte[length];
+        buffer.get(offset, copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+}
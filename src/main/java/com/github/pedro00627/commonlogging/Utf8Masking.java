@@ -0,0 +1,345 @@
+package com.github.pedro00627.commonlogging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Enmascaramiento de correos y documentos codificados en UTF-8, directamente sobre los bytes.
+ * Evita decodificar a String, enmascarar y volver a codificar cuando el valor llega en un
+ * byte[] o en un ByteBuffer (en heap o directo), como los cuerpos de petición de WebFlux.
+ * El resultado es byte a byte la codificación UTF-8 de {@link LogHelper#maskEmail(String)} y
+ * {@link LogHelper#maskDocument(String)} sobre el texto decodificado.
+ * <p>
+ * Cada operación tiene tres formas: sobre un rango de un arreglo hacia otro arreglo, de un
+ * ByteBuffer a otro, y en el sitio. El resultado enmascarado ocupa como mucho
+ * {@link #maxMaskedLength(int)} bytes; en el sitio solo se escribe si cabe en el rango original.
+ */
+public final class Utf8Masking {
+    private static final byte[] EMAIL_MASK = "***".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DOCUMENT_MASK = "****".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HIDDEN_DOCUMENT = DocumentMasker.HIDDEN_DOCUMENT.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID_EMAIL = EmailMasker.INVALID_EMAIL.getBytes(StandardCharsets.US_ASCII);
+    private static final int VISIBLE_SUFFIX = 4;
+    private static final int NONE = -1;
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase de utilidad.
+     */
+    private Utf8Masking() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Calcula el tamaño máximo del resultado enmascarado, para dimensionar el destino.
+     *
+     * @param length La longitud en bytes del valor original.
+     * @return El número máximo de bytes que puede ocupar el valor enmascarado.
+     */
+    public static int maxMaskedLength(int length) {
+        return Math.max(length + 2, INVALID_EMAIL.length);
+    }
+
+    /**
+     * Indica si un rango de bytes contiene un correo válido según las reglas de maskEmail.
+     *
+     * @param source El arreglo de origen.
+     * @param offset El inicio del rango.
+     * @param length La longitud del rango.
+     * @return true si el rango es un correo válido.
+     */
+    public static boolean isValidEmail(byte[] source, int offset, int length) {
+        return EmailMasker.validate(Utf8Chars.of(source, offset, length)) >= 0;
+    }
+
+    /**
+     * Escribe en el destino el correo enmascarado del rango de origen.
+     *
+     * @param source El arreglo de origen.
+     * @param offset El inicio del rango.
+     * @param length La longitud del rango.
+     * @param target El arreglo de destino, con espacio para {@link #maxMaskedLength(int)} bytes.
+     * @param targetOffset La posición del destino donde empezar a escribir.
+     * @return El número de bytes escritos.
+     */
+    public static int maskEmail(byte[] source, int offset, int length, byte[] target, int targetOffset) {
+        Utf8Chars email = Utf8Chars.of(source, offset, length);
+        return write(email, planEmail(email), target, targetOffset);
+    }
+
+    /**
+     * Escribe en el destino el correo enmascarado de los bytes restantes del origen. La posición
+     * del origen no cambia; la del destino avanza lo escrito.
+     *
+     * @param source El buffer de origen, en heap o directo.
+     * @param target El buffer de destino.
+     * @throws java.nio.BufferOverflowException Si el destino no tiene espacio suficiente.
+     */
+    public static void maskEmail(ByteBuffer source, ByteBuffer target) {
+        Utf8Chars email = Utf8Chars.of(source);
+        write(email, planEmail(email), target);
+    }
+
+    /**
+     * Enmascara en el sitio el correo del rango indicado, si el resultado cabe en el rango.
+     * Los correos con parte local de al menos 5 caracteres siempre caben.
+     *
+     * @param bytes El arreglo.
+     * @param offset El inicio del rango.
+     * @param length La longitud del rango.
+     * @return La nueva longitud del valor, o -1 si el resultado no cabe y el rango no se modificó.
+     */
+    public static int maskEmailInPlace(byte[] bytes, int offset, int length) {
+        Utf8Chars email = Utf8Chars.of(bytes, offset, length);
+        long plan = planEmail(email);
+        if (maskedLength(email, plan) > length) {
+            return -1;
+        }
+        return write(email, plan, bytes, offset);
+    }
+
+    /**
+     * Enmascara en el sitio el correo de los bytes restantes del buffer, si el resultado cabe.
+     * Al terminar, el límite del buffer marca el final del valor enmascarado.
+     *
+     * @param buffer El buffer, en heap o directo.
+     * @return true si se enmascaró; false si el resultado no cabe y el buffer no se modificó.
+     */
+    public static boolean maskEmailInPlace(ByteBuffer buffer) {
+        Utf8Chars email = Utf8Chars.of(buffer);
+        return writeInPlace(email, planEmail(email), buffer);
+    }
+
+    /**
+     * Escribe en el destino el documento enmascarado del rango de origen.
+     *
+     * @param source El arreglo de origen.
+     * @param offset El inicio del rango.
+     * @param length La longitud del rango.
+     * @param target El arreglo de destino, con espacio para {@link #maxMaskedLength(int)} bytes.
+     * @param targetOffset La posición del destino donde empezar a escribir.
+     * @return El número de bytes escritos.
+     */
+    public static int maskDocument(byte[] source, int offset, int length, byte[] target, int targetOffset) {
+        Utf8Chars document = Utf8Chars.of(source, offset, length);
+        if (!document.isAscii()) {
+            return writeDecoded(document, target, targetOffset);
+        }
+        return write(document, planDocument(document), target, targetOffset);
+    }
+
+    /**
+     * Escribe en el destino el documento enmascarado de los bytes restantes del origen. La
+     * posición del origen no cambia; la del destino avanza lo escrito.
+     *
+     * @param source El buffer de origen, en heap o directo.
+     * @param target El buffer de destino.
+     * @throws java.nio.BufferOverflowException Si el destino no tiene espacio suficiente.
+     */
+    public static void maskDocument(ByteBuffer source, ByteBuffer target) {
+        Utf8Chars document = Utf8Chars.of(source);
+        if (!document.isAscii()) {
+            target.put(decodedDocument(document));
+            return;
+        }
+        write(document, planDocument(document), target);
+    }
+
+    /**
+     * Enmascara en el sitio el documento del rango indicado, si el resultado cabe en el rango.
+     * Los documentos ASCII de 6 caracteres o de 9 o más siempre caben.
+     *
+     * @param bytes El arreglo.
+     * @param offset El inicio del rango.
+     * @param length La longitud del rango.
+     * @return La nueva longitud del valor, o -1 si el resultado no cabe y el rango no se modificó.
+     */
+    public static int maskDocumentInPlace(byte[] bytes, int offset, int length) {
+        Utf8Chars document = Utf8Chars.of(bytes, offset, length);
+        if (!document.isAscii()) {
+            byte[] masked = decodedDocument(document);
+            if (masked.length > length) {
+                return -1;
+            }
+            System.arraycopy(masked, 0, bytes, offset, masked.length);
+            return masked.length;
+        }
+        long plan = planDocument(document);
+        if (maskedLength(document, plan) > length) {
+            return -1;
+        }
+        return write(document, plan, bytes, offset);
+    }
+
+    /**
+     * Enmascara en el sitio el documento de los bytes restantes del buffer, si el resultado cabe.
+     * Al terminar, el límite del buffer marca el final del valor enmascarado.
+     *
+     * @param buffer El buffer, en heap o directo.
+     * @return true si se enmascaró; false si el resultado no cabe y el buffer no se modificó.
+     */
+    public static boolean maskDocumentInPlace(ByteBuffer buffer) {
+        Utf8Chars document = Utf8Chars.of(buffer);
+        if (!document.isAscii()) {
+            byte[] masked = decodedDocument(document);
+            if (masked.length > buffer.remaining()) {
+                return false;
+            }
+            buffer.put(buffer.position(), masked);
+            buffer.limit(buffer.position() + masked.length);
+            return true;
+        }
+        return writeInPlace(document, planDocument(document), buffer);
+    }
+
+    /*
+     * Un plan describe el resultado sin crear objetos: byte inicial opcional, máscara constante,
+     * byte intermedio opcional y copia de un rango del origen. Para un correo es la posición de
+     * la arroba (-1 si no es válido); para un documento ASCII, su longitud con el bit de signo
+     * activado, lo que lo distingue de cualquier plan de correo.
+     */
+
+    /**
+     * Plan de un correo: sin arroba válida, la constante de correo inválido; con parte local de
+     * hasta 2 caracteres, "***" y el dominio; si no, primer carácter, "***", último carácter de
+     * la parte local y el dominio.
+     *
+     * @return La posición de la arroba, o -1 si el correo no es válido.
+     */
+    private static long planEmail(Utf8Chars email) {
+        return EmailMasker.validate(email);
+    }
+
+    /**
+     * Plan de un documento ASCII: su longitud, que determina el formato.
+     */
+    private static long planDocument(Utf8Chars document) {
+        return Long.MIN_VALUE | document.length();
+    }
+
+    private static int maskedLength(Utf8Chars value, long plan) {
+        int first = first(plan);
+        int second = second(plan);
+        return (first != NONE ? 1 : 0) + constant(plan).length + (second != NONE ? 1 : 0)
+                + copyEnd(value, plan) - copyStart(plan);
+    }
+
+    private static int write(Utf8Chars value, long plan, byte[] target, int targetOffset) {
+        int first = first(plan);
+        int second = second(plan);
+        byte firstByte = first != NONE ? value.byteAt(first) : 0;
+        byte secondByte = second != NONE ? value.byteAt(second) : 0;
+        int position = targetOffset;
+        if (first != NONE) {
+            target[position++] = firstByte;
+        }
+        byte[] constant = constant(plan);
+        System.arraycopy(constant, 0, target, position, constant.length);
+        position += constant.length;
+        if (second != NONE) {
+            target[position++] = secondByte;
+        }
+        for (int i = copyStart(plan), end = copyEnd(value, plan); i < end; i++) {
+            target[position++] = value.byteAt(i);
+        }
+        return position - targetOffset;
+    }
+
+    private static void write(Utf8Chars value, long plan, ByteBuffer target) {
+        int first = first(plan);
+        int second = second(plan);
+        if (first != NONE) {
+            target.put(value.byteAt(first));
+        }
+        target.put(constant(plan));
+        if (second != NONE) {
+            target.put(value.byteAt(second));
+        }
+        for (int i = copyStart(plan), end = copyEnd(value, plan); i < end; i++) {
+            target.put(value.byteAt(i));
+        }
+    }
+
+    /**
+     * Escribe el resultado sobre el propio buffer. Los bytes que se leen después de escribir
+     * siempre están a la derecha de lo ya escrito, así que la copia hacia delante es segura.
+     */
+    private static boolean writeInPlace(Utf8Chars value, long plan, ByteBuffer buffer) {
+        int length = maskedLength(value, plan);
+        if (length > buffer.remaining()) {
+            return false;
+        }
+        int first = first(plan);
+        int second = second(plan);
+        byte secondByte = second != NONE ? value.byteAt(second) : 0;
+        int start = buffer.position();
+        int position = start;
+        if (first != NONE) {
+            buffer.put(position++, value.byteAt(first));
+        }
+        byte[] constant = constant(plan);
+        buffer.put(position, constant);
+        position += constant.length;
+        if (second != NONE) {
+            buffer.put(position++, secondByte);
+        }
+        for (int i = copyStart(plan), end = copyEnd(value, plan); i < end; i++) {
+            buffer.put(position++, value.byteAt(i));
+        }
+        buffer.limit(start + length);
+        return true;
+    }
+
+    private static boolean isDocument(long plan) {
+        return plan < NONE;
+    }
+
+    private static byte[] constant(long plan) {
+        if (isDocument(plan)) {
+            return (int) plan < DocumentMasker.MIN_LENGTH ? HIDDEN_DOCUMENT : DOCUMENT_MASK;
+        }
+        return plan < 0 ? INVALID_EMAIL : EMAIL_MASK;
+    }
+
+    private static int first(long plan) {
+        if (isDocument(plan)) {
+            return (int) plan < DocumentMasker.MIN_LENGTH ? NONE : 0;
+        }
+        return plan > 2 ? 0 : NONE;
+    }
+
+    private static int second(long plan) {
+        if (isDocument(plan)) {
+            return (int) plan == DocumentMasker.MIN_LENGTH ? DocumentMasker.MIN_LENGTH - 1 : NONE;
+        }
+        return plan > 2 ? (int) plan - 1 : NONE;
+    }
+
+    private static int copyStart(long plan) {
+        if (isDocument(plan)) {
+            return (int) plan > DocumentMasker.MIN_LENGTH ? (int) plan - VISIBLE_SUFFIX : 0;
+        }
+        return plan < 0 ? 0 : (int) plan;
+    }
+
+    private static int copyEnd(Utf8Chars value, long plan) {
+        if (isDocument(plan)) {
+            return (int) plan > DocumentMasker.MIN_LENGTH ? (int) plan : 0;
+        }
+        return plan < 0 ? 0 : value.length();
+    }
+
+    /**
+     * Documentos con caracteres no ASCII: la longitud en caracteres no coincide con la de bytes,
+     * así que se decodifica y se aplica {@link DocumentMasker}. Los documentos reales son
+     * numéricos y no pasan por aquí.
+     */
+    private static byte[] decodedDocument(Utf8Chars document) {
+        return DocumentMasker.mask(document.toString()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int writeDecoded(Utf8Chars document, byte[] target, int targetOffset) {
+        byte[] masked = decodedDocument(document);
+        System.arraycopy(masked, 0, target, targetOffset, masked.length);
+        return masked.length;
+    }
+}
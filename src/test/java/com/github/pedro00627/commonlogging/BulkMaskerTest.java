@@ -0,0 +1,64 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkMaskerTest {
+
+    @Test
+    void testMaskAll_matchesSingleElementMasking() {
+        String[] emails = {"test.user@pragma.com.co", "ab@example.com", "invalid-email", null};
+        String[] output = new String[emails.length];
+
+        BulkMasker.maskAll(MaskType.EMAIL, emails, output);
+
+        assertArrayEquals(new String[] {"t***r@pragma.com.co", "***@example.com", "invalid-email-format",
+            "invalid-email-format"}, output);
+    }
+
+    @Test
+    void testMaskAll_listInput() {
+        String[] output = new String[3];
+
+        BulkMasker.maskAll(MaskType.DOCUMENT, List.of("1234567890", "123456", "123"), output);
+
+        assertArrayEquals(new String[] {"1****7890", "1****6", "***"}, output);
+    }
+
+    @Test
+    void testMaskAll_outputTooShort() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkMasker.maskAll(MaskType.EMAIL, new String[2], new String[1]));
+    }
+
+    @Test
+    void testParallelMaskAll_matchesSequential() {
+        String[] documents = new String[BulkMasker.PARALLEL_THRESHOLD * 4 + 7];
+        for (int i = 0; i < documents.length; i++) {
+            documents[i] = Integer.toString(1_000_000 + i * 37);
+        }
+        String[] sequential = new String[documents.length];
+        String[] parallel = new String[documents.length];
+        String[] fromLinkedList = new String[documents.length];
+
+        BulkMasker.maskAll(MaskType.DOCUMENT, documents, sequential);
+        BulkMasker.parallelMaskAll(MaskType.DOCUMENT, documents, parallel);
+        BulkMasker.parallelMaskAll(MaskType.DOCUMENT, new LinkedList<>(Arrays.asList(documents)), fromLinkedList);
+
+        assertArrayEquals(sequential, parallel);
+        assertArrayEquals(sequential, fromLinkedList);
+    }
+
+    @Test
+    void testToMaskedList_keepsOrderInParallel() {
+        List<String> emails = List.of("john.doe@example.com", "abc@example.com", "bad");
+
+        assertEquals(List.of("j***e@example.com", "a***c@example.com", "invalid-email-format"),
+                emails.parallelStream().collect(BulkMasker.toMaskedList(MaskType.EMAIL)));
+    }
+}
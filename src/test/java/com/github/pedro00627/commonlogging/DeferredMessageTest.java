@@ -0,0 +1,72 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeferredMessageTest {
+
+    private final TemplateMessageFactory deferredFactory = new TemplateMessageFactory(true, true);
+
+    @Test
+    void testFactory_deferredModeCreatesAsynchronouslyFormattableMessages() {
+        Message message = deferredFactory.newMessage("order {} ready", 42);
+
+        assertFalse(message instanceof ReusableMessage);
+        assertTrue(message.getClass().isAnnotationPresent(AsynchronouslyFormattable.class));
+        assertEquals("order 42 ready", message.getFormattedMessage());
+    }
+
+    @Test
+    void testGetThrowable_sharesTemplateLookupWithFormatting() {
+        MessageTemplateCache cache = MessageFormatter.templateCache();
+        IllegalStateException failure = new IllegalStateException("boom");
+        Message message = deferredFactory.newMessage("order {} failed", 42, failure);
+        long lookups = cache.hitCount() + cache.missCount();
+
+        assertSame(failure, message.getThrowable());
+        assertEquals("order 42 failed", message.getFormattedMessage());
+
+        assertEquals(lookups + 1, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    void testSnapshot_keepsImmutableArgumentsByReference() {
+        Long amount = 125_000L;
+        String customer = "customer-1234";
+
+        Object[] parameters = deferredFactory.newMessage("{} {}", customer, amount).getParameters();
+
+        assertSame(customer, parameters[0]);
+        assertSame(amount, parameters[1]);
+    }
+
+    @Test
+    void testSnapshot_stringifiesMutableArgumentsEagerly() {
+        StringBuilder state = new StringBuilder("before");
+        Object[] args = {state};
+
+        Message message = deferredFactory.newMessage("state {}", args);
+        state.replace(0, state.length(), "after");
+        args[0] = "replaced";
+
+        assertEquals("state before", message.getFormattedMessage());
+    }
+
+    @Test
+    void testSnapshot_resolvesLazyArgumentsOnCallerThread() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Message message = deferredFactory.newMessage("value {}", LazyArgument.of(calls::incrementAndGet));
+
+        assertEquals(1, calls.get());
+        assertEquals("value 1", message.getFormattedMessage());
+        assertEquals(1, calls.get());
+    }
+}
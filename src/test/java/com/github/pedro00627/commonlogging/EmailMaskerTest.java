@@ -0,0 +1,86 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailMaskerTest {
+
+    /**
+     * Expresión regular de referencia, la que usaba LogHelper antes de la máquina de estados.
+     */
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile(
+            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+
+    private static final String ALPHABET = "abcXYZ019._-+&*@@..#é \n";
+
+    @Test
+    void testValidate_edgeCases() {
+        assertEquals(4, EmailMasker.validate("test@example.com"));
+        assertEquals(5, EmailMasker.validate("a.b-c@x-1.y.abcdefg"));
+        assertEquals(-1, EmailMasker.validate("test@example.abcdefgh")); // TLD too long
+        assertEquals(-1, EmailMasker.validate("test@example.c0m"));
+        assertEquals(-1, EmailMasker.validate("te..st@example.com"));
+        assertEquals(-1, EmailMasker.validate(".test@example.com"));
+        assertEquals(-1, EmailMasker.validate("test.@example.com"));
+        assertEquals(-1, EmailMasker.validate("test@example..com"));
+        assertEquals(-1, EmailMasker.validate("test@ex@ample.com"));
+        assertEquals(-1, EmailMasker.validate("test@example.com."));
+        assertEquals(-1, EmailMasker.validate("test@example.com\n"));
+        assertEquals(-1, EmailMasker.validate(""));
+        assertEquals(-1, EmailMasker.validate(null));
+    }
+
+    @Test
+    void testMask_matchesRegexOnRandomInputs() {
+        Random random = new Random(20240611L);
+        for (int i = 0; i < 200_000; i++) {
+            String candidate = i % 2 == 0 ? randomString(random) : mutatedEmail(random);
+            assertEquals(referenceMask(candidate), EmailMasker.mask(candidate), () -> "input: " + candidate);
+        }
+    }
+
+    private static String randomString(Random random) {
+        int length = random.nextInt(24);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    private static String mutatedEmail(Random random) {
+        StringBuilder builder = new StringBuilder("first.last+tag@sub-1.example.");
+        int tldLength = 1 + random.nextInt(8);
+        for (int i = 0; i < tldLength; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        int mutations = random.nextInt(3);
+        for (int i = 0; i < mutations; i++) {
+            int position = random.nextInt(builder.length() + 1);
+            char replacement = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            if (position < builder.length() && random.nextBoolean()) {
+                builder.setCharAt(position, replacement);
+            } else {
+                builder.insert(position, replacement);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Implementación de referencia: la versión de maskEmail basada en la expresión regular.
+     */
+    private static String referenceMask(String email) {
+        if (email == null || !REFERENCE_PATTERN.matcher(email).matches()) {
+            return "invalid-email-format";
+        }
+        int atIndex = email.indexOf('@');
+        String localPart = email.substring(0, atIndex);
+        if (localPart.length() <= 2) {
+            return "***" + email.substring(atIndex);
+        }
+        return localPart.charAt(0) + "***" + localPart.charAt(localPart.length() - 1) + email.substring(atIndex);
+    }
+}
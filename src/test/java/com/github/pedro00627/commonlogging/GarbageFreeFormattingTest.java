@@ -0,0 +1,72 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GarbageFreeFormattingTest {
+
+    private static final String TEMPLATE = "order {} for customer {} paid={} channel={} items={}";
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Test
+    void testFormatTo_primitiveArgsAllocateNothing() {
+        Object[] args = {1234567890123L, 42, true, 'W', (short) 7};
+
+        assertEquals(0, allocatedBytesPerCall(args));
+    }
+
+    @Test
+    void testFormatTo_stringArgsAllocateNothing() {
+        Object[] args = {"ORD-99812", "customer-1234", "yes", "web", "3"};
+
+        assertEquals(0, allocatedBytesPerCall(args));
+    }
+
+    @Test
+    void testAcquire_reentrantCallGetsSeparateBuffer() {
+        StringBuilder outer = ReusableBuffers.acquire();
+        StringBuilder inner = ReusableBuffers.acquire();
+        try {
+            outer.append("outer");
+            inner.append("inner");
+            assertEquals("outer", outer.toString());
+        } finally {
+            ReusableBuffers.release(inner);
+            ReusableBuffers.release(outer);
+        }
+
+        StringBuilder reused = ReusableBuffers.acquire();
+        try {
+            assertSame(outer, reused);
+            assertEquals(0, reused.length());
+        } finally {
+            ReusableBuffers.release(reused);
+        }
+    }
+
+    private static long allocatedBytesPerCall(Object[] args) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            formatOnce(args);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            formatOnce(args);
+        }
+        long after = threads.getCurrentThreadAllocatedBytes();
+        return (after - before) / MEASURED_ITERATIONS;
+    }
+
+    private static void formatOnce(Object[] args) {
+        StringBuilder buffer = ReusableBuffers.acquire();
+        try {
+            MessageFormatter.formatTo(buffer, TEMPLATE, args);
+        } finally {
+            ReusableBuffers.release(buffer);
+        }
+    }
+}
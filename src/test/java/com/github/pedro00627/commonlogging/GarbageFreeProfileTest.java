@@ -0,0 +1,62 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registra un millón de eventos con LogHelper a través de todo Log4j2 (evento, layout JSON y
+ * appender de archivo) con el perfil profiles/garbage-free.yaml, y comprueba que en estado
+ * estable no se crea basura en el hilo que registra.
+ * Necesita arrancar la JVM con las propiedades del perfil, así que se ejecuta en su propia
+ * tarea: ./gradlew garbageFreeTest
+ */
+@Tag("garbage-free")
+class GarbageFreeProfileTest {
+
+    private static final int WARMUP_EVENTS = 200_000;
+    private static final int MEASURED_EVENTS = 1_000_000;
+
+    /**
+     * Margen para las rotaciones de archivo, que crean algunos objetos cada 50 MB escritos.
+     */
+    private static final double MAX_BYTES_PER_EVENT = 1.0;
+
+    @Test
+    void testLogging_allocatesNearZeroBytesPerEvent() throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String customer = "customer-1234";
+        Integer items = 3;
+        Long amount = 125_000L;
+
+        for (int i = 0; i < WARMUP_EVENTS; i++) {
+            LogHelper.info("order for {} with {} items and amount {}", customer, items, amount);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_EVENTS; i++) {
+            LogHelper.info("order for {} with {} items and amount {}", customer, items, amount);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        double perEvent = (double) allocated / MEASURED_EVENTS;
+        assertTrue(perEvent <= MAX_BYTES_PER_EVENT,
+                "allocated " + allocated + " bytes for " + MEASURED_EVENTS + " events (" + perEvent + " per event)");
+        assertTrue(writtenBytes() > 0, "events were not written to " + System.getProperty("LOG_PATH"));
+    }
+
+    private static long writtenBytes() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("LOG_PATH")))) {
+            long total = 0;
+            for (Path file : files.toList()) {
+                total += Files.size(file);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.pedro00627.commonlogging;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonRedactorTest {
+
+    private static final JsonRedactor REDACTOR = JsonRedactor.builder()
+            .mask("customer.email", MaskType.EMAIL)
+            .mask("customer.document", MaskType.DOCUMENT)
+            .mask("items.card", MaskType.CARD)
+            .mask("credentials", MaskType.TOKEN)
+            .build();
+
+    @Test
+    void testRedact_configuredPathsAreMasked() {
+        String json = """
+                {
+                  "customer": {"name": "Ana", "email": "test.user@pragma.com.co", "document": 1234567890},
+                  "items": [{"card": "4111 1111 1111 1111", "qty": 2}, {"card": null}],
+                  "credentials": {"user": "ana", "password": "secret"}
+                }""";
+
+        assertEquals("{\"customer\":{\"name\":\"Ana\",\"email\":\"t***r@pragma.com.co\",\"document\":\"1****7890\"},"
+                + "\"items\":[{\"card\":\"**** **** **** 1111\",\"qty\":2},{\"card\":null}],"
+                + "\"credentials\":\"***\"}", REDACTOR.redact(json));
+    }
+
+    @Test
+    void testRedact_autoDetectsPiiOutsidePaths() {
+        String json = "{\"note\":\"contactar a ana.maria@mail.com o al 1234567890\",\"email\":\"x.y@z.com\",\"ok\":true}";
+
+        assertEquals("{\"note\":\"contactar a a***a@mail.com o al 1****7890\",\"email\":\"x***y@z.com\",\"ok\":true}",
+                REDACTOR.redact(json));
+        assertEquals("{\"note\":\"ana.maria@mail.com\"}", JsonRedactor.builder().autoDetect(false).build()
+                .redact("{ \"note\" : \"ana.maria@mail.com\" }"));
+    }
+
+    @Test
+    void testRedact_pathsOnlyMatchFromRoot() {
+        assertEquals("{\"email\":\"test.user@pragma.com.co\",\"other\":{\"customer\":{\"email\":\"raw@x\"}}}",
+                JsonRedactor.builder().autoDetect(false).mask("customer.email", MaskType.EMAIL).build()
+                        .redact("{\"email\":\"test.user@pragma.com.co\",\"other\":{\"customer\":{\"email\":\"raw@x\"}}}"));
+    }
+
+    @Test
+    void testRedact_escapedKeysAndValues() {
+        String json = "{\"customer\":{\"em\\u0061il\":\"test.user@pragma.com.co\",\"document\":\"12\\\"34567890\"},"
+                + "\"text\":\"linea\\n\\\"citada\\\"\"}";
+
+        assertEquals("{\"customer\":{\"em\\u0061il\":\"t***r@pragma.com.co\",\"document\":\"1****7890\"},"
+                + "\"text\":\"linea\\n\\\"citada\\\"\"}", REDACTOR.redact(json));
+    }
+
+    @Test
+    void testRedact_truncatesAtByteBudget() {
+        JsonRedactor redactor = JsonRedactor.builder().maxBytes(40).build();
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 100_000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\":\"ñandú\",\"id\":").append(i).append('}');
+        }
+        json.append("]}");
+
+        String redacted = redactor.redact(json);
+
+        assertTrue(redacted.endsWith(JsonRedactor.TRUNCATED_SUFFIX), redacted);
+        String content = redacted.substring(0, redacted.length() - JsonRedactor.TRUNCATED_SUFFIX.length());
+        assertTrue(content.getBytes(StandardCharsets.UTF_8).length <= 40, content);
+        assertTrue(content.startsWith("{\"items\":[{\"name\":\"ñandú\""), content);
+    }
+
+    @Test
+    void testRedact_longStringIsCutWithoutScanningIt() {
+        JsonRedactor redactor = JsonRedactor.builder().maxBytes(16).build();
+        String json = "{\"blob\":\"" + "a".repeat(1_000_000) + "\"}";
+
+        assertEquals("{\"blob\":\"aaaaaaa" + JsonRedactor.TRUNCATED_SUFFIX, redactor.redact(json));
+    }
+
+    @Test
+    void testRedact_numberLiteralsAreDetected() {
+        String json = "{\"documentId\":1234567890,\"qty\":3,\"amount\":-12.5e3,\"ids\":[9876543210]}";
+
+        assertEquals("{\"documentId\":\"1****7890\",\"qty\":3,\"amount\":-12.5e3,\"ids\":[\"9****3210\"]}",
+                REDACTOR.redact(json));
+        assertEquals("{\"documentId\":1234567890}",
+                JsonRedactor.builder().autoDetect(false).build().redact("{\"documentId\":1234567890}"));
+    }
+
+    @Test
+    void testRedact_maskedValuesAreReadWithinBudget() {
+        JsonRedactor redactor = JsonRedactor.builder()
+                .mask("token", MaskType.TOKEN)
+                .mask("card", MaskType.CARD)
+                .maxBytes(16)
+                .build();
+        String blob = "\\u0061".repeat(200_000);
+
+        assertEquals("{\"token\":\"***\"" + JsonRedactor.TRUNCATED_SUFFIX,
+                redactor.redact("{\"token\":\"" + blob + "\"}"));
+        assertEquals("{\"token\":\"***\"" + JsonRedactor.TRUNCATED_SUFFIX,
+                redactor.redact("{\"token\":[\"" + blob + "\"]}"));
+        assertEquals("{\"card\":\"***\"" + JsonRedactor.TRUNCATED_SUFFIX,
+                redactor.redact("{\"card\":" + "4".repeat(200_000) + "}"));
+    }
+
+    @Test
+    void testRedact_invalidJsonWithoutPathsIsRedactedAsText() {
+        JsonRedactor redactor = JsonRedactor.builder().build();
+
+        assertEquals("user: t***r@pragma.com.co, doc 1****7890",
+                redactor.redact("user: test.user@pragma.com.co, doc 1234567890"));
+        assertEquals("{\"email\": \"t***r@pragma.com.co\"", redactor.redact("{\"email\": \"test.user@pragma.com.co\""));
+        assertNull(redactor.redact(null));
+    }
+
+    @Test
+    void testRedact_invalidJsonKeepsMaskedPrefix() {
+        assertEquals("{\"email\":\"t***r@pragma.com.co\"" + JsonRedactor.INVALID_SUFFIX,
+                REDACTOR.redact("{\"email\": \"test.user@pragma.com.co\""));
+        assertEquals(JsonRedactor.INVALID_SUFFIX, REDACTOR.redact("user: test.user@pragma.com.co"));
+        assertEquals("[".repeat(JsonRedactor.MAX_DEPTH) + JsonRedactor.INVALID_SUFFIX,
+                REDACTOR.redact("[".repeat(70) + "]".repeat(70)));
+    }
+
+    @Test
+    void testRedact_malformedInputNeverLeaksConfiguredPaths() {
+        JsonRedactor redactor = JsonRedactor.builder()
+                .mask("customer.card", MaskType.CARD)
+                .mask("token", MaskType.TOKEN)
+                .build();
+        String document = "{\"customer\":{\"card\":\"4111 1111 1111 1111\"},\"token\":\"abcSECRETxyz\"}";
+        String nested = "{\"a\":".repeat(70) + "{\"token\":\"abcSECRETxyz\"}" + "}".repeat(70);
+        String[] bodies = {
+                "{\"customer\":{\"card\":\"4111 1111 1111 1111\"},\"token\":\"abcSECRETxyz\",}",
+                document + "\n" + document,
+                document + document,
+                "{\"customer\":{\"card\":\"4111 1111 1111 1111\"},\"token\":\"abcSECRETxyz",
+                "{\"customer\":{\"card\":\"4111 1111 1111 1111\"}}} \"token\":\"abcSECRETxyz\"",
+                nested,
+                "token=abcSECRETxyz card=4111 1111 1111 1111"
+        };
+
+        for (String body : bodies) {
+            String redacted = redactor.redact(body);
+            assertFalse(redacted.contains("4111 1111 1111 1111"), redacted);
+            assertFalse(redacted.contains("SECRET"), redacted);
+            assertTrue(redacted.endsWith(JsonRedactor.INVALID_SUFFIX), redacted);
+        }
+    }
+
+    @Test
+    void testRedact_unicodeEscapesStayValid() {
+        String json = "{\"note\":\"\\u00e1lvaro@mail.com\",\"city\":\"Medell\\u00edn \\\"centro\\\"\"}";
+
+        String redacted = REDACTOR.redact(json);
+
+        assertFalse(redacted.contains("\\u***"), redacted);
+        assertFalse(redacted.contains("lvaro@"), redacted);
+        assertTrue(redacted.contains("@mail.com\""), redacted);
+        assertTrue(redacted.endsWith(",\"city\":\"Medellín \\\"centro\\\"\"}"), redacted);
+    }
+
+    @Test
+    void testBuilder_invalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> JsonRedactor.builder().mask("customer..email", MaskType.EMAIL));
+        assertThrows(IllegalArgumentException.class, () -> JsonRedactor.builder().mask("", MaskType.EMAIL));
+        assertThrows(IllegalArgumentException.class, () -> JsonRedactor.builder().maxBytes(0));
+    }
+}
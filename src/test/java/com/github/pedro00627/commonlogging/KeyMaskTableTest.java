@@ -0,0 +1,59 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyMaskTableTest {
+
+    @Test
+    void testIndexOf_configuredAndUnknownKeys() {
+        Map<String, MaskType> masks = new LinkedHashMap<>();
+        masks.put("userEmail", MaskType.EMAIL);
+        masks.put("documentId", MaskType.DOCUMENT);
+        masks.put("note", null);
+        KeyMaskTable table = KeyMaskTable.of(masks);
+
+        assertEquals(MaskType.EMAIL, table.typeAt(table.indexOf("userEmail")));
+        assertEquals(MaskType.DOCUMENT, table.typeAt(table.indexOf(new String("documentId"))));
+        assertNull(table.typeAt(table.indexOf("note")));
+        assertEquals(-1, table.indexOf("traceId"));
+        assertEquals(-1, table.indexOf(""));
+        assertEquals(-1, KeyMaskTable.EMPTY.indexOf("userEmail"));
+        assertFalse(table.probing());
+    }
+
+    @Test
+    void testIndexOf_collisionFreeTableChecksOneSlot() {
+        Map<String, MaskType> masks = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            masks.put("key" + i, MaskType.TOKEN);
+        }
+        KeyMaskTable table = KeyMaskTable.of(masks);
+
+        assertFalse(table.probing());
+        for (String key : masks.keySet()) {
+            assertEquals(MaskType.TOKEN, table.typeAt(table.indexOf(key)));
+        }
+        for (int i = 200; i < 2000; i++) {
+            assertEquals(-1, table.indexOf("key" + i));
+        }
+    }
+
+    @Test
+    void testIndexOf_keysWithSameHashCode() {
+        Map<String, MaskType> masks = new LinkedHashMap<>();
+        masks.put("Aa", MaskType.EMAIL);
+        masks.put("BB", MaskType.DOCUMENT);
+        KeyMaskTable table = KeyMaskTable.of(masks);
+
+        assertEquals(MaskType.EMAIL, table.typeAt(table.indexOf("Aa")));
+        assertEquals(MaskType.DOCUMENT, table.typeAt(table.indexOf("BB")));
+        assertEquals(-1, table.indexOf("C#"));
+        assertTrue(table.probing());
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.pedro00627.commonlogging;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevelGateTest {
+
+    @Test
+    void testGate_cachesProbeUntilInvalidated() throws Throwable {
+        AtomicBoolean enabled = new AtomicBoolean(true);
+        AtomicInteger probes = new AtomicInteger();
+        MethodHandle gate = new LevelGate(() -> {
+            probes.incrementAndGet();
+            return enabled.get();
+        }).invoker();
+
+        assertTrue((boolean) gate.invokeExact());
+        enabled.set(false);
+        assertTrue((boolean) gate.invokeExact());
+        assertEquals(1, probes.get());
+
+        LevelGate.invalidateAll();
+
+        assertFalse((boolean) gate.invokeExact());
+        assertFalse((boolean) gate.invokeExact());
+        assertEquals(2, probes.get());
+    }
+}
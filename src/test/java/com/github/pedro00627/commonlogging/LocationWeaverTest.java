@@ -0,0 +1,329 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocationWeaverTest {
+
+    /**
+     * Clase tejida en las pruebas. Es pública porque se carga en otro cargador de clases.
+     */
+    public static final class Caller {
+        public static void run(LoggerPort port) {
+            port.info("first");
+            port.warn("second {}", 2);
+        }
+    }
+
+    /**
+     * Clase tejida cuyas llamadas lanzan excepciones.
+     */
+    public static final class Thrower {
+        public static void run(LoggerPort port) {
+            try {
+                port.info("value {}", (Supplier<?>) () -> {
+                    throw new IllegalStateException("supplier failed");
+                });
+            } catch (IllegalStateException e) {
+                port.warn("recovered");
+            }
+        }
+
+        public static void propagate(LoggerPort port) {
+            port.warn("fails");
+        }
+    }
+
+    /**
+     * Clase tejida con una llamada hecha mientras se formatea el argumento de otra.
+     */
+    public static final class Nested {
+        public static void run(LoggerPort port) {
+            port.info("outer {}", (Supplier<?>) () -> {
+                port.warn("inner");
+                return "value";
+            });
+        }
+    }
+
+    /**
+     * Implementación tejida de LoggerPort que delega en otra.
+     */
+    public static final class Delegating implements LoggerPort {
+        private final LoggerPort delegate;
+
+        public Delegating(LoggerPort delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void info(String message, Object... args) {
+            delegate.info(message, args);
+        }
+
+        @Override
+        public void warn(String message, Object... args) {
+            delegate.warn(message, args);
+        }
+
+        @Override
+        public void debug(String message, Object... args) {
+            delegate.debug(message, args);
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            delegate.error(message, throwable);
+        }
+
+        @Override
+        public String maskEmail(String email) {
+            return delegate.maskEmail(email);
+        }
+
+        @Override
+        public String maskDocument(String documentId) {
+            return delegate.maskDocument(documentId);
+        }
+    }
+
+    static final class Plain {
+        static String run() {
+            return LogHelper.maskEmail("test.user@pragma.com.co");
+        }
+    }
+
+    @Test
+    void testWeave_recordsCallSiteLocation() throws Exception {
+        List<StackTraceElement> woven = new ArrayList<>();
+        List<StackTraceElement> walked = new ArrayList<>();
+        LoggerPort port = recorder(Caller.class, woven, walked);
+
+        Class<?> caller = load(Caller.class, LocationWeaver.weave(bytes(Caller.class)));
+        caller.getMethod("run", LoggerPort.class).invoke(null, port);
+
+        assertEquals(2, woven.size());
+        for (int i = 0; i < woven.size(); i++) {
+            assertEquals(walked.get(i).getClassName(), woven.get(i).getClassName());
+            assertEquals(walked.get(i).getMethodName(), woven.get(i).getMethodName());
+            assertEquals(walked.get(i).getFileName(), woven.get(i).getFileName());
+            assertEquals(walked.get(i).getLineNumber(), woven.get(i).getLineNumber());
+        }
+        assertEquals(woven.get(0).getLineNumber() + 1, woven.get(1).getLineNumber());
+        assertNull(LogLocation.current());
+    }
+
+    @Test
+    void testWeave_unwovenCallsHaveNoLocation() {
+        List<StackTraceElement> woven = new ArrayList<>();
+
+        Caller.run(recorder(Caller.class, woven, new ArrayList<>()));
+
+        assertEquals(2, woven.size());
+        assertNull(woven.get(0));
+        assertNull(woven.get(1));
+    }
+
+    @Test
+    void testWeave_exitsWhenTheCallThrows() throws Exception {
+        List<StackTraceElement> woven = new ArrayList<>();
+        List<StackTraceElement> walked = new ArrayList<>();
+        Class<?> thrower = load(Thrower.class, LocationWeaver.weave(bytes(Thrower.class)));
+
+        thrower.getMethod("run", LoggerPort.class).invoke(null, recorder(Thrower.class, woven, walked));
+
+        assertEquals(2, woven.size());
+        assertEquals(walked.get(1).getLineNumber(), woven.get(1).getLineNumber());
+        assertNull(LogLocation.current());
+
+        LoggerPort failing = (LoggerPort) Proxy.newProxyInstance(LoggerPort.class.getClassLoader(),
+                new Class<?>[] {LoggerPort.class}, (proxy, method, args) -> {
+                    throw new IllegalStateException("port failed");
+                });
+        Method propagate = thrower.getMethod("propagate", LoggerPort.class);
+        InvocationTargetException thrown = assertThrows(InvocationTargetException.class,
+                () -> propagate.invoke(null, failing));
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        assertNull(LogLocation.current());
+    }
+
+    @Test
+    void testWeave_log4jEventCarriesWovenLocation() throws Exception {
+        List<StackTraceElement> woven = new ArrayList<>();
+        byte[] classFile = LocationWeaver.weave(bytes(Caller.class));
+        // Tejer de nuevo una clase tejida no la cambia
+        assertSame(classFile, LocationWeaver.weave(classFile));
+        Method run = load(Caller.class, classFile).getMethod("run", LoggerPort.class);
+        run.invoke(null, recorder(Caller.class, woven, new ArrayList<>()));
+
+        LoggerContext context = new LoggerContext("location-weaver-test");
+        try {
+            CapturingAppender appender = new CapturingAppender();
+            appender.start();
+            LoggerConfig root = context.getConfiguration().getRootLogger();
+            root.getAppenders().keySet().forEach(root::removeAppender);
+            root.addAppender(appender, Level.ALL, null);
+            root.setLevel(Level.ALL);
+            context.updateLoggers();
+
+            run.invoke(null, new Log4j2LoggerPort(context.getLogger("woven", TemplateMessageFactory.INSTANCE)));
+
+            assertEquals(2, appender.events.size());
+            assertEquals(woven.get(0), appender.events.get(0).getSource());
+            assertEquals(woven.get(1), appender.events.get(1).getSource());
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Test
+    void testWeave_leavesClassesWithoutLoggingCallsUnchanged() throws IOException {
+        byte[] original = bytes(Plain.class);
+
+        assertSame(original, LocationWeaver.weave(original));
+    }
+
+    @Test
+    void testWeave_nestedCallHasItsOwnLocation() throws Exception {
+        List<StackTraceElement> before = new ArrayList<>();
+        List<StackTraceElement> after = new ArrayList<>();
+        List<StackTraceElement> walked = new ArrayList<>();
+        Class<?> nested = load(Nested.class, LocationWeaver.weave(bytes(Nested.class)));
+        LoggerPort port = (LoggerPort) Proxy.newProxyInstance(LoggerPort.class.getClassLoader(),
+                new Class<?>[] {LoggerPort.class}, (proxy, method, args) -> {
+                    before.add(LogLocation.current());
+                    walked.add(StackWalker.getInstance().walk(frames -> frames
+                            .filter(frame -> frame.getClassName().equals(Nested.class.getName()))
+                            .findFirst()
+                            .orElseThrow()
+                            .toStackTraceElement()));
+                    for (Object arg : args) {
+                        if (arg instanceof Supplier<?> supplier) {
+                            supplier.get();
+                        }
+                    }
+                    after.add(LogLocation.current());
+                    return null;
+                });
+
+        nested.getMethod("run", LoggerPort.class).invoke(null, port);
+
+        // La llamada interna termina primero
+        assertEquals(2, before.size());
+        assertEquals(walked.get(0).getLineNumber(), before.get(0).getLineNumber());
+        assertEquals(walked.get(1).getLineNumber(), before.get(1).getLineNumber());
+        assertEquals(before.get(1), after.get(0));
+        assertEquals(before.get(0), after.get(1));
+        assertNull(LogLocation.current());
+    }
+
+    @Test
+    void testWeave_delegatingPortKeepsCallerLocation() throws Exception {
+        List<StackTraceElement> woven = new ArrayList<>();
+        List<StackTraceElement> walked = new ArrayList<>();
+        Class<?> delegating = load(Delegating.class, LocationWeaver.weave(bytes(Delegating.class)));
+        LoggerPort port = (LoggerPort) delegating.getConstructor(LoggerPort.class)
+                .newInstance(recorder(LocationWeaverTest.class, woven, walked));
+        StackTraceElement caller = new StackTraceElement("Caller", "run", "Caller.java", 10);
+
+        port.info("unwoven caller");
+        StackTraceElement previous = LogLocation.enter(caller);
+        port.warn("woven caller");
+        LogLocation.exit(previous);
+
+        assertEquals(Delegating.class.getName(), woven.get(0).getClassName());
+        assertSame(caller, woven.get(1));
+        assertNull(LogLocation.current());
+    }
+
+    @Test
+    void testEnter_restoresPreviousLocation() {
+        StackTraceElement outer = new StackTraceElement("Outer", "run", "Outer.java", 10);
+        StackTraceElement inner = new StackTraceElement("Inner", "run", "Inner.java", 20);
+
+        assertNull(LogLocation.enter(outer));
+        assertSame(outer, LogLocation.enter(inner));
+        assertSame(inner, LogLocation.current());
+        LogLocation.exit(outer);
+        assertSame(outer, LogLocation.delegate(inner));
+        assertSame(outer, LogLocation.current());
+        LogLocation.exit(null);
+
+        assertNull(LogLocation.current());
+    }
+
+    private static LoggerPort recorder(Class<?> caller, List<StackTraceElement> woven, List<StackTraceElement> walked) {
+        return (LoggerPort) Proxy.newProxyInstance(LoggerPort.class.getClassLoader(), new Class<?>[] {LoggerPort.class},
+                (proxy, method, args) -> {
+                    woven.add(LogLocation.current());
+                    walked.add(StackWalker.getInstance().walk(frames -> frames
+                            .filter(frame -> frame.getClassName().equals(caller.getName()))
+                            .findFirst()
+                            .orElseThrow()
+                            .toStackTraceElement()));
+                    // Como el logger real, evalúa los argumentos diferidos
+                    for (Object arg : args) {
+                        if (arg instanceof Supplier<?> supplier) {
+                            supplier.get();
+                        } else if (arg instanceof Supplier<?>[] suppliers) {
+                            for (Supplier<?> each : suppliers) {
+                                each.get();
+                            }
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private static byte[] bytes(Class<?> type) throws IOException {
+        String resource = type.getName().substring(type.getPackageName().length() + 1) + ".class";
+        try (InputStream input = type.getResourceAsStream(resource)) {
+            return input.readAllBytes();
+        }
+    }
+
+    private static Class<?> load(Class<?> type, byte[] classFile) {
+        return new WovenLoader(type.getClassLoader()).define(type.getName(), classFile);
+    }
+
+    private static final class CapturingAppender extends AbstractAppender {
+        private final List<LogEvent> events = new ArrayList<>();
+
+        CapturingAppender() {
+            super("Capturing", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            events.add(event.toImmutable());
+        }
+    }
+
+    private static final class WovenLoader extends ClassLoader {
+        WovenLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
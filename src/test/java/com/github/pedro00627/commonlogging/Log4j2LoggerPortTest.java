@@ -0,0 +1,62 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Log4j2LoggerPortTest {
+
+    private final String loggerName = Log4j2LoggerPortTest.class.getName();
+    private final Log4j2LoggerPort port = Log4j2LoggerPort.of(loggerName);
+    private Level previous;
+
+    @BeforeEach
+    void setUp() {
+        previous = LogManager.getLogger(loggerName).getLevel();
+        Configurator.setLevel(loggerName, Level.INFO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Configurator.setLevel(loggerName, previous);
+    }
+
+    @Test
+    void testLevelChecks_followLoggerLevel() {
+        assertFalse(port.isDebugEnabled());
+        assertTrue(port.isInfoEnabled());
+        assertTrue(port.isWarnEnabled());
+        assertTrue(port.isErrorEnabled());
+        assertEquals(loggerName, port.name());
+    }
+
+    @Test
+    void testSuppliers_invokedOnlyWhenEnabled() {
+        AtomicInteger calls = new AtomicInteger();
+
+        port.debug("payload {}", () -> calls.incrementAndGet());
+        port.debug(() -> "payload " + calls.incrementAndGet());
+        assertEquals(0, calls.get());
+
+        port.info("payload {} {}", () -> calls.incrementAndGet(), () -> calls.incrementAndGet());
+        port.warn(() -> "payload " + calls.incrementAndGet());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testMasking_matchesLogHelper() {
+        assertEquals("t***r@pragma.com.co", port.maskEmail("test.user@pragma.com.co"));
+        assertEquals("***@example.com", port.maskEmail("ab@example.com"));
+        assertEquals("invalid-email-format", port.maskEmail("test@example"));
+        assertEquals("1****7890", port.maskDocument("1234567890"));
+        assertEquals("1****6", port.maskDocument("123456"));
+        assertEquals("***", port.maskDocument("12345"));
+    }
+}
@@ -1,10 +1,28 @@
 package com.github.pedro00627.commonlogging;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class LogHelperTest {
 
+    private static final List<String> EMAIL_SAMPLES = Arrays.asList(
+            "test.user@pragma.com.co", "ab@example.com", "abc@example.com", "test@example.c", "invalid-email", null);
+
+    private static final List<String> DOCUMENT_SAMPLES = Arrays.asList(
+            "1234567890", "123456", "12345", "", null);
+
     @Test
     void testMaskEmail_validEmail() {
         assertEquals("t***r@pragma.com.co", LogHelper.maskEmail("test.user@pragma.com.co"));
@@ -56,4 +74,89 @@ class LogHelperTest {
     void testMaskDocument_nullInput() {
         assertEquals("***", LogHelper.maskDocument(null));
     }
+
+    @Test
+    void testDebug_suppliersNotInvokedWhenDisabled() {
+        String loggerName = LogHelper.class.getName();
+        Level previous = LogManager.getLogger(loggerName).getLevel();
+        Configurator.setLevel(loggerName, Level.INFO);
+        try {
+            AtomicInteger calls = new AtomicInteger();
+            LogHelper.debug("payload {}", () -> calls.incrementAndGet());
+            LogHelper.debug(() -> "payload " + calls.incrementAndGet());
+            assertEquals(0, calls.get());
+        } finally {
+            Configurator.setLevel(loggerName, previous);
+        }
+    }
+
+    @Test
+    void testInfo_suppliersInvokedOnceWhenEnabled() {
+        String loggerName = LogHelper.class.getName();
+        Level previous = LogManager.getLogger(loggerName).getLevel();
+        Configurator.setLevel(loggerName, Level.INFO);
+        try {
+            AtomicInteger calls = new AtomicInteger();
+            LogHelper.info("payload {} {}", () -> calls.incrementAndGet(), () -> calls.incrementAndGet());
+            LogHelper.info(() -> "payload " + calls.incrementAndGet());
+            assertEquals(3, calls.get());
+        } finally {
+            Configurator.setLevel(loggerName, previous);
+        }
+    }
+
+    @Test
+    void testLevelChecks_followRefreshedLevels() {
+        String loggerName = LogHelper.class.getName();
+        Level previous = LogManager.getLogger(loggerName).getLevel();
+        Configurator.setLevel(loggerName, Level.WARN);
+        try {
+            assertFalse(LogHelper.isDebugEnabled());
+            assertFalse(LogHelper.isInfoEnabled());
+            assertTrue(LogHelper.isWarnEnabled());
+            assertTrue(LogHelper.isErrorEnabled());
+        } finally {
+            Configurator.setLevel(loggerName, previous);
+        }
+    }
+
+    @Test
+    void testForClass_cachedPerClass() {
+        LoggerPort first = LogHelper.forClass(LogHelperTest.class);
+
+        assertSame(first, LogHelper.forClass(LogHelperTest.class));
+        assertNotSame(first, LogHelper.forClass(MessageFormatterTest.class));
+        assertEquals(LogHelperTest.class.getName(), ((Log4j2LoggerPort) first).name());
+    }
+
+    @Test
+    void testForCaller_resolvesCallingClass() {
+        assertSame(LogHelper.forClass(LogHelperTest.class), LogHelper.forCaller());
+    }
+
+    @Test
+    void testMaskEmail_appendOverloadsMatchStringVersion() throws IOException {
+        for (String email : EMAIL_SAMPLES) {
+            StringBuilder builder = new StringBuilder("email=");
+            LogHelper.maskEmail(email, builder);
+            assertEquals("email=" + LogHelper.maskEmail(email), builder.toString());
+
+            StringWriter writer = new StringWriter();
+            LogHelper.maskEmail(email != null ? new StringBuilder(email) : null, writer);
+            assertEquals(LogHelper.maskEmail(email), writer.toString());
+        }
+    }
+
+    @Test
+    void testMaskDocument_appendOverloadsMatchStringVersion() throws IOException {
+        for (String documentId : DOCUMENT_SAMPLES) {
+            StringBuilder builder = new StringBuilder("doc=");
+            LogHelper.maskDocument(documentId, builder);
+            assertEquals("doc=" + LogHelper.maskDocument(documentId), builder.toString());
+
+            StringWriter writer = new StringWriter();
+            LogHelper.maskDocument(documentId != null ? new StringBuilder(documentId) : null, writer);
+            assertEquals(LogHelper.maskDocument(documentId), writer.toString());
+        }
+    }
 }
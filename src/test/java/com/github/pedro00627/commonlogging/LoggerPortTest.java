@@ -0,0 +1,87 @@
+package com.github.pedro00627.commonlogging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoggerPortTest {
+
+    @Test
+    void testDebug_suppliersNotInvokedWhenDisabled() {
+        RecordingLoggerPort port = new RecordingLoggerPort(false);
+        AtomicInteger calls = new AtomicInteger();
+
+        port.debug("payload {}", () -> calls.incrementAndGet());
+        port.debug(() -> "payload " + calls.incrementAndGet());
+
+        assertEquals(0, calls.get());
+        assertEquals(List.of(), port.messages);
+    }
+
+    @Test
+    void testInfo_suppliersInvokedOnceWhenEnabled() {
+        RecordingLoggerPort port = new RecordingLoggerPort(true);
+        AtomicInteger calls = new AtomicInteger();
+
+        port.info("payload {} and {}", () -> calls.incrementAndGet(), () -> "static");
+        port.info(() -> "built " + calls.incrementAndGet());
+
+        assertEquals(2, calls.get());
+        assertEquals(List.of("payload 1 and static", "built 2"), port.messages);
+    }
+
+    @Test
+    void testError_messageSupplier() {
+        RecordingLoggerPort port = new RecordingLoggerPort(true);
+
+        port.error(() -> "failed", new IllegalStateException());
+
+        assertEquals(List.of("failed"), port.messages);
+    }
+
+    /**
+     * Implementación mínima que, como las reales, solo formatea si el nivel está habilitado.
+     */
+    private static final class RecordingLoggerPort implements LoggerPort {
+        private final boolean debugEnabled;
+        private final List<String> messages = new ArrayList<>();
+
+        private RecordingLoggerPort(boolean debugEnabled) {
+            this.debugEnabled = debugEnabled;
+        }
+
+        @Override
+        public void info(String message, Object... args) {
+            messages.add(MessageFormatter.format(message, args));
+        }
+
+        @Override
+        public void warn(String message, Object... args) {
+            messages.add(MessageFormatter.format(message, args));
+        }
+
+        @Override
+        public void debug(String message, Object... args) {
+            if (debugEnabled) {
+                messages.add(MessageFormatter.format(message, args));
+            }
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            messages.add(message);
+        }
+
+        @Override
+        public String maskEmail(String email) {
+            return LogHelper.maskEmail(email);
+        }
+
+        @Override
+        public String maskDocument(String documentId) {
+            return LogHelper.maskDocument(documentId);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MaskedResolverTest {
+
+    @Test
+    void testResolve_messageMasksPiiInText() {
+        LogEvent event = event(new SimpleMessage("Usuario \"test.user@pragma.com.co\" con documento 1234567890"), null);
+
+        assertEquals("{\"message\":\"Usuario \\\"t***r@pragma.com.co\\\" con documento 1****7890\"}",
+                serialize("{\"message\": {\"$resolver\": \"masked\", \"field\": \"message\"}}", event));
+    }
+
+    @Test
+    void testResolve_formattableMessageWithoutPii() {
+        LogEvent event = event(new TemplateMessage("Pedido {} listo", new Object[] {42}), null);
+
+        assertEquals("{\"message\":\"Pedido 42 listo\"}",
+                serialize("{\"message\": {\"$resolver\": \"masked\"}}", event));
+    }
+
+    @Test
+    void testResolve_mdcKeyWithMaskType() {
+        SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("userEmail", "test.user@pragma.com.co");
+        contextData.putValue("documentId", "1234567890");
+        LogEvent event = event(new SimpleMessage("sin datos"), contextData);
+
+        assertEquals("{\"email\":\"t***r@pragma.com.co\",\"document\":\"1****7890\",\"missing\":null}",
+                serialize("{"
+                        + "\"email\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"key\": \"userEmail\", \"mask\": \"email\"},"
+                        + "\"document\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"key\": \"documentId\", \"mask\": \"DOCUMENT\"},"
+                        + "\"missing\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"key\": \"other\"}"
+                        + "}", event));
+    }
+
+    @Test
+    void testResolve_mdcMapMasksConfiguredKeys() {
+        SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("userEmail", "test.user@pragma.com.co");
+        contextData.putValue("documentId", "1234567890");
+        contextData.putValue("note", "cliente 1234567890");
+        contextData.putValue("traceId", "abc123");
+        LogEvent event = event(new SimpleMessage("sin datos"), contextData);
+
+        assertEquals("{\"mdc\":{\"documentId\":\"1****7890\",\"note\":\"cliente 1****7890\","
+                + "\"traceId\":\"abc123\",\"userEmail\":\"t***r@pragma.com.co\"}}",
+                serialize("{\"mdc\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"masks\": "
+                        + "{\"userEmail\": \"email\", \"documentId\": \"document\", \"note\": \"pii\"}}}", event));
+    }
+
+    @Test
+    void testResolve_mdcMapKeepsValueTypes() {
+        SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("attempt", 3);
+        contextData.putValue("retry", true);
+        contextData.putValue("documentId", 1234567890L);
+        contextData.putValue("missing", null);
+        LogEvent event = event(new SimpleMessage("sin datos"), contextData);
+
+        assertEquals("{\"mdc\":{\"attempt\":3,\"documentId\":\"1****7890\",\"missing\":null,\"retry\":true}}",
+                serialize("{\"mdc\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"masks\": "
+                        + "{\"documentId\": \"document\"}}}", event));
+    }
+
+    @Test
+    void testResolve_mdcMapEmpty() {
+        LogEvent event = event(new SimpleMessage("sin datos"), new SortedArrayStringMap());
+
+        assertEquals("{\"mdc\":{}}", serialize(
+                "{\"mdc\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"masks\": {\"userEmail\": \"email\"}}}",
+                event));
+    }
+
+    @Test
+    void testCreate_invalidConfig() {
+        assertThrows(IllegalArgumentException.class,
+                () -> layout("{\"value\": {\"$resolver\": \"masked\", \"field\": \"mdc\"}}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> layout("{\"value\": {\"$resolver\": \"masked\", \"field\": \"thread\"}}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> layout("{\"value\": {\"$resolver\": \"masked\", \"mask\": \"passport\"}}"));
+        assertThrows(IllegalArgumentException.class, () -> layout(
+                "{\"value\": {\"$resolver\": \"masked\", \"field\": \"mdc\", \"masks\": {\"userEmail\": \"passport\"}}}"));
+    }
+
+    private static JsonTemplateLayout layout(String template) {
+        return JsonTemplateLayout.newBuilder()
+                .setConfiguration(new DefaultConfiguration())
+                .setEventTemplate(template)
+                .build();
+    }
+
+    private static String serialize(String template, LogEvent event) {
+        return layout(template).toSerializable(event).strip();
+    }
+
+    private static LogEvent event(Message message, SortedArrayStringMap contextData) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(message)
+                .setContextData(contextData)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.pedro00627.commonlogging;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MessageFormatterTest {
+
+    @Test
+    void testFormat_noArgs() {
+        assertEquals("plain message", MessageFormatter.format("plain message"));
+        assertEquals("keeps {} as is", MessageFormatter.format("keeps {} as is", (Object[]) null));
+        assertNull(MessageFormatter.format(null, "a"));
+    }
+
+    @Test
+    void testFormat_replacesPlaceholdersInOrder() {
+        assertEquals("user ana created in 12ms", MessageFormatter.format("user {} created in {}ms", "ana", 12));
+        assertEquals("a-b-c", MessageFormatter.format("{}-{}-{}", "a", "b", "c"));
+        assertEquals("value: null", MessageFormatter.format("value: {}", (Object) null));
+    }
+
+    @Test
+    void testFormat_missingAndExtraArgs() {
+        assertEquals("a and {}", MessageFormatter.format("{} and {}", "a"));
+        assertEquals("only a", MessageFormatter.format("only {}", "a", "b", "c"));
+    }
+
+    @Test
+    void testFormat_argumentsAreLiteral() {
+        assertEquals("price $1.00", MessageFormatter.format("price {}", "$1.00"));
+        assertEquals("path C:\\tmp\\$x", MessageFormatter.format("path {}", "C:\\tmp\\$x"));
+        assertEquals("nested {} stays", MessageFormatter.format("nested {} stays", "{}"));
+    }
+
+    @Test
+    void testFormat_escapedPlaceholder() {
+        assertEquals("literal {} then a", MessageFormatter.format("literal \\{} then {}", "a"));
+        assertEquals("backslash \\a", MessageFormatter.format("backslash \\\\{}", "a"));
+    }
+
+    @Test
+    void testFormat_unbalancedBraces() {
+        assertEquals("{ a } {", MessageFormatter.format("{ {} } {", "a"));
+        assertEquals("trailing a{", MessageFormatter.format("trailing {}{", "a"));
+    }
+}
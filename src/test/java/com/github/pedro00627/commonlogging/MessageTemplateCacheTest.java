@@ -0,0 +1,77 @@
+package com.github.pedro00627.commonlogging;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MessageTemplateCacheTest {
+
+    @Test
+    void testGet_countsHitsAndMisses() {
+        MessageTemplateCache cache = new MessageTemplateCache(16);
+
+        MessageTemplate first = cache.get("user {} logged in");
+        MessageTemplate second = cache.get("user {} logged in");
+
+        assertSame(first, second);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testGet_evictsOnCollision() {
+        MessageTemplateCache cache = new MessageTemplateCache(1);
+
+        MessageTemplate first = cache.get("first {}");
+        cache.get("second {}");
+        MessageTemplate reparsed = cache.get("first {}");
+
+        assertNotSame(first, reparsed);
+        assertEquals(0, cache.hitCount());
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    void testGet_doesNotRetainLongTemplates() {
+        MessageTemplateCache cache = new MessageTemplateCache(16);
+        String template = "{}".repeat(MessageTemplateCache.MAX_TEMPLATE_LENGTH);
+
+        cache.get(template);
+        cache.get(template);
+
+        assertEquals(0, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void testCapacity_roundsUpToPowerOfTwo() {
+        assertEquals(1, new MessageTemplateCache(1).capacity());
+        assertEquals(1024, new MessageTemplateCache(1000).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new MessageTemplateCache(0));
+    }
+
+    @Test
+    void testClear_resetsEntriesAndCounters() {
+        MessageTemplateCache cache = new MessageTemplateCache(16);
+        cache.get("a {}");
+        cache.get("a {}");
+
+        cache.clear();
+        cache.get("a {}");
+
+        assertEquals(0, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testParse_splitsLiteralsAndSlots() {
+        MessageTemplate template = MessageTemplate.parse("a {} b \\{} c {}");
+        StringBuilder builder = new StringBuilder();
+        template.formatTo(builder, new Object[] {1, 2});
+
+        assertEquals(2, template.placeholderCount());
+        assertEquals("a 1 b {} c 2", builder.toString());
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PiiScannerTest {
+
+    @Test
+    void testRedact_noPiiReturnsSameInstance() {
+        String text = "Pedido 42 procesado en 15ms por el nodo api-7";
+
+        assertSame(text, PiiScanner.redact(text));
+        assertFalse(PiiScanner.mayContainPii(text));
+        assertNull(PiiScanner.redact(null));
+    }
+
+    @Test
+    void testRedact_emailInsideText() {
+        assertEquals("Usuario t***r@pragma.com.co registrado.",
+                PiiScanner.redact("Usuario test.user@pragma.com.co registrado."));
+        assertEquals("contacto=<***@example.com>", PiiScanner.redact("contacto=<ab@example.com>"));
+    }
+
+    @Test
+    void testRedact_documentDigitRuns() {
+        assertEquals("Documento 1****7890 y 1****6 validados",
+                PiiScanner.redact("Documento 1234567890 y 123456 validados"));
+        assertEquals("cc:1****7890,", PiiScanner.redact("cc:1234567890,"));
+    }
+
+    @Test
+    void testRedact_preservesNonPiiTokens() {
+        String hash = "commit 3f2a9b1234567c y traza 1234567890123456789012345";
+
+        assertSame(hash, PiiScanner.redact(hash));
+        assertSame("sin arroba valida: a@b y @@x.com", PiiScanner.redact("sin arroba valida: a@b y @@x.com"));
+    }
+
+    @Test
+    void testRedact_alreadyMaskedValuesAreStable() {
+        String masked = "Usuario " + LogHelper.maskEmail("test.user@pragma.com.co")
+                + " con documento " + LogHelper.maskDocument("1234567890");
+
+        assertEquals(masked, PiiScanner.redact(masked));
+    }
+
+    @Test
+    void testRedactStringBuilder_onlyFromOffset() {
+        StringBuilder builder = new StringBuilder("plantilla 1234567890 ");
+        int argStart = builder.length();
+        builder.append("ana.gomez@correo.com");
+
+        assertTrue(PiiScanner.redact(builder, argStart));
+        assertEquals("plantilla 1234567890 a***z@correo.com", builder.toString());
+        assertFalse(PiiScanner.redact(builder, builder.length()));
+    }
+
+    @Test
+    void testRewritePolicy_masksEventMessage() {
+        PiiRewritePolicy policy = PiiRewritePolicy.createPolicy();
+        LogEvent clean = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("sin datos")).build();
+        LogEvent withPii = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("correo test.user@pragma.com.co")).build();
+
+        assertSame(clean, policy.rewrite(clean));
+        assertEquals("correo t***r@pragma.com.co", policy.rewrite(withPii).getMessage().getFormattedMessage());
+    }
+
+    @Test
+    void testRewritePolicy_formatsIntoBufferWithoutMaterializing() {
+        PiiRewritePolicy policy = PiiRewritePolicy.createPolicy();
+        LogEvent clean = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setMessage(new FormattableMessage("pedido 42 procesado")).build();
+        LogEvent withPii = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setMessage(new FormattableMessage("documento 1234567890")).build();
+
+        assertSame(clean, policy.rewrite(clean));
+        assertEquals("documento 1****7890", policy.rewrite(withPii).getMessage().getFormattedMessage());
+    }
+
+    /**
+     * Mensaje que solo sabe formatearse en un buffer: falla si alguien pide su String.
+     */
+    private record FormattableMessage(String text) implements Message, StringBuilderFormattable {
+        @Override
+        public void formatTo(StringBuilder buffer) {
+            buffer.append(text);
+        }
+
+        @Override
+        public String getFormattedMessage() {
+            throw new AssertionError("the message should be formatted into a buffer");
+        }
+
+        @Override
+        public String getFormat() {
+            return text;
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return null;
+        }
+
+        @Override
+        public Throwable getThrowable() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.pedro00627.commonlogging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class RollingMemoryMappedFileManagerTest {
+
+    private static final int REGION_LENGTH = 64;
+
+    private final Configuration configuration = new DefaultConfiguration();
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("mmap-manager-test");
+        file = directory.resolve("app.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void testWrite_spansRegionsAndTruncatesOnClose() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        RollingMemoryMappedFileManager manager = manager(false);
+        try {
+            for (int i = 0; i < 50; i++) {
+                byte[] line = ("event number " + i + "\n").getBytes(StandardCharsets.UTF_8);
+                manager.write(line, 0, line.length, false);
+                expected.append("event number ").append(i).append('\n');
+            }
+            assertEquals(expected.length(), manager.getFileSize());
+        } finally {
+            manager.close();
+        }
+
+        assertEquals(expected.toString(), Files.readString(file));
+    }
+
+    @Test
+    void testWrite_largerThanRegion() throws IOException {
+        byte[] large = "x".repeat(REGION_LENGTH * 3 + 5).getBytes(StandardCharsets.UTF_8);
+        RollingMemoryMappedFileManager manager = manager(false);
+        try {
+            manager.write(large, 0, large.length, false);
+        } finally {
+            manager.close();
+        }
+
+        assertEquals(large.length, Files.size(file));
+    }
+
+    @Test
+    void testDrain_mapsNextRegion() throws IOException {
+        RollingMemoryMappedFileManager manager = manager(false);
+        try {
+            ByteBuffer region = manager.getByteBuffer();
+            while (region.hasRemaining()) {
+                region.put((byte) 'a');
+            }
+            ByteBuffer next = manager.drain(region);
+            next.put((byte) 'b');
+
+            assertNotSame(region, next);
+            assertEquals(REGION_LENGTH + 1, manager.getFileSize());
+        } finally {
+            manager.close();
+        }
+
+        assertEquals("a".repeat(REGION_LENGTH) + "b", Files.readString(file));
+    }
+
+    @Test
+    void testOpen_appendsToExistingFile() throws IOException {
+        Files.writeString(file, "previous\n");
+        byte[] line = "next\n".getBytes(StandardCharsets.UTF_8);
+        RollingMemoryMappedFileManager manager = manager(true);
+        try {
+            manager.write(line, 0, line.length, false);
+        } finally {
+            manager.close();
+        }
+
+        assertEquals("previous\nnext\n", Files.readString(file));
+    }
+
+    @Test
+    void testOpen_afterUncleanCloseDropsUnwrittenTail() throws IOException {
+        // Un proceso que termina sin cerrar deja el archivo con el tamaño de la región proyectada
+        byte[] crashed = Arrays.copyOf("previous\n".getBytes(StandardCharsets.UTF_8), 9 + REGION_LENGTH);
+        Files.write(file, crashed);
+        byte[] line = "next\n".getBytes(StandardCharsets.UTF_8);
+        RollingMemoryMappedFileManager manager = manager(true);
+        try {
+            assertEquals(9, manager.getFileSize());
+            manager.write(line, 0, line.length, false);
+        } finally {
+            manager.close();
+        }
+
+        assertEquals("previous\nnext\n", Files.readString(file));
+    }
+
+    @Test
+    void testRollover_createsNewFileAfterRollover() throws IOException {
+        byte[] first = "first\n".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "second\n".getBytes(StandardCharsets.UTF_8);
+        RollingMemoryMappedFileManager manager = manager(false, "app-%i.log");
+        try {
+            manager.write(first, 0, first.length, false);
+            manager.rollover();
+            assertEquals(0, manager.getFileSize());
+            manager.write(second, 0, second.length, false);
+            assertEquals(second.length, manager.getFileSize());
+        } finally {
+            manager.close();
+        }
+
+        assertEquals("first\n", Files.readString(directory.resolve("app-1.log")));
+        assertEquals("second\n", Files.readString(file));
+    }
+
+    private RollingMemoryMappedFileManager manager(boolean append) {
+        return manager(append, "app-%i.log.gz");
+    }
+
+    private RollingMemoryMappedFileManager manager(boolean append, String filePattern) {
+        return RollingMemoryMappedFileManager.getMemoryMappedManager(file.toString(),
+                directory.resolve(filePattern).toString(), append, false, REGION_LENGTH,
+                SizeBasedTriggeringPolicy.createPolicy("10 MB"),
+                DefaultRolloverStrategy.newBuilder().setConfig(configuration).build(),
+                PatternLayout.createDefaultLayout(configuration), configuration);
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.pedro00627.commonlogging;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensitiveRendererTest {
+
+    record Customer(String name, @Sensitive(type = MaskType.EMAIL) String email, int age) {
+    }
+
+    record Order(long id, Customer customer, boolean paid) {
+    }
+
+    static class Person {
+        private final String name;
+        @Sensitive(type = MaskType.DOCUMENT)
+        private final String document;
+
+        Person(String name, String document) {
+            this.name = name;
+            this.document = document;
+        }
+
+        @Override
+        public String toString() {
+            return "Person " + name + " " + document;
+        }
+    }
+
+    static class Employee extends Person {
+        private final double salary;
+        @Sensitive(type = MaskType.DOCUMENT)
+        private final long taxId;
+
+        Employee(String name, String document, double salary, long taxId) {
+            super(name, document);
+            this.salary = salary;
+            this.taxId = taxId;
+        }
+    }
+
+    record Plain(String email) {
+    }
+
+    record Team(String name, List<Customer> members) {
+    }
+
+    static class Buyer {
+        private final String name;
+        @Sensitive(type = MaskType.EMAIL)
+        private final String email;
+        private final List<Purchase> purchases = new ArrayList<>();
+
+        Buyer(String name, String email) {
+            this.name = name;
+            this.email = email;
+        }
+    }
+
+    static class Purchase {
+        private final long id;
+        private final Buyer buyer;
+
+        Purchase(long id, Buyer buyer) {
+            this.id = id;
+            this.buyer = buyer;
+            buyer.purchases.add(this);
+        }
+    }
+
+    static class Node {
+        @Sensitive(type = MaskType.DOCUMENT)
+        private final String document;
+        private final Node next;
+
+        Node(String document, Node next) {
+            this.document = document;
+            this.next = next;
+        }
+    }
+
+    record Batch(Iterable<Customer> customers) {
+    }
+
+    @Test
+    void testRender_recordMasksAnnotatedComponents() {
+        Customer customer = new Customer("Ana", "test.user@pragma.com.co", 31);
+
+        assertEquals("Customer[name=Ana, email=t***r@pragma.com.co, age=31]", SensitiveRenderer.render(customer));
+        assertEquals("Customer[name=null, email=null, age=0]", SensitiveRenderer.render(new Customer(null, null, 0)));
+    }
+
+    @Test
+    void testRender_classIncludesInheritedFields() {
+        assertEquals("Person[name=Ana, document=1****7890]", SensitiveRenderer.render(new Person("Ana", "1234567890")));
+        assertEquals("Employee[name=Ana, document=1****7890, salary=1500.5, taxId=9****4321]",
+                SensitiveRenderer.render(new Employee("Ana", "1234567890", 1500.5, 987654321L)));
+    }
+
+    @Test
+    void testRender_nestedObjectsAreMasked() {
+        Order order = new Order(7, new Customer("Ana", "ana.maria@mail.com", 31), true);
+
+        assertEquals("Order[id=7, customer=Customer[name=Ana, email=a***a@mail.com, age=31], paid=true]",
+                SensitiveRenderer.render(order));
+    }
+
+    @Test
+    void testRender_containersOfSensitiveObjectsAreMasked() {
+        Customer customer = new Customer("Ana", "ana.maria@mail.com", 31);
+        String masked = "Customer[name=Ana, email=a***a@mail.com, age=31]";
+
+        assertEquals("[" + masked + ", null]", SensitiveRenderer.render(Arrays.asList(customer, null)));
+        assertEquals("{vip=" + masked + "}", SensitiveRenderer.render(Map.of("vip", customer)));
+        assertEquals("[" + masked + "]", SensitiveRenderer.render(new Customer[] {customer}));
+        assertEquals("[[" + masked + "]]", SensitiveRenderer.render(List.of(List.of(customer))));
+        assertTrue(SensitiveRenderer.isSensitive(Team.class));
+        assertEquals("Team[name=core, members=[" + masked + "]]",
+                SensitiveRenderer.render(new Team("core", List.of(customer))));
+        assertEquals("Equipo [" + masked + "]", MessageFormatter.format("Equipo {}", List.of(customer)));
+        assertEquals("[" + masked + "]", DeferredMessage.snapshot(List.of(customer)));
+    }
+
+    @Test
+    void testRender_bidirectionalReferencesStopAtCycle() {
+        Buyer buyer = new Buyer("Ana", "ana.maria@mail.com");
+        Purchase purchase = new Purchase(7, buyer);
+
+        assertEquals("Buyer[name=Ana, email=a***a@mail.com, purchases=[Purchase[id=7, buyer=(cycle)]]]",
+                SensitiveRenderer.render(buyer));
+        assertEquals("Purchase[id=7, buyer=Buyer[name=Ana, email=a***a@mail.com, purchases=[(cycle)]]]",
+                SensitiveRenderer.render(purchase));
+    }
+
+    @Test
+    void testRender_deepChainsAreTruncated() {
+        Node node = null;
+        for (int i = 0; i < 10_000; i++) {
+            node = new Node("1234567890", node);
+        }
+
+        String rendered = SensitiveRenderer.render(node);
+
+        assertTrue(rendered.endsWith("next=Node[...]" + "]".repeat(16)), rendered);
+        assertFalse(rendered.contains("1234567890"));
+    }
+
+    @Test
+    void testRender_onlyCollectionsMapsAndArraysAreScanned() {
+        Customer customer = new Customer("Ana", "ana.maria@mail.com", 31);
+        int[] iterations = new int[1];
+        Iterable<Customer> once = () -> {
+            iterations[0]++;
+            return List.of(new Customer("Ana", "ana.maria@mail.com", 31)).iterator();
+        };
+        List<Object> late = new ArrayList<>(Collections.nCopies(40, "x"));
+        late.add(customer);
+
+        assertEquals(once.toString(), SensitiveRenderer.render(once));
+        assertEquals("Batch[customers=" + once + "]", SensitiveRenderer.render(new Batch(once)));
+        assertEquals(0, iterations[0]);
+        assertEquals(late.toString(), SensitiveRenderer.render(late));
+    }
+
+    @Test
+    void testRender_containersWithoutSensitiveObjectsUseToString() {
+        List<Object> selfReferencing = new ArrayList<>(List.of("a"));
+        selfReferencing.add(selfReferencing);
+        Path path = Path.of("logs", "app.log");
+
+        assertEquals("[a, (this Collection)]", SensitiveRenderer.render(selfReferencing));
+        assertEquals(path.toString(), SensitiveRenderer.render(path));
+        assertEquals("{a=1}", SensitiveRenderer.render(Map.of("a", 1)));
+    }
+
+    @Test
+    void testRender_classesWithoutAnnotationsUseToString() {
+        Plain plain = new Plain("test.user@pragma.com.co");
+
+        assertFalse(SensitiveRenderer.isSensitive(Plain.class));
+        assertFalse(SensitiveRenderer.isSensitive(String.class));
+        assertTrue(SensitiveRenderer.isSensitive(Order.class));
+        assertEquals(plain.toString(), SensitiveRenderer.render(plain));
+        assertEquals("null", SensitiveRenderer.render(null));
+        assertSame("texto", SensitiveRenderer.render("texto"));
+    }
+
+    @Test
+    void testFormat_logArgumentsAreMasked() {
+        Customer customer = new Customer("Ana", "test.user@pragma.com.co", 31);
+
+        assertEquals("Alta de Customer[name=Ana, email=t***r@pragma.com.co, age=31]",
+                MessageFormatter.format("Alta de {}", customer));
+        assertEquals("Customer[name=Ana, email=t***r@pragma.com.co, age=31]", DeferredMessage.snapshot(customer));
+    }
+
+    @Test
+    void testRender_concurrentFirstUse() throws Exception {
+        record Account(@Sensitive(type = MaskType.EMAIL) String email, String alias) {
+        }
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return SensitiveRenderer.render(new Account("test.user@pragma.com.co", "main"));
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("Account[email=t***r@pragma.com.co, alias=main]", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
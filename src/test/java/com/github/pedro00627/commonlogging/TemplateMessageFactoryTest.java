@@ -0,0 +1,98 @@
+package com.github.pedro00627.commonlogging;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TemplateMessageFactoryTest {
+
+    private final TemplateMessageFactory reusableFactory = new TemplateMessageFactory(true, false);
+
+    @Test
+    void testNewMessage_keepsFormatterSemantics() {
+        Message message = new TemplateMessageFactory(false, false).newMessage("user {} took {}ms, literal \\{}", "ana", 12);
+
+        assertEquals("user ana took 12ms, literal {}", message.getFormattedMessage());
+        assertEquals("user {} took {}ms, literal \\{}", message.getFormat());
+        assertArrayEquals(new Object[] {"ana", 12}, message.getParameters());
+    }
+
+    @Test
+    void testNewMessage_withoutArgumentsKeepsTemplate() {
+        assertEquals("plain {} \\{}", reusableFactory.newMessage("plain {} \\{}").getFormattedMessage());
+    }
+
+    @Test
+    void testNewMessage_reusesThreadMessage() {
+        Message first = reusableFactory.newMessage("a {}", 1);
+        Message second = reusableFactory.newMessage("b {} {}", 2, 3);
+
+        assertSame(first, second);
+        assertEquals("b 2 3", second.getFormattedMessage());
+    }
+
+    @Test
+    void testNewMessage_reentrantCallGetsNewMessage() {
+        Message[] inner = new Message[1];
+        Object reentrant = new Object() {
+            @Override
+            public String toString() {
+                inner[0] = reusableFactory.newMessage("inner {}", "value");
+                return inner[0].getFormattedMessage();
+            }
+        };
+
+        Message outer = reusableFactory.newMessage("outer {}", reentrant);
+
+        assertEquals("outer inner value", outer.getFormattedMessage());
+        assertNotSame(outer, inner[0]);
+    }
+
+    @Test
+    void testGetThrowable_onlyForTrailingUnusedArgument() {
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        assertSame(failure, reusableFactory.newMessage("failed {}", "id", failure).getThrowable());
+        assertNull(reusableFactory.newMessage("failed {}", failure).getThrowable());
+    }
+
+    @Test
+    void testGetThrowable_sharesTemplateLookupWithFormatting() {
+        MessageTemplateCache cache = MessageFormatter.templateCache();
+        Message message = reusableFactory.newMessage("failed {}", "id", new IllegalStateException("boom"));
+        long lookups = cache.hitCount() + cache.missCount();
+
+        message.getThrowable();
+        assertEquals("failed id", message.getFormattedMessage());
+
+        assertEquals(lookups + 1, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    void testSwapParameters_releasesArguments() {
+        ReusableMessage message = (ReusableMessage) reusableFactory.newMessage("{} {} {}", "a", "b", "c");
+        Object[] replacement = new Object[10];
+
+        Object[] swapped = message.swapParameters(replacement);
+
+        assertEquals(3, message.getParameterCount());
+        assertEquals("a", swapped[0]);
+        assertEquals("c", swapped[2]);
+        assertArrayEquals(new Object[] {null, null, null}, message.getParameters());
+    }
+
+    @Test
+    void testMemento_isIndependentCopy() {
+        Message message = reusableFactory.newMessage("value {}", 1);
+        Message memento = ((ReusableMessage) message).memento();
+
+        reusableFactory.newMessage("value {}", 2);
+
+        assertEquals("value 1", memento.getFormattedMessage());
+    }
+}
@@ -0,0 +1,272 @@
+package com.github.pedro00627.commonlogging;
+
+import com.github.luben.zstd.ZstdInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThrottledRolloverStrategyTest {
+
+    private final Configuration configuration = new DefaultConfiguration();
+    private Path directory;
+    private Path source;
+    private String content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("throttled-rollover-test");
+        source = directory.resolve("app-1.log");
+        content = "{\"level\":\"INFO\",\"message\":\"order created\"}\n".repeat(5_000);
+        Files.writeString(source, content);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void testCompress_gzipRoundTrip() throws Exception {
+        Path target = directory.resolve("app-1.log.gz");
+        ThrottledRolloverStrategy.compress(source.toFile(), target.toFile(), ThrottledRolloverStrategy.Codec.GZIP, 9, 0);
+
+        assertFalse(Files.exists(source));
+        assertFalse(Files.exists(directory.resolve("app-1.log.gz.tmp")));
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(target))) {
+            assertEquals(content, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testCompress_zstdRoundTrip() throws Exception {
+        Path target = directory.resolve("app-1.log.zst");
+        ThrottledRolloverStrategy.compress(source.toFile(), target.toFile(), ThrottledRolloverStrategy.Codec.ZSTD, 3, 0);
+
+        assertFalse(Files.exists(source));
+        try (InputStream input = new ZstdInputStream(Files.newInputStream(target))) {
+            assertEquals(content, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testPauseNanos_keepsReadsWithinLimit() {
+        // 200 KB a 1 MB/s deben tardar 195,3 ms
+        long due = 200L * 1024 * 1_000_000_000 / (1024 * 1024);
+
+        assertEquals(due, ThrottledRolloverStrategy.pauseNanos(0, 200 * 1024, 1024 * 1024));
+        assertEquals(due - 50_000_000, ThrottledRolloverStrategy.pauseNanos(50_000_000, 200 * 1024, 1024 * 1024));
+        assertEquals(0, ThrottledRolloverStrategy.pauseNanos(due + 1, 200 * 1024, 1024 * 1024));
+        assertEquals(0, ThrottledRolloverStrategy.pauseNanos(0, 200 * 1024, 0));
+    }
+
+    @Test
+    void testCompress_updatesMetrics() throws Exception {
+        RolloverCompressionMXBean metrics = ThrottledRolloverStrategy.metrics();
+        long completed = metrics.getCompletedCount();
+        long uncompressed = metrics.getUncompressedBytes();
+
+        ThrottledRolloverStrategy.compress(source.toFile(), directory.resolve("app-1.log.gz").toFile(),
+                ThrottledRolloverStrategy.Codec.GZIP, 6, 0);
+
+        assertEquals(completed + 1, metrics.getCompletedCount());
+        assertEquals(uncompressed + content.length(), metrics.getUncompressedBytes());
+        assertEquals(0, metrics.getQueueLength());
+    }
+
+    @Test
+    void testCompressAction_secondRolloverDuringCompression() throws Exception {
+        ThrottledRolloverStrategy strategy = ThrottledRolloverStrategy.createStrategy(5, "gzip", "1", "0",
+                new DefaultConfiguration());
+        String filePattern = directory.resolve("app-%i.log.gz").toString();
+        File active = directory.resolve("app.log").toFile();
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Path second = directory.resolve("app-2.log");
+        Files.writeString(second, "second\n");
+        CountDownLatch release = new CountDownLatch(1);
+        // Ocupa el hilo de compresión, como una compresión larga en curso
+        ThrottledRolloverStrategy.COMPRESSOR.execute(() -> awaitQuietly(release));
+        try {
+            assertTrue(strategy.compressAction(source.toFile(), directory.resolve("app-1.log.gz").toFile(),
+                    filePattern, active).execute());
+            assertTrue(strategy.compressAction(second.toFile(), directory.resolve("app-2.log.gz").toFile(),
+                    filePattern, active).execute());
+
+            // Ambas rotaciones terminaron sin esperar a que se comprimiera nada
+            assertEquals(2, ThrottledRolloverStrategy.metrics().getQueueLength());
+            assertTrue(Files.exists(source));
+            assertTrue(Files.exists(second));
+        } finally {
+            release.countDown();
+        }
+        ThrottledRolloverStrategy.awaitCompressions();
+
+        assertFalse(Files.exists(source));
+        assertFalse(Files.exists(second));
+        assertEquals(content, gunzip(directory.resolve("app-1.log.gz")));
+        assertEquals("second\n", gunzip(directory.resolve("app-2.log.gz")));
+        assertTrue(Files.getLastModifiedTime(directory.resolve("app-1.log.gz")).toMillis()
+                < Files.getLastModifiedTime(directory.resolve("app-2.log.gz")).toMillis());
+    }
+
+    @Test
+    void testRollover_throughManagerCompressesPendingAndNewFiles() throws Exception {
+        Files.writeString(source, "leftover\n");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        ThrottledRolloverStrategy strategy = ThrottledRolloverStrategy.createStrategy(2, "gzip", "1", "0",
+                configuration);
+        RollingMemoryMappedFileManager manager = RollingMemoryMappedFileManager.getMemoryMappedManager(
+                directory.resolve("app.log").toString(), directory.resolve("app-%i.log.gz").toString(), false,
+                false, 1024, SizeBasedTriggeringPolicy.createPolicy("10 MB"), strategy,
+                PatternLayout.createDefaultLayout(configuration), configuration);
+        try {
+            write(manager, "first\n");
+            manager.rollover();
+            write(manager, "second\n");
+            manager.rollover();
+            write(manager, "third\n");
+        } finally {
+            // Espera a que las acciones asíncronas de la rotación terminen de encolar las compresiones
+            manager.stop(10, TimeUnit.SECONDS);
+        }
+        ThrottledRolloverStrategy.awaitCompressions();
+
+        // app-1.log quedó sin comprimir de una ejecución anterior; max=2 borra su versión comprimida
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("app-2.log.gz", "app-3.log.gz", "app.log"),
+                    files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+        assertEquals("first\n", gunzip(directory.resolve("app-2.log.gz")));
+        assertEquals("second\n", gunzip(directory.resolve("app-3.log.gz")));
+        assertEquals("third\n", Files.readString(directory.resolve("app.log")));
+    }
+
+    @Test
+    void testCompressAction_purgesOldestBeyondMax() throws Exception {
+        ThrottledRolloverStrategy strategy = ThrottledRolloverStrategy.createStrategy(2, "gzip", "1", "0",
+                new DefaultConfiguration());
+        Files.delete(source);
+        long now = System.currentTimeMillis();
+        Path active = directory.resolve("app.log");
+        Files.writeString(active, content);
+        Files.setLastModifiedTime(active, FileTime.fromMillis(now - 600_000));
+        Files.writeString(directory.resolve("other.txt"), content);
+        Files.setLastModifiedTime(directory.resolve("other.txt"), FileTime.fromMillis(now - 600_000));
+        for (int i = 2; i <= 4; i++) {
+            Path rolled = directory.resolve("app-" + i + ".log.gz");
+            Files.writeString(rolled, content);
+            Files.setLastModifiedTime(rolled, FileTime.fromMillis(now - 300_000 + i * 1000));
+        }
+        Path newest = directory.resolve("app-5.log");
+        Files.writeString(newest, content);
+
+        strategy.compressAction(newest.toFile(), directory.resolve("app-5.log.gz").toFile(),
+                directory.resolve("app-%i.log.gz").toString(), active.toFile()).execute();
+        ThrottledRolloverStrategy.awaitCompressions();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("app-4.log.gz", "app-5.log.gz", "app.log", "other.txt"),
+                    files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    void testPurge_appliesMaxPerDate() throws Exception {
+        Files.delete(source);
+        long now = System.currentTimeMillis();
+        String[] names = {"app-2024-05-01-1.log.gz", "app-2024-05-01-2.log.gz", "app-2024-05-01-3.log",
+            "app-2024-05-02-1.log.gz", "app-2024-05-02-2.log.gz"};
+        for (int i = 0; i < names.length; i++) {
+            Path rolled = directory.resolve(names[i]);
+            Files.writeString(rolled, content);
+            Files.setLastModifiedTime(rolled, FileTime.fromMillis(now - 60_000 + i * 1000));
+        }
+
+        ThrottledRolloverStrategy.purge(directory.toFile(), ThrottledRolloverStrategy.rolledFiles(
+                "app-%d{yyyy-MM-dd}-%i.log.gz", ThrottledRolloverStrategy.Codec.GZIP),
+                directory.resolve("app.log").toFile(), 2);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("app-2024-05-01-2.log.gz", "app-2024-05-01-3.log", "app-2024-05-02-1.log.gz",
+                    "app-2024-05-02-2.log.gz"), files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    void testRolledFiles_matchesCompressedAndPending() {
+        Pattern rolled = ThrottledRolloverStrategy.rolledFiles("logs/app-%d{yyyy-MM-dd}{UTC}-%i.log.zst",
+                ThrottledRolloverStrategy.Codec.ZSTD);
+
+        assertTrue(rolled.matcher("app-2024-05-01-3.log.zst").matches());
+        assertTrue(rolled.matcher("app-2024-05-01-12.log").matches());
+        assertFalse(rolled.matcher("app.log").matches());
+        assertFalse(rolled.matcher("app-2024-05-01-3.log.zst.tmp").matches());
+        assertFalse(rolled.matcher("app-2024-05-01-x.log").matches());
+    }
+
+    @Test
+    void testCodec_withoutExtension() {
+        assertEquals(new File("logs/app-1.log"),
+                ThrottledRolloverStrategy.Codec.GZIP.withoutExtension(new File("logs/app-1.log.gz")));
+        assertEquals(new File("logs/app-1.log"),
+                ThrottledRolloverStrategy.Codec.ZSTD.withoutExtension(new File("logs/app-1.log")));
+    }
+
+    @Test
+    void testCreateStrategy_invalidSettings() {
+        DefaultConfiguration configuration = new DefaultConfiguration();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ThrottledRolloverStrategy.createStrategy(5, "lz4", null, "10MB", configuration));
+        assertThrows(IllegalArgumentException.class,
+                () -> ThrottledRolloverStrategy.createStrategy(5, "gzip", "12", "10MB", configuration));
+        assertThrows(IllegalArgumentException.class,
+                () -> ThrottledRolloverStrategy.createStrategy(5, "zstd", "23", "10MB", configuration));
+        assertThrows(IllegalArgumentException.class,
+                () -> ThrottledRolloverStrategy.createStrategy(0, "gzip", null, "10MB", configuration));
+    }
+
+    private static void write(RollingMemoryMappedFileManager manager, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        manager.write(bytes, 0, bytes.length, false);
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
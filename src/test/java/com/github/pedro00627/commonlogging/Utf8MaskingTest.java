@@ -0,0 +1,131 @@
+package com.github.pedro00627.commonlogging;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Utf8MaskingTest {
+
+    private static final String[] EMAILS = {
+        "test.user@pragma.com.co", "ab@example.com", "abc@example.com", "a+b.c_d@mail.io",
+        "invalid.email", "josé@example.com", "user@example.c0m", ""
+    };
+
+    private static final String[] DOCUMENTS = {
+        "1234567890", "123456", "12345", "1234567", "AB-123.456", "ñ12345678", "12345ñ", ""
+    };
+
+    @Test
+    void testMaskEmail_byteArrayMatchesStringMasking() {
+        for (String email : EMAILS) {
+            byte[] source = framed(email);
+            byte[] target = new byte[Utf8Masking.maxMaskedLength(source.length) + 3];
+
+            int written = Utf8Masking.maskEmail(source, 2, source.length - 4, target, 3);
+
+            assertEquals(LogHelper.maskEmail(email), new String(target, 3, written, StandardCharsets.UTF_8), email);
+        }
+    }
+
+    @Test
+    void testMaskDocument_byteArrayMatchesStringMasking() {
+        for (String document : DOCUMENTS) {
+            byte[] source = framed(document);
+            byte[] target = new byte[Utf8Masking.maxMaskedLength(source.length)];
+
+            int written = Utf8Masking.maskDocument(source, 2, source.length - 4, target, 0);
+
+            assertEquals(LogHelper.maskDocument(document), new String(target, 0, written, StandardCharsets.UTF_8),
+                    document);
+        }
+    }
+
+    @Test
+    void testMaskEmail_directBufferKeepsSourcePosition() {
+        for (String email : EMAILS) {
+            ByteBuffer source = direct(email);
+            ByteBuffer target = ByteBuffer.allocateDirect(Utf8Masking.maxMaskedLength(source.remaining()));
+
+            Utf8Masking.maskEmail(source, target);
+
+            assertEquals(0, source.position());
+            assertEquals(LogHelper.maskEmail(email), decode(target.flip()), email);
+        }
+    }
+
+    @Test
+    void testMaskDocument_heapBufferSlice() {
+        for (String document : DOCUMENTS) {
+            ByteBuffer source = ByteBuffer.wrap(framed(document)).position(2);
+            source.limit(source.capacity() - 2);
+            ByteBuffer target = ByteBuffer.allocate(Utf8Masking.maxMaskedLength(source.remaining()));
+
+            Utf8Masking.maskDocument(source.slice(), target);
+
+            assertEquals(LogHelper.maskDocument(document), decode(target.flip()), document);
+        }
+    }
+
+    @Test
+    void testMaskEmail_targetTooSmall() {
+        ByteBuffer source = ByteBuffer.wrap("test.user@pragma.com.co".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BufferOverflowException.class, () -> Utf8Masking.maskEmail(source, ByteBuffer.allocate(4)));
+    }
+
+    @Test
+    void testMaskInPlace_shrinkingValues() {
+        byte[] bytes = framed("test.user@pragma.com.co");
+        int length = Utf8Masking.maskEmailInPlace(bytes, 2, bytes.length - 4);
+        assertEquals("t***r@pragma.com.co", new String(bytes, 2, length, StandardCharsets.UTF_8));
+        assertEquals('#', bytes[bytes.length - 1]);
+
+        ByteBuffer document = direct("1234567890");
+        assertTrue(Utf8Masking.maskDocumentInPlace(document));
+        assertEquals("1****7890", decode(document));
+
+        ByteBuffer email = ByteBuffer.wrap("firstname@example.com".getBytes(StandardCharsets.UTF_8));
+        assertTrue(Utf8Masking.maskEmailInPlace(email));
+        assertEquals("f***e@example.com", decode(email));
+    }
+
+    @Test
+    void testMaskInPlace_growingValuesAreLeftUntouched() {
+        byte[] bytes = "ab@example.com".getBytes(StandardCharsets.UTF_8);
+        assertEquals(-1, Utf8Masking.maskEmailInPlace(bytes, 0, bytes.length));
+        assertEquals("ab@example.com", new String(bytes, StandardCharsets.UTF_8));
+
+        ByteBuffer document = ByteBuffer.wrap("1234567".getBytes(StandardCharsets.UTF_8));
+        assertFalse(Utf8Masking.maskDocumentInPlace(document));
+        assertEquals("1234567", decode(document));
+    }
+
+    @Test
+    void testIsValidEmail_rejectsOutOfRange() {
+        byte[] bytes = framed("test.user@pragma.com.co");
+
+        assertTrue(Utf8Masking.isValidEmail(bytes, 2, bytes.length - 4));
+        assertFalse(Utf8Masking.isValidEmail(bytes, 0, bytes.length));
+        assertThrows(IndexOutOfBoundsException.class, () -> Utf8Masking.isValidEmail(bytes, 2, bytes.length));
+    }
+
+    private static byte[] framed(String value) {
+        return ("##" + value + "##").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer direct(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    private static String decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}